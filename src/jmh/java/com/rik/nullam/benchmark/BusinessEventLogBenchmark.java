@@ -0,0 +1,85 @@
+package com.rik.nullam.benchmark;
+
+import com.rik.nullam.service.BusinessEventLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+import java.util.logging.StreamHandler;
+
+/**
+ * Request thread cost of logging a participant registration: the former synchronous
+ * String.format and Logger.info call against the asynchronous business event log.
+ * Both write to a handler that formats records and discards the output, so only the logging work is measured.
+ * Run with ./gradlew jmh -PjmhIncludes=BusinessEventLogBenchmark, with DROP the rate includes dropped events.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(1)
+public class BusinessEventLogBenchmark {
+
+    private static final Logger SYNCHRONOUS_LOGGER = Logger.getLogger("benchmark.synchronous");
+
+    @Param({"DROP", "BLOCK"})
+    public BusinessEventLog.OverflowPolicy policy;
+
+    private BusinessEventLog businessEventLog;
+
+    /**
+     * Send both loggers to a discarding handler and start the business event log.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        discardOutput(SYNCHRONOUS_LOGGER);
+        discardOutput(Logger.getLogger(BusinessEventLog.class.getName()));
+        businessEventLog = new BusinessEventLog(8192, policy);
+    }
+
+    /**
+     * Stop the business event log.
+     * @throws InterruptedException if interrupted while waiting for the writer.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        businessEventLog.close();
+    }
+
+    /**
+     * Replace handlers of a logger with one that formats records and discards the output.
+     * @param logger logger.
+     */
+    private static void discardOutput(Logger logger) {
+        logger.setUseParentHandlers(false);
+        logger.addHandler(new StreamHandler(OutputStream.nullOutputStream(), new SimpleFormatter()));
+    }
+
+    @Benchmark
+    public void synchronousFormat() {
+        SYNCHRONOUS_LOGGER.info(String.format("Added %1$s %2$s to event %3$s", "Mari", "Maasikas", "Suvepäevad"));
+    }
+
+    @Benchmark
+    public void asynchronousBusinessEvent() {
+        businessEventLog.log("participation_added", "type", "PERSON", "participationId", 42L,
+                "eventId", 5L, "firstName", "Mari", "lastName", "Maasikas");
+    }
+}
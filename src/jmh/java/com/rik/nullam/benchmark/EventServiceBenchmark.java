@@ -0,0 +1,70 @@
+package com.rik.nullam.benchmark;
+
+import com.rik.nullam.dto.EventSummaryDto;
+import com.rik.nullam.dto.ParticipationSummaryDto;
+import com.rik.nullam.dto.PersonParticipationDto;
+import com.rik.nullam.dto.ValidationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the event service read and write paths against a seeded database.
+ * Run with the gc profiler to get the allocation rate per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EventServiceBenchmark {
+
+    private int next;
+    private long registrations;
+
+    /**
+     * Pick the next seeded future event, so consecutive calls do not hit the same row.
+     * @param state seeded application.
+     * @return event id.
+     */
+    private Long nextFutureEventId(SeededApplicationState state) {
+        List<Long> ids = state.getFutureEventIds();
+        next = (next + 1) % ids.size();
+        return ids.get(next);
+    }
+
+    @Benchmark
+    public List<EventSummaryDto> futureEventsSummaries(SeededApplicationState state) {
+        return state.getEventService().getFutureEventsSummaries();
+    }
+
+    @Benchmark
+    public List<ParticipationSummaryDto> participantSummariesCached(SeededApplicationState state) {
+        return state.getEventService().getEventParticipantSummariesList(nextFutureEventId(state));
+    }
+
+    @Benchmark
+    public List<ParticipationSummaryDto> participantSummariesUncached(SeededApplicationState state) {
+        Long eventId = nextFutureEventId(state);
+        state.getEventSummaryCache().invalidate(eventId);
+        return state.getEventService().getEventParticipantSummariesList(eventId);
+    }
+
+    @Benchmark
+    public ValidationResult addPersonParticipation(SeededApplicationState state) {
+        // Unique personal code per call, so the duplicate check does not reject the registration
+        String personalCode = String.format("4%010d", registrations++);
+        return state.getEventService().addPersonParticipation(new PersonParticipationDto(
+                null, nextFutureEventId(state), "CASH", null, "Mari", "Maasikas", personalCode));
+    }
+}
@@ -0,0 +1,193 @@
+package com.rik.nullam.benchmark;
+
+import com.rik.nullam.NullamApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Registration surge against one popular event, run once on platform threads and once with the
+ * virtual profile. Prints throughput, p50 and p99 latency and failed requests for both modes.
+ * Run with ./gradlew loadComparison -PloadClients=400 -PloadRequests=50
+ */
+public class LoadComparison {
+
+    private static final Pattern EVENT_ID = Pattern.compile("\"id\":(\\d+)");
+    private static final int WRITE_EVERY = 4;
+
+    private final int clients;
+    private final int requestsPerClient;
+
+    /**
+     * Load comparison constructor.
+     * @param clients number of concurrent clients.
+     * @param requestsPerClient requests sent by each client.
+     */
+    public LoadComparison(int clients, int requestsPerClient) {
+        this.clients = clients;
+        this.requestsPerClient = requestsPerClient;
+    }
+
+    /**
+     * Run comparison.
+     * @param args number of clients and requests per client.
+     * @throws Exception if application or load run fails.
+     */
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 400;
+        int requestsPerClient = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        LoadComparison comparison = new LoadComparison(clients, requestsPerClient);
+
+        System.out.printf("%d clients x %d requests, one write per %d requests%n",
+                clients, requestsPerClient, WRITE_EVERY);
+        System.out.printf("%-10s %12s %10s %10s %8s%n", "mode", "requests/s", "p50 ms", "p99 ms", "failed");
+        comparison.run("platform", new String[0]);
+        comparison.run("virtual", new String[]{"virtual"});
+    }
+
+    /**
+     * Start the application with given profiles, send the load and print the result.
+     * @param mode name of the mode in the output.
+     * @param profiles active profiles.
+     * @throws Exception if application or load run fails.
+     */
+    private void run(String mode, String[] profiles) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(NullamApplication.class)
+                .profiles(profiles)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1",
+                        "spring.flyway.locations=classpath:db/migration",
+                        "spring.jpa.show-sql=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String baseUrl = "http://localhost:" + port + "/events";
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            String eventId = createEvent(client, baseUrl);
+
+            List<Long> latencies = new ArrayList<>();
+            AtomicInteger failed = new AtomicInteger();
+            long start = System.nanoTime();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<long[]>> results = new ArrayList<>();
+                for (int c = 0; c < clients; c++) {
+                    int clientNumber = c;
+                    results.add(executor.submit(() -> sendRequests(client, baseUrl, eventId, clientNumber, failed)));
+                }
+                for (Future<long[]> result : results) {
+                    for (long latency : result.get()) {
+                        latencies.add(latency);
+                    }
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            System.out.printf("%-10s %12.1f %10.1f %10.1f %8d%n", mode,
+                    sorted.length / (elapsed / 1_000_000_000.0),
+                    percentile(sorted, 0.50) / 1_000_000.0,
+                    percentile(sorted, 0.99) / 1_000_000.0,
+                    failed.get());
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Send requests of one client. Every fourth request registers a person, others read the event.
+     * @param client http client.
+     * @param baseUrl url of event endpoints.
+     * @param eventId id of the popular event.
+     * @param clientNumber number of the client, used for unique personal codes.
+     * @param failed counter of failed requests.
+     * @return latency of each request in nanoseconds.
+     */
+    private long[] sendRequests(HttpClient client, String baseUrl, String eventId, int clientNumber,
+                                AtomicInteger failed) {
+        long[] latencies = new long[requestsPerClient];
+        for (int i = 0; i < requestsPerClient; i++) {
+            HttpRequest request;
+            if (i % WRITE_EVERY == 0) {
+                String personalCode = String.format("3%04d%06d", clientNumber, i);
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/addPersonParticipation"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(String.format(
+                                "{\"eventId\":%s,\"paymentMethod\":\"CASH\",\"firstName\":\"Mari\","
+                                        + "\"lastName\":\"Maasikas\",\"personalCode\":\"%s\"}",
+                                eventId, personalCode)))
+                        .build();
+            } else if (i % 2 == 0) {
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/participants/" + eventId)).GET().build();
+            } else {
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/futureEvents")).GET().build();
+            }
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() != 200) {
+                    failed.incrementAndGet();
+                }
+            } catch (Exception e) {
+                failed.incrementAndGet();
+            }
+            latencies[i] = System.nanoTime() - start;
+        }
+        return latencies;
+    }
+
+    /**
+     * Create the popular event and return its id.
+     * @param client http client.
+     * @param baseUrl url of event endpoints.
+     * @return id of created event.
+     * @throws Exception if request fails.
+     */
+    private String createEvent(HttpClient client, String baseUrl) throws Exception {
+        client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/addEvent"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"name\":\"Laulupidu\",\"time\":\"2099-07-01T19:00:00\",\"location\":\"Tallinn\"}"))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        String events = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/futureEvents")).GET().build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        Matcher matcher = EVENT_ID.matcher(events);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Event was not created: " + events);
+        }
+        return matcher.group(1);
+    }
+
+    /**
+     * Get percentile from sorted values.
+     * @param sorted values in ascending order.
+     * @param percentile percentile between 0 and 1.
+     * @return value at percentile.
+     */
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
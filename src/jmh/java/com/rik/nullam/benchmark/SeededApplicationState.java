@@ -0,0 +1,151 @@
+package com.rik.nullam.benchmark;
+
+import com.rik.nullam.NullamApplication;
+import com.rik.nullam.entity.event.Event;
+import com.rik.nullam.entity.participation.CompanyParticipation;
+import com.rik.nullam.entity.participation.PaymentMethod;
+import com.rik.nullam.entity.participation.PersonParticipation;
+import com.rik.nullam.repository.CompanyParticipationRepository;
+import com.rik.nullam.repository.EventRepository;
+import com.rik.nullam.repository.PersonParticipationRepository;
+import com.rik.nullam.service.EventService;
+import com.rik.nullam.service.EventSummaryCache;
+import com.rik.nullam.service.ParticipationValidator;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Application context on its own in-memory database, seeded with a configurable number
+ * of events and participants. Half of the events are in the past and half in the future.
+ */
+@State(Scope.Benchmark)
+public class SeededApplicationState {
+
+    @Param({"100", "1000"})
+    public int events;
+
+    @Param({"10", "100"})
+    public int participantsPerEvent;
+
+    private ConfigurableApplicationContext context;
+    private EventService eventService;
+    private EventSummaryCache eventSummaryCache;
+    private ParticipationValidator participationValidator;
+    private List<Long> futureEventIds;
+
+    /**
+     * Start application without web server and seed the database.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(NullamApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+                        "spring.flyway.locations=classpath:db/migration",
+                        "spring.jpa.show-sql=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "nullam.participant-count.reconcile-initial-delay-ms=3600000")
+                .run();
+        eventService = context.getBean(EventService.class);
+        eventSummaryCache = context.getBean(EventSummaryCache.class);
+        participationValidator = context.getBean(ParticipationValidator.class);
+        futureEventIds = new ArrayList<>();
+
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        for (int i = 0; i < events; i++) {
+            int index = i;
+            transaction.executeWithoutResult(status -> seedEvent(index));
+        }
+    }
+
+    /**
+     * Create one event with its participants. Every fifth participant is a company.
+     * @param index running number of the event.
+     */
+    private void seedEvent(int index) {
+        EventRepository eventRepository = context.getBean(EventRepository.class);
+        PersonParticipationRepository personRepository = context.getBean(PersonParticipationRepository.class);
+        CompanyParticipationRepository companyRepository = context.getBean(CompanyParticipationRepository.class);
+
+        boolean future = index % 2 == 0;
+        LocalDateTime time = future ? LocalDateTime.now().plusDays(index + 1L) : LocalDateTime.now().minusDays(index + 1L);
+        Event event = eventRepository.save(new Event("Üritus " + index, time, "Tallinn", "Lisainfo", null));
+
+        List<PersonParticipation> persons = new ArrayList<>();
+        List<CompanyParticipation> companies = new ArrayList<>();
+        int participantCount = 0;
+        for (int i = 0; i < participantsPerEvent; i++) {
+            if (i % 5 == 4) {
+                companies.add(new CompanyParticipation(event, PaymentMethod.BANK_TRANSFER, null,
+                        "Ettevõte " + i, String.format("%08d", i), 3));
+                participantCount += 3;
+            } else {
+                persons.add(new PersonParticipation(event, PaymentMethod.CASH, null,
+                        "Eesnimi" + i, "Perenimi" + i, String.format("3%010d", i)));
+                participantCount++;
+            }
+        }
+        personRepository.saveAll(persons);
+        companyRepository.saveAll(companies);
+        eventRepository.adjustParticipantCount(event.getId(), participantCount);
+
+        if (future) {
+            futureEventIds.add(event.getId());
+        }
+    }
+
+    /**
+     * Close application context.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Get event service bean.
+     * @return event service.
+     */
+    public EventService getEventService() {
+        return eventService;
+    }
+
+    /**
+     * Get event summary cache bean.
+     * @return event summary cache.
+     */
+    public EventSummaryCache getEventSummaryCache() {
+        return eventSummaryCache;
+    }
+
+    /**
+     * Get participation validator bean.
+     * @return participation validator.
+     */
+    public ParticipationValidator getParticipationValidator() {
+        return participationValidator;
+    }
+
+    /**
+     * Get ids of seeded future events.
+     * @return list of event ids.
+     */
+    public List<Long> getFutureEventIds() {
+        return futureEventIds;
+    }
+}
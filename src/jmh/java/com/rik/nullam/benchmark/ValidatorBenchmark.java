@@ -0,0 +1,70 @@
+package com.rik.nullam.benchmark;
+
+import com.rik.nullam.dto.CompanyParticipationDto;
+import com.rik.nullam.dto.EventDto;
+import com.rik.nullam.dto.PersonParticipationDto;
+import com.rik.nullam.dto.ValidationResult;
+import com.rik.nullam.service.EventValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the event and participation validators. Participation validation includes
+ * the event existence lookup against the seeded database.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ValidatorBenchmark {
+
+    private final EventValidator eventValidator = new EventValidator();
+    private EventDto eventDto;
+    private PersonParticipationDto personDto;
+    private CompanyParticipationDto companyDto;
+
+    /**
+     * Build valid dtos pointing to a seeded future event.
+     * @param state seeded application.
+     */
+    @Setup(Level.Trial)
+    public void setUp(SeededApplicationState state) {
+        Long eventId = state.getFutureEventIds().get(0);
+        eventDto = new EventDto();
+        eventDto.setName("Suvepäevad");
+        eventDto.setTime(LocalDateTime.now().plusYears(1));
+        eventDto.setLocation("Pärnu");
+        eventDto.setAdditionalInfo("Lisainfo");
+        personDto = new PersonParticipationDto(null, eventId, "CASH", null, "Mari", "Maasikas", "49001010000");
+        companyDto = new CompanyParticipationDto(null, eventId, "BANK_TRANSFER", null, "Firma OÜ", "12345678", 5);
+    }
+
+    @Benchmark
+    public ValidationResult validateEvent() {
+        return eventValidator.validate(eventDto);
+    }
+
+    @Benchmark
+    public ValidationResult validatePerson(SeededApplicationState state) {
+        return state.getParticipationValidator().validatePerson(personDto);
+    }
+
+    @Benchmark
+    public ValidationResult validateCompany(SeededApplicationState state) {
+        return state.getParticipationValidator().validateCompany(companyDto);
+    }
+}
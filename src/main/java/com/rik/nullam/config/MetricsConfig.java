@@ -0,0 +1,43 @@
+package com.rik.nullam.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Metrics of service methods and repository calls, scraped from /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Record latency of methods and classes annotated with @Timed.
+     * @param meterRegistry meter registry.
+     * @return timed aspect.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    /**
+     * Let every repository report its calls to the repository call counter.
+     * @return bean post processor adding the counter to repository factories.
+     */
+    @Bean
+    public static BeanPostProcessor repositoryCallCounterPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(
+                            factory -> factory.addInvocationListener(RepositoryCallCounter.LISTENER));
+                }
+                return bean;
+            }
+        };
+    }
+}
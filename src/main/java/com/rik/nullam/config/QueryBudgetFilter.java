@@ -0,0 +1,82 @@
+package com.rik.nullam.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Counts SQL statements and database time of every request and logs a warning when the request
+ * goes over the query budget or repeats one statement often, which usually is an N+1 pattern.
+ */
+@Component
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger LOGGER = Logger.getLogger(QueryBudgetFilter.class.getName());
+
+    private final int maximumQueries;
+    private final long maximumDatabaseMillis;
+    private final int repeatedStatementThreshold;
+
+    /**
+     * Query budget filter constructor.
+     * @param maximumQueries number of statements a request may run.
+     * @param maximumDatabaseMillis database time a request may use.
+     * @param repeatedStatementThreshold number of runs of one statement reported as a possible N+1 pattern.
+     */
+    public QueryBudgetFilter(@Value("${nullam.query-budget.maximum-queries:20}") int maximumQueries,
+                             @Value("${nullam.query-budget.maximum-database-ms:200}") long maximumDatabaseMillis,
+                             @Value("${nullam.query-budget.repeated-statement-threshold:5}")
+                             int repeatedStatementThreshold) {
+        this.maximumQueries = maximumQueries;
+        this.maximumDatabaseMillis = maximumDatabaseMillis;
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+    }
+
+    /**
+     * Count statements of the request and check them against the budget.
+     * @param request request.
+     * @param response response.
+     * @param filterChain rest of the filters.
+     * @throws ServletException if request handling fails.
+     * @throws IOException if request handling fails.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryStats stats = QueryCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryCounter.stop();
+            check(request, stats);
+        }
+    }
+
+    /**
+     * Log a warning if the request went over the budget.
+     * @param request request.
+     * @param stats statements of the request.
+     */
+    void check(HttpServletRequest request, QueryStats stats) {
+        Map.Entry<String, Integer> repeated = stats.getMostRepeatedStatement();
+        boolean overBudget = stats.getQueries() > maximumQueries || stats.getDatabaseMillis() > maximumDatabaseMillis;
+        boolean possibleNPlusOne = repeated != null && repeated.getValue() >= repeatedStatementThreshold;
+        if (!overBudget && !possibleNPlusOne) {
+            return;
+        }
+        LOGGER.warning(String.format(
+                "event=query_budget_exceeded method=%1$s uri=%2$s queries=%3$d maximum_queries=%4$d "
+                        + "database_ms=%5$d maximum_database_ms=%6$d repeated_count=%7$d repeated_sql=\"%8$s\"",
+                request.getMethod(), request.getRequestURI(), stats.getQueries(), maximumQueries,
+                stats.getDatabaseMillis(), maximumDatabaseMillis,
+                repeated == null ? 0 : repeated.getValue(), repeated == null ? "" : repeated.getKey()));
+    }
+}
@@ -0,0 +1,69 @@
+package com.rik.nullam.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts SQL statements prepared by Hibernate on the current thread while counting is started,
+ * for the per-request query budget and for asserting query counts in tests.
+ */
+public class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Start counting statements on the current thread.
+     * @return statistics that are filled until counting is stopped.
+     */
+    public static QueryStats start() {
+        QueryStats stats = new QueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Stop counting statements on the current thread.
+     * @return statistics of the statements since start, null if counting was not started.
+     */
+    public static QueryStats stop() {
+        QueryStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    /**
+     * Count statements of a call.
+     * @param call call to count statements of.
+     * @return statistics of the statements of the call.
+     */
+    public static QueryStats count(Runnable call) {
+        QueryStats stats = start();
+        try {
+            call.run();
+        } finally {
+            stop();
+        }
+        return stats;
+    }
+
+    /**
+     * Get statistics of the current thread.
+     * @return statistics, null if counting is not started.
+     */
+    static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Count the statement if counting is started on this thread.
+     * @param sql statement text.
+     * @return statement text unchanged.
+     */
+    @Override
+    public String inspect(String sql) {
+        QueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.recordStatement(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,25 @@
+package com.rik.nullam.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the query counter and timing listener with Hibernate.
+ */
+@Configuration
+public class QueryCounterConfig {
+
+    /**
+     * Add statement inspector and session listener to Hibernate properties.
+     * @return hibernate properties customizer.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer queryCounterCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCounter());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, QueryTimingListener.class.getName());
+        };
+    }
+}
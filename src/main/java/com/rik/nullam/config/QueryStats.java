@@ -0,0 +1,55 @@
+package com.rik.nullam.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Number of SQL statements and database time of one request or test call.
+ */
+public class QueryStats {
+
+    private int queries;
+    private long databaseNanos;
+    private final Map<String, Integer> statementCounts = new HashMap<>();
+
+    /**
+     * Record a prepared statement.
+     * @param sql statement text with parameter placeholders.
+     */
+    void recordStatement(String sql) {
+        queries++;
+        statementCounts.merge(sql, 1, Integer::sum);
+    }
+
+    /**
+     * Add time spent executing statements.
+     * @param nanos execution time in nanoseconds.
+     */
+    void addDatabaseTime(long nanos) {
+        databaseNanos += nanos;
+    }
+
+    /**
+     * Get number of statements.
+     * @return number of statements.
+     */
+    public int getQueries() {
+        return queries;
+    }
+
+    /**
+     * Get time spent executing statements.
+     * @return time in milliseconds.
+     */
+    public long getDatabaseMillis() {
+        return databaseNanos / 1_000_000;
+    }
+
+    /**
+     * Get the statement repeated the most times, a repeated select usually means an N+1 pattern.
+     * @return entry of statement and count, null if there were no statements.
+     */
+    public Map.Entry<String, Integer> getMostRepeatedStatement() {
+        return statementCounts.entrySet().stream().max(Map.Entry.comparingByValue()).orElse(null);
+    }
+}
@@ -0,0 +1,42 @@
+package com.rik.nullam.config;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Adds the execution time of statements to the statistics of the current thread.
+ * Hibernate creates one listener per session.
+ */
+public class QueryTimingListener implements SessionEventListener {
+
+    private long executionStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        addExecutionTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        addExecutionTime();
+    }
+
+    /**
+     * Add time since execution start to the statistics, if counting is started on this thread.
+     */
+    private void addExecutionTime() {
+        QueryStats stats = QueryCounter.current();
+        if (stats != null) {
+            stats.addDatabaseTime(System.nanoTime() - executionStart);
+        }
+    }
+}
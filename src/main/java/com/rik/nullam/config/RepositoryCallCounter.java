@@ -0,0 +1,73 @@
+package com.rik.nullam.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Counts repository calls made while handling a request and records the count per endpoint,
+ * so endpoints issuing many queries per request show up in the metrics.
+ */
+@Component
+public class RepositoryCallCounter extends OncePerRequestFilter {
+
+    private static final ThreadLocal<int[]> CALLS = new ThreadLocal<>();
+
+    /**
+     * Listener added to every repository, counts calls made on a thread that is handling a request.
+     */
+    public static final RepositoryMethodInvocationListener LISTENER = invocation -> {
+        int[] calls = CALLS.get();
+        if (calls != null) {
+            calls[0]++;
+        }
+    };
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Repository call counter constructor.
+     * @param meterRegistry meter registry.
+     */
+    public RepositoryCallCounter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Count repository calls of the request and record them under the matched endpoint.
+     * @param request request.
+     * @param response response.
+     * @param filterChain rest of the filters.
+     * @throws ServletException if request handling fails.
+     * @throws IOException if request handling fails.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        int[] calls = new int[1];
+        CALLS.set(calls);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            CALLS.remove();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                DistributionSummary.builder("nullam.repository.calls")
+                        .description("Repository calls per request")
+                        .tag("uri", pattern.toString())
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .register(meterRegistry)
+                        .record(calls[0]);
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.rik.nullam.config;
+
+import com.rik.nullam.dto.BulkParticipationResultDto;
+import com.rik.nullam.dto.ValidationResult;
+import com.rik.nullam.service.ValidationResultErrorConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts failed validations by error code, the name of the error constant in
+ * {@link ValidationResultErrorConstants}, e.g. nullam.validation.failures{code="DUPLICATE_REGISTRATION"}.
+ * Results are counted where they leave the services, after the checks the services add to the validators,
+ * such as full or past events, and where the controller turns a rejected save into a validation error.
+ */
+@Aspect
+@Component
+public class ValidationMetrics {
+
+    private static final String OTHER_CODE = "OTHER";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, String> codesByMessage = new HashMap<>();
+
+    /**
+     * Validation metrics constructor.
+     * @param meterRegistry meter registry.
+     */
+    public ValidationMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (Field field : ValidationResultErrorConstants.class.getFields()) {
+            if (Modifier.isStatic(field.getModifiers()) && field.getType() == String.class) {
+                try {
+                    codesByMessage.put((String) field.get(null), field.getName());
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Count errors of validation results returned by the services and the exception handlers of the controllers.
+     * @param result validation result, bulk result or collection of validation results.
+     */
+    @AfterReturning(pointcut = "execution(public com.rik.nullam.dto.ValidationResult "
+            + "com.rik.nullam.service.*Service.*(..)) "
+            + "|| execution(public com.rik.nullam.dto.BulkParticipationResultDto "
+            + "com.rik.nullam.service.*Service.*(..)) "
+            + "|| execution(public com.rik.nullam.dto.ValidationResult "
+            + "com.rik.nullam.controller.*Controller.handle*(..))",
+            returning = "result")
+    public void countFailures(Object result) {
+        if (result instanceof ValidationResult validationResult) {
+            count(validationResult);
+        } else if (result instanceof BulkParticipationResultDto bulkResult) {
+            countFailures(bulkResult.getPersonResults());
+            countFailures(bulkResult.getCompanyResults());
+        } else if (result instanceof Collection<?> results) {
+            for (Object item : results) {
+                if (item instanceof ValidationResult validationResult) {
+                    count(validationResult);
+                }
+            }
+        }
+    }
+
+    /**
+     * Count errors of one validation result.
+     * @param result validation result.
+     */
+    public void count(ValidationResult result) {
+        for (String message : result.getMessages()) {
+            Counter.builder("nullam.validation.failures")
+                    .description("Validation errors by error code")
+                    .tag("code", codesByMessage.getOrDefault(message, OTHER_CODE))
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+}
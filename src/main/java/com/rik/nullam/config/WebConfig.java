@@ -0,0 +1,22 @@
+package com.rik.nullam.config;
+
+import com.rik.nullam.service.ExportFormat;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers conversions of request parameters.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    /**
+     * Accept export formats in any case.
+     * @param registry registry of converters.
+     */
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(String.class, ExportFormat.class, ExportFormat::fromParameter);
+    }
+}
@@ -0,0 +1,32 @@
+package com.rik.nullam.controller;
+
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Conditional GET support. Responses get a strong ETag built from the version of the data they show,
+ * a request with a matching If-None-Match header is answered with 304 Not Modified.
+ */
+public final class ConditionalRequests {
+
+    /**
+     * Changes on every start, so pages cached before a redeploy are not reused.
+     */
+    private static final String INSTANCE = Long.toString(System.currentTimeMillis(), 36);
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Set the ETag of the response and check it against the request.
+     * @param request request.
+     * @param resource name of the resource, different representations of one version must differ.
+     * @param version version of the data shown, null if unknown.
+     * @return true if the client has the current version and a 304 response is sent.
+     */
+    public static boolean isNotModified(WebRequest request, String resource, Object version) {
+        if (version == null) {
+            return false;
+        }
+        return request.checkNotModified(String.format("\"%1$s-%2$s-%3$s\"", INSTANCE, resource, version));
+    }
+}
@@ -1,45 +1,132 @@
 package com.rik.nullam.controller;
 
+import com.rik.nullam.dto.BulkParticipationDto;
+import com.rik.nullam.dto.BulkParticipationResultDto;
+import com.rik.nullam.dto.CacheStatsDto;
 import com.rik.nullam.dto.CompanyParticipationDto;
 import com.rik.nullam.dto.EventDto;
+import com.rik.nullam.dto.EventSummaryCursorDto;
 import com.rik.nullam.dto.EventSummaryDto;
+import com.rik.nullam.dto.EventSummaryPageDto;
+import com.rik.nullam.dto.ImportReportDto;
+import com.rik.nullam.dto.ParticipationChangeBatchDto;
+import com.rik.nullam.dto.ParticipantSuggestionDto;
 import com.rik.nullam.dto.ParticipationSummaryDto;
 import com.rik.nullam.dto.PersonParticipationDto;
+import com.rik.nullam.dto.SearchResultDto;
 import com.rik.nullam.dto.ValidationResult;
+import com.rik.nullam.dto.WaitlistPositionDto;
+import com.rik.nullam.service.BulkParticipationService;
+import com.rik.nullam.service.ChangeFeed;
 import com.rik.nullam.service.EventService;
+import com.rik.nullam.service.ExportFormat;
+import com.rik.nullam.service.IdempotencyKeyException;
+import com.rik.nullam.service.IdempotencyStore;
+import com.rik.nullam.service.ParticipantExportService;
+import com.rik.nullam.service.ParticipantImportService;
+import com.rik.nullam.service.ParticipantTypeahead;
+import com.rik.nullam.service.PastEventSnapshots;
+import com.rik.nullam.service.SearchIndex;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+import static com.rik.nullam.service.ValidationResultErrorConstants.DUPLICATE_REGISTRATION;
+import static com.rik.nullam.service.ValidationResultErrorConstants.FAILED_TO_SAVE;
+import static com.rik.nullam.service.ValidationResultErrorConstants.IDEMPOTENCY_KEY_REUSED;
+import static com.rik.nullam.service.ValidationResultErrorConstants.IDEMPOTENT_REQUEST_IN_PROGRESS;
 
 @RestController
 @RequestMapping("/events")
 public class EventController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final List<String> REGISTRATION_CONSTRAINTS = List.of(
+            "uq_person_participation_event_personal_code", "uq_company_participation_event_registry_code",
+            "uq_waitlist_entry_event_personal_code", "uq_waitlist_entry_event_registry_code");
+
     private final EventService eventService;
+    private final BulkParticipationService bulkParticipationService;
+    private final ParticipantExportService participantExportService;
+    private final ParticipantImportService participantImportService;
+    private final IdempotencyStore idempotencyStore;
+    private final SearchIndex searchIndex;
+    private final ParticipantTypeahead participantTypeahead;
+    private final PastEventSnapshots pastEventSnapshots;
+    private final LiveCountStream liveCountStream;
+    private final ChangeFeed changeFeed;
 
     /**
      * Event controller constructor.
      * @param eventService service.
+     * @param bulkParticipationService service for adding many participations at once.
+     * @param participantExportService service for exporting participants.
+     * @param participantImportService service for importing participants.
+     * @param idempotencyStore store of responses to retried write requests.
+     * @param searchIndex index for searching events and participants.
+     * @param participantTypeahead suggestions of previously registered participants.
+     * @param pastEventSnapshots serialized snapshots of past events.
+     * @param liveCountStream stream of participant count updates.
+     * @param changeFeed feed of changes for downstream systems.
      */
-    public EventController(EventService eventService) {
+    public EventController(EventService eventService, BulkParticipationService bulkParticipationService,
+                           ParticipantExportService participantExportService,
+                           ParticipantImportService participantImportService,
+                           IdempotencyStore idempotencyStore, SearchIndex searchIndex,
+                           ParticipantTypeahead participantTypeahead,
+                           PastEventSnapshots pastEventSnapshots, LiveCountStream liveCountStream,
+                           ChangeFeed changeFeed) {
         this.eventService = eventService;
+        this.bulkParticipationService = bulkParticipationService;
+        this.participantExportService = participantExportService;
+        this.participantImportService = participantImportService;
+        this.idempotencyStore = idempotencyStore;
+        this.searchIndex = searchIndex;
+        this.participantTypeahead = participantTypeahead;
+        this.pastEventSnapshots = pastEventSnapshots;
+        this.liveCountStream = liveCountStream;
+        this.changeFeed = changeFeed;
     }
 
     /**
      * Add a new event.
      * @param eventDto dto with event info.
+     * @param idempotencyKey optional key, a retry with the same key gets the first response.
      * @return validation result.
      */
     @PostMapping("/addEvent")
-    public ValidationResult createEvent(@RequestBody EventDto eventDto) {
-        return eventService.createEvent(eventDto);
+    public ValidationResult createEvent(@RequestBody EventDto eventDto,
+                                        @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false)
+                                        String idempotencyKey) {
+        return idempotencyStore.execute("addEvent", idempotencyKey, eventDto,
+                () -> eventService.createEvent(eventDto));
     }
 
     /**
@@ -53,61 +140,288 @@ public class EventController {
     }
 
     /**
-     * Get event summary by event id.
+     * Get event summary by event id. Answers 304 if the client has the current version.
+     * Summaries of past events are served from their snapshot.
      * @param id id of event.
-     * @return event summary.
+     * @param acceptEncoding accepted encodings, gzip is used if accepted.
+     * @param request request with optional If-None-Match header.
+     * @return event summary, null if not modified.
      */
     @GetMapping("/getEventSummary/{id}")
-    public EventSummaryDto getEventSummary(@PathVariable Long id) {
-        return eventService.getEventSummaryById(id);
+    public ResponseEntity<?> getEventSummary(@PathVariable Long id,
+                                             @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                             String acceptEncoding, WebRequest request) {
+        PastEventSnapshots.Snapshot<EventSummaryDto> snapshot = pastEventSnapshots.getSummary(id);
+        if (snapshot != null) {
+            return createSnapshotResponse(snapshot, acceptEncoding);
+        }
+        if (ConditionalRequests.isNotModified(request, "summary-" + id, eventService.getEventVersion(id))) {
+            return null;
+        }
+        return ResponseEntity.ok(eventService.getEventSummaryById(id));
     }
 
     /**
-     * Get summaries for all past events.
-     * @return summaries in a list.
+     * Get summaries for all past events from their snapshot. Answers 304 if the client has the current version.
+     * @param acceptEncoding accepted encodings, gzip is used if accepted.
+     * @return summaries in a list as JSON.
      */
     @GetMapping("/pastEvents")
-    public List<EventSummaryDto> getPastEvents() {
-        return eventService.getPastEventsSummaries();
+    public ResponseEntity<byte[]> getPastEvents(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                                String acceptEncoding) {
+        return createSnapshotResponse(pastEventSnapshots.getPastEvents(), acceptEncoding);
     }
 
     /**
-     * Get summaries for all future events.
-     * @return summaries in a list.
+     * Get summaries for all future events. Answers 304 if the client has the current version.
+     * @param request request with optional If-None-Match header.
+     * @return summaries in a list, null if not modified.
      */
     @GetMapping("/futureEvents")
-    public List<EventSummaryDto> getFutureEvents() {
+    public List<EventSummaryDto> getFutureEvents(WebRequest request) {
+        if (ConditionalRequests.isNotModified(request, "futureEvents", eventService.getFutureEventsVersion())) {
+            return null;
+        }
         return eventService.getFutureEventsSummaries();
     }
 
     /**
-     * Get summaries of all participants for an event.
+     * Get a page of past event summaries, most recent first.
+     * @param page index of the page, starting from 0.
+     * @param size number of events on a page.
+     * @return page of summaries.
+     */
+    @GetMapping("/pastEvents/page")
+    public EventSummaryPageDto getPastEventsPage(@RequestParam(defaultValue = "0") int page,
+                                                 @RequestParam(defaultValue = "20") int size) {
+        return eventService.getPastEventsSummaries(page, size);
+    }
+
+    /**
+     * Get a page of future event summaries, earliest first.
+     * @param page index of the page, starting from 0.
+     * @param size number of events on a page.
+     * @return page of summaries.
+     */
+    @GetMapping("/futureEvents/page")
+    public EventSummaryPageDto getFutureEventsPage(@RequestParam(defaultValue = "0") int page,
+                                                   @RequestParam(defaultValue = "20") int size) {
+        return eventService.getFutureEventsSummaries(page, size);
+    }
+
+    /**
+     * Get past event summaries following a cursor, most recent first.
+     * @param cursorTime time of the last event already received.
+     * @param cursorId id of the last event already received.
+     * @param size maximum number of events.
+     * @return summaries with the cursor to continue from.
+     */
+    @GetMapping("/pastEvents/cursor")
+    public EventSummaryCursorDto getPastEventsByCursor(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime cursorTime,
+            @RequestParam(required = false) Long cursorId,
+            @RequestParam(defaultValue = "20") int size) {
+        return eventService.getPastEventsSummariesBefore(cursorTime, cursorId, size);
+    }
+
+    /**
+     * Get future event summaries following a cursor, earliest first.
+     * @param cursorTime time of the last event already received.
+     * @param cursorId id of the last event already received.
+     * @param size maximum number of events.
+     * @return summaries with the cursor to continue from.
+     */
+    @GetMapping("/futureEvents/cursor")
+    public EventSummaryCursorDto getFutureEventsByCursor(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime cursorTime,
+            @RequestParam(required = false) Long cursorId,
+            @RequestParam(defaultValue = "20") int size) {
+        return eventService.getFutureEventsSummariesAfter(cursorTime, cursorId, size);
+    }
+
+    /**
+     * Get summaries of all participants for an event. Answers 304 without loading the participants
+     * if the client has the current version. Participants of past events are served from their snapshot.
      * @param eventId ID of the event.
-     * @return summaries in a list.
+     * @param acceptEncoding accepted encodings, gzip is used if accepted.
+     * @param request request with optional If-None-Match header.
+     * @return summaries in a list, null if not modified.
      */
     @GetMapping("/participants/{eventId}")
-    public List<ParticipationSummaryDto> getEventParticipantsByEventId(@PathVariable Long eventId) {
-        return eventService.getEventParticipantSummariesList(eventId);
+    public ResponseEntity<?> getEventParticipantsByEventId(@PathVariable Long eventId,
+                                                           @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING,
+                                                                   required = false) String acceptEncoding,
+                                                           WebRequest request) {
+        PastEventSnapshots.Snapshot<List<ParticipationSummaryDto>> snapshot =
+                pastEventSnapshots.getParticipants(eventId);
+        if (snapshot != null) {
+            return createSnapshotResponse(snapshot, acceptEncoding);
+        }
+        if (ConditionalRequests.isNotModified(request, "participants-" + eventId,
+                eventService.getEventVersion(eventId))) {
+            return null;
+        }
+        return ResponseEntity.ok(eventService.getEventParticipantSummariesList(eventId));
+    }
+
+    /**
+     * Subscribe to participant count updates of all events as Server-Sent Events.
+     * @return stream of updates, 503 if there are too many subscribers.
+     */
+    @GetMapping(value = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribeToLiveCounts() {
+        return createLiveResponse(liveCountStream.subscribe(null));
+    }
+
+    /**
+     * Subscribe to participant count updates of one event as Server-Sent Events.
+     * @param eventId ID of the event.
+     * @return stream of updates, 503 if there are too many subscribers.
+     */
+    @GetMapping(value = "/live/{eventId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribeToLiveCounts(@PathVariable Long eventId) {
+        return createLiveResponse(liveCountStream.subscribe(eventId));
+    }
+
+    /**
+     * Get changes of events and participations following a sequence number. Consumers continue from
+     * the returned sequence number; with a wait time an empty feed is answered once a change is committed.
+     * @param since last sequence number already received, 0 to start from the beginning.
+     * @param limit maximum number of changes.
+     * @param waitMs how long to wait if there are no changes yet, 0 to answer at once.
+     * @return changes in sequence order.
+     */
+    @GetMapping("/changes")
+    public CompletableFuture<ParticipationChangeBatchDto> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                                     @RequestParam(defaultValue = "100") int limit,
+                                                                     @RequestParam(defaultValue = "0") long waitMs) {
+        return changeFeed.awaitChanges(since, limit, waitMs);
+    }
+
+    /**
+     * Stream all participants of an event as CSV or NDJSON.
+     * @param eventId ID of the event.
+     * @param format export format, csv or ndjson in any case.
+     * @param response response the participants are written to.
+     * @throws IOException if writing the response fails.
+     */
+    @GetMapping("/participants/{eventId}/export")
+    public void exportEventParticipants(@PathVariable Long eventId,
+                                        @RequestParam(defaultValue = "csv") ExportFormat format,
+                                        HttpServletResponse response) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, String.format(
+                "attachment; filename=\"participants-%1$d.%2$s\"", eventId, format.getFileExtension()));
+        participantExportService.exportParticipants(eventId, format, response.getOutputStream());
+    }
+
+    /**
+     * Get hit, miss and eviction statistics of the event summary cache.
+     * @return statistics of each cache.
+     */
+    @GetMapping("/cacheStats")
+    public List<CacheStatsDto> getCacheStats() {
+        return eventService.getCacheStatistics();
+    }
+
+    /**
+     * Search events by name, location and additional info, and participants by name, personal code
+     * or registry code. Every word must match, diacritics and case are ignored.
+     * @param query words to search for.
+     * @param limit maximum number of results.
+     * @return matching events and participants.
+     */
+    @GetMapping("/search")
+    public List<SearchResultDto> search(@RequestParam("q") String query,
+                                        @RequestParam(defaultValue = "20") int limit) {
+        return searchIndex.search(query, limit);
+    }
+
+    /**
+     * Suggest previously registered participants whose name or code starts with given text.
+     * @param prefix beginning of name, personal code or registry code.
+     * @param type type of participants to suggest, both if not given.
+     * @param limit maximum number of suggestions.
+     * @return suggestions in a list.
+     */
+    @GetMapping("/participants/suggestions")
+    public List<ParticipantSuggestionDto> suggestParticipants(
+            @RequestParam String prefix,
+            @RequestParam(required = false) ParticipationSummaryDto.ParticipationType type,
+            @RequestParam(defaultValue = "10") int limit) {
+        return participantTypeahead.suggest(prefix, type, limit);
+    }
+
+    /**
+     * Get position of a registration in the waitlist of a full event.
+     * @param entryId id of waitlist entry returned on registration.
+     * @return position in queue, null if registration is not waiting anymore.
+     */
+    @GetMapping("/waitlist/{entryId}/position")
+    public WaitlistPositionDto getWaitlistPosition(@PathVariable Long entryId) {
+        return eventService.getWaitlistPosition(entryId);
     }
 
     /**
      * Add person participation to an event.
      * @param personParticipationDto DTO with person participation info.
+     * @param idempotencyKey optional key, a retry with the same key gets the first response.
      * @return validation result.
      */
     @PostMapping("/addPersonParticipation")
-    public ValidationResult addPersonParticipation(@RequestBody PersonParticipationDto personParticipationDto) {
-        return eventService.addPersonParticipation(personParticipationDto);
+    public ValidationResult addPersonParticipation(@RequestBody PersonParticipationDto personParticipationDto,
+                                                   @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false)
+                                                   String idempotencyKey) {
+        return idempotencyStore.execute("addPersonParticipation", idempotencyKey, personParticipationDto,
+                () -> eventService.addPersonParticipation(personParticipationDto));
     }
 
     /**
      * Add company participation to an event.
      * @param companyParticipationDto DTO with company participation info.
+     * @param idempotencyKey optional key, a retry with the same key gets the first response.
      * @return validation result.
      */
     @PostMapping("/addCompanyParticipation")
-    public ValidationResult addCompanyParticipation(@RequestBody CompanyParticipationDto companyParticipationDto) {
-        return eventService.addCompanyParticipation(companyParticipationDto);
+    public ValidationResult addCompanyParticipation(@RequestBody CompanyParticipationDto companyParticipationDto,
+                                                    @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false)
+                                                    String idempotencyKey) {
+        return idempotencyStore.execute("addCompanyParticipation", idempotencyKey, companyParticipationDto,
+                () -> eventService.addCompanyParticipation(companyParticipationDto));
+    }
+
+    /**
+     * Add many person and company participations at once.
+     * @param bulkParticipationDto DTO with participations.
+     * @param idempotencyKey optional key, a retry with the same key gets the first response.
+     * @return number of saved participations and validation result of every participation.
+     */
+    @PostMapping("/addParticipations")
+    public BulkParticipationResultDto addParticipations(@RequestBody BulkParticipationDto bulkParticipationDto,
+                                                        @RequestHeader(value = IDEMPOTENCY_KEY_HEADER,
+                                                                required = false) String idempotencyKey) {
+        return idempotencyStore.execute("addParticipations", idempotencyKey, bulkParticipationDto,
+                () -> bulkParticipationService.addParticipations(bulkParticipationDto));
+    }
+
+    /**
+     * Import participants of an event from a CSV request body, committing in chunks.
+     * @param eventId ID of the event.
+     * @param skipRows number of data rows to skip when resuming an interrupted import.
+     * @param chunkSize number of rows committed together.
+     * @param request request whose body is read as a stream.
+     * @return import progress report.
+     * @throws IOException if the request body cannot be opened.
+     */
+    @PostMapping(value = "/importParticipations/{eventId}", consumes = {"text/csv", "text/plain"})
+    public ImportReportDto importParticipations(@PathVariable Long eventId,
+                                                @RequestParam(defaultValue = "0") long skipRows,
+                                                @RequestParam(defaultValue = "500") int chunkSize,
+                                                HttpServletRequest request) throws IOException {
+        return participantImportService.importParticipants(eventId, request.getInputStream(), skipRows, chunkSize);
     }
 
     /**
@@ -162,4 +476,84 @@ public class EventController {
             @PathVariable Long participationId) {
         return eventService.deleteParticipation(type, participationId);
     }
+
+    /**
+     * Create response with the serialized bytes of a snapshot, gzipped if the client accepts it.
+     * The ETag of the response answers a matching If-None-Match with 304.
+     * @param snapshot snapshot.
+     * @param acceptEncoding accepted encodings.
+     * @return response with JSON body.
+     */
+    private static ResponseEntity<byte[]> createSnapshotResponse(PastEventSnapshots.Snapshot<?> snapshot,
+                                                                 String acceptEncoding) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (snapshot.getGzippedJson() != null && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            return response.eTag(snapshot.getGzippedEtag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(snapshot.getGzippedJson());
+        }
+        return response.eTag(snapshot.getEtag()).body(snapshot.getJson());
+    }
+
+    /**
+     * Create response for a live count subscription.
+     * @param emitter emitter of updates, null if the subscription was refused.
+     * @return response with the stream, 503 if refused.
+     */
+    private static ResponseEntity<SseEmitter> createLiveResponse(SseEmitter emitter) {
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok().header(HttpHeaders.CACHE_CONTROL, "no-cache").body(emitter);
+    }
+
+    /**
+     * Answer a request whose idempotency key can not be used: 422 if the key belongs to a different request,
+     * 409 if the first request with the key is still running and the client should retry later.
+     * @param e exception from the idempotency store.
+     * @return validation result with the reason.
+     */
+    @ExceptionHandler(IdempotencyKeyException.class)
+    public ResponseEntity<ValidationResult> handleIdempotencyKeyException(IdempotencyKeyException e) {
+        ValidationResult result = new ValidationResult();
+        if (e.getReason() == IdempotencyKeyException.Reason.REQUEST_MISMATCH) {
+            result.addError(IDEMPOTENCY_KEY_REUSED);
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(result);
+        }
+        result.addError(IDEMPOTENT_REQUEST_IN_PROGRESS);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(result);
+    }
+
+    /**
+     * Answer a registration that lost a race against the same registration with a validation error.
+     * The duplicate pre-check has passed for both, the unique constraint rejects the second one.
+     * @param e exception from saving the participation.
+     * @return validation result with the reason.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ValidationResult handleDataIntegrityViolation(DataIntegrityViolationException e) {
+        ValidationResult result = new ValidationResult();
+        result.addError(isDuplicateRegistration(e) ? DUPLICATE_REGISTRATION : FAILED_TO_SAVE);
+        return result;
+    }
+
+    /**
+     * Check if an exception was caused by one of the unique registration constraints.
+     * The database may report the name with a schema prefix and an index suffix, in any case.
+     * @param e exception from saving the participation.
+     * @return true if a registration already exists.
+     */
+    private static boolean isDuplicateRegistration(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                String name = violation.getConstraintName().toLowerCase(Locale.ROOT);
+                String constraint = name.substring(name.lastIndexOf('.') + 1);
+                return REGISTRATION_CONSTRAINTS.stream().anyMatch(constraint::startsWith);
+            }
+        }
+        return false;
+    }
 }
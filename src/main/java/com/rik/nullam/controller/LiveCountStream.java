@@ -0,0 +1,325 @@
+package com.rik.nullam.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rik.nullam.dto.EventCountUpdateDto;
+import com.rik.nullam.dto.EventSummaryDto;
+import com.rik.nullam.service.EventDataChangedEvent;
+import com.rik.nullam.service.EventService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Server-Sent Events stream of participant counts. Changed events are collected as their changes are committed
+ * and flushed once per coalescing window, so a burst of registrations to one event results in one update.
+ * Each update is serialized once and handed to a dedicated fan-out pool that writes it to every subscriber of
+ * the event and of all events, so slow clients never hold up the shared scheduler. A subscriber gets at most one
+ * write at a time: updates arriving while its previous write is still running are skipped, as every update
+ * carries the full summary, and a subscriber whose write takes longer than the write timeout is dropped.
+ * Idle subscribers are held by the servlet container as async requests, not by threads.
+ */
+@Component
+public class LiveCountStream {
+
+    private static final Logger LOGGER = Logger.getLogger(LiveCountStream.class.getName());
+    private static final String COUNT_EVENT = "count";
+
+    private final EventService eventService;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMs;
+    private final int maximumSubscribers;
+    private final long writeTimeoutNanos;
+    private final ExecutorService fanOut;
+
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Integer> counts = new ConcurrentHashMap<>();
+    private final Set<Subscriber> allEventsSubscribers = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Subscriber>> eventSubscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Live count stream constructor.
+     * @param eventService event service.
+     * @param objectMapper mapper used for the updates.
+     * @param timeoutMs time after which a subscription ends and the client reconnects.
+     * @param maximumSubscribers maximum number of open subscriptions.
+     * @param writeTimeoutMs time after which a subscriber that has not taken a write is dropped.
+     * @param fanOutThreads number of threads writing updates to subscribers.
+     */
+    public LiveCountStream(EventService eventService, ObjectMapper objectMapper,
+                           @Value("${nullam.live.timeout-ms:1800000}") long timeoutMs,
+                           @Value("${nullam.live.maximum-subscribers:10000}") int maximumSubscribers,
+                           @Value("${nullam.live.write-timeout-ms:5000}") long writeTimeoutMs,
+                           @Value("${nullam.live.fan-out-threads:4}") int fanOutThreads) {
+        this.eventService = eventService;
+        this.objectMapper = objectMapper;
+        this.timeoutMs = timeoutMs;
+        this.maximumSubscribers = maximumSubscribers;
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMs);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.fanOut = Executors.newFixedThreadPool(fanOutThreads, runnable -> {
+            Thread thread = new Thread(runnable, "live-count-fan-out-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Load participant counts of future events once the application has started. Past events can not change,
+     * so their counts are only needed once they are deleted or archived.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadCounts() {
+        for (EventSummaryDto summary : eventService.getFutureEventsSummaries()) {
+            counts.put(summary.getId(), summary.getNumberOfParticipants());
+        }
+    }
+
+    /**
+     * Subscribe to updates of one event or of all events.
+     * @param eventId id of event, null for all events.
+     * @return emitter of updates, null if there are too many subscribers.
+     */
+    public SseEmitter subscribe(Long eventId) {
+        if (subscriberCount.incrementAndGet() > maximumSubscribers) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+        Subscriber subscriber = new Subscriber(eventId, new SseEmitter(timeoutMs));
+        if (eventId == null) {
+            allEventsSubscribers.add(subscriber);
+        } else {
+            eventSubscribers.compute(eventId, (id, subscribers) -> {
+                Set<Subscriber> result = subscribers == null ? ConcurrentHashMap.newKeySet() : subscribers;
+                result.add(subscriber);
+                return result;
+            });
+        }
+        subscriber.emitter.onCompletion(() -> unsubscribe(subscriber));
+        subscriber.emitter.onTimeout(() -> unsubscribe(subscriber));
+        subscriber.emitter.onError(e -> unsubscribe(subscriber));
+        return subscriber.emitter;
+    }
+
+    /**
+     * Get number of open subscriptions.
+     * @return number of subscribers.
+     */
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * Mark an event as changed once the change has been committed.
+     * @param change change of event data.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEventDataChanged(EventDataChangedEvent change) {
+        pending.add(change.getEventId());
+    }
+
+    /**
+     * Send one update per event changed since the last flush. Only builds the updates,
+     * the writes run on the fan-out pool.
+     * @return sent updates.
+     */
+    @Scheduled(fixedDelayString = "${nullam.live.coalesce-ms:500}")
+    public List<EventCountUpdateDto> flush() {
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+        List<EventCountUpdateDto> updates = new ArrayList<>();
+        for (Iterator<Long> iterator = pending.iterator(); iterator.hasNext();) {
+            Long eventId = iterator.next();
+            iterator.remove();
+            EventCountUpdateDto update = createUpdate(eventId);
+            updates.add(update);
+            publish(update);
+        }
+        return updates;
+    }
+
+    /**
+     * Send a comment to every subscriber, which keeps proxies from closing idle connections
+     * and finds subscribers that have gone away or stopped reading.
+     */
+    @Scheduled(fixedRateString = "${nullam.live.heartbeat-ms:30000}")
+    public void heartbeat() {
+        Set<ResponseBodyEmitter.DataWithMediaType> message = SseEmitter.event().comment("heartbeat").build();
+        send(allEventsSubscribers, message);
+        eventSubscribers.values().forEach(subscribers -> send(subscribers, message));
+    }
+
+    /**
+     * Complete all subscriptions so that open requests do not hold up shutdown, and stop the fan-out pool.
+     */
+    @PreDestroy
+    public void close() {
+        fanOut.shutdownNow();
+        allEventsSubscribers.forEach(subscriber -> subscriber.emitter.complete());
+        eventSubscribers.values().forEach(subscribers -> subscribers.forEach(
+                subscriber -> subscriber.emitter.complete()));
+    }
+
+    /**
+     * Create update of an event from its current summary and the previously sent count.
+     * @param eventId id of event.
+     * @return update.
+     */
+    private EventCountUpdateDto createUpdate(Long eventId) {
+        EventSummaryDto summary = eventService.getEventSummaryById(eventId);
+        if (summary == null) {
+            Integer previous = counts.remove(eventId);
+            return new EventCountUpdateDto(eventId, null, previous == null ? 0 : -previous);
+        }
+        Integer previous = counts.put(eventId, summary.getNumberOfParticipants());
+        if (previous == null) {
+            // An unknown future event was just created and started from zero, an unknown past event did not change.
+            previous = summary.getTime().isBefore(LocalDateTime.now()) ? summary.getNumberOfParticipants() : 0;
+        }
+        return new EventCountUpdateDto(eventId, summary, summary.getNumberOfParticipants() - previous);
+    }
+
+    /**
+     * Serialize an update once and send it to the subscribers of its event and of all events.
+     * @param update update.
+     */
+    private void publish(EventCountUpdateDto update) {
+        Set<Subscriber> subscribers = eventSubscribers.getOrDefault(update.getEventId(), Set.of());
+        if (subscribers.isEmpty() && allEventsSubscribers.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(update);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> message = SseEmitter.event()
+                .id(String.valueOf(sequence.incrementAndGet()))
+                .name(COUNT_EVENT)
+                .data(json, MediaType.APPLICATION_JSON)
+                .build();
+        send(subscribers, message);
+        send(allEventsSubscribers, message);
+    }
+
+    /**
+     * Hand a message to the fan-out pool for every subscriber that is not still busy with a previous write.
+     * Subscribers whose write has been running longer than the write timeout are dropped.
+     * @param subscribers subscribers.
+     * @param message serialized message.
+     */
+    private void send(Set<Subscriber> subscribers, Set<ResponseBodyEmitter.DataWithMediaType> message) {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.writeStarted.get();
+            if (started != 0) {
+                if (now - started > writeTimeoutNanos) {
+                    drop(subscriber, new IOException("Write timed out"));
+                }
+                continue;
+            }
+            if (!subscriber.writeStarted.compareAndSet(0, now)) {
+                continue;
+            }
+            try {
+                fanOut.execute(() -> write(subscriber, message));
+            } catch (RejectedExecutionException e) {
+                subscriber.writeStarted.set(0);
+            }
+        }
+    }
+
+    /**
+     * Write a message to a subscriber on the fan-out pool, dropping the subscriber if the connection has failed.
+     * @param subscriber subscriber.
+     * @param message serialized message.
+     */
+    private void write(Subscriber subscriber, Set<ResponseBodyEmitter.DataWithMediaType> message) {
+        try {
+            subscriber.emitter.send(message);
+        } catch (IOException | IllegalStateException e) {
+            drop(subscriber, e);
+        } finally {
+            subscriber.writeStarted.set(0);
+        }
+    }
+
+    /**
+     * Remove a subscriber and end its request, which also fails a write blocked on its connection.
+     * @param subscriber subscriber.
+     * @param cause reason for dropping.
+     */
+    private void drop(Subscriber subscriber, Exception cause) {
+        LOGGER.fine(String.format("Dropping live count subscriber: %1$s", cause.getMessage()));
+        unsubscribe(subscriber);
+        subscriber.emitter.completeWithError(cause);
+    }
+
+    /**
+     * Remove a subscriber, counting it only once however many callbacks report it.
+     * @param subscriber subscriber.
+     */
+    private void unsubscribe(Subscriber subscriber) {
+        boolean removed;
+        if (subscriber.eventId == null) {
+            removed = allEventsSubscribers.remove(subscriber);
+        } else {
+            boolean[] found = new boolean[1];
+            eventSubscribers.computeIfPresent(subscriber.eventId, (id, subscribers) -> {
+                found[0] = subscribers.remove(subscriber);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+            removed = found[0];
+        }
+        if (removed) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Open subscription with the start time of its running write.
+     */
+    private static final class Subscriber {
+        private final Long eventId;
+        private final SseEmitter emitter;
+        private final AtomicLong writeStarted = new AtomicLong();
+
+        /**
+         * Subscriber constructor.
+         * @param eventId id of event the subscriber follows, null for all events.
+         * @param emitter emitter of the subscription.
+         */
+        private Subscriber(Long eventId, SseEmitter emitter) {
+            this.eventId = eventId;
+            this.emitter = emitter;
+        }
+    }
+}
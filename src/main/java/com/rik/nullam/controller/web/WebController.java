@@ -1,26 +1,46 @@
 package com.rik.nullam.controller.web;
 
+import com.rik.nullam.controller.ConditionalRequests;
+import com.rik.nullam.dto.EventSummaryDto;
+import com.rik.nullam.dto.ParticipationSummaryDto;
 import com.rik.nullam.service.EventService;
+import com.rik.nullam.service.PastEventSnapshots;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.ModelAndView;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 
 @Controller
 public class WebController {
 
+    private static final int INDEX_PAGE_SIZE = 20;
+
     private final EventService eventService;
+    private final PastEventSnapshots pastEventSnapshots;
 
-    public WebController(EventService eventService) { this.eventService = eventService; }
+    public WebController(EventService eventService, PastEventSnapshots pastEventSnapshots) {
+        this.eventService = eventService;
+        this.pastEventSnapshots = pastEventSnapshots;
+    }
 
     @GetMapping("/")
-    public ModelAndView indexPage() {
+    public ModelAndView indexPage(@RequestParam(defaultValue = "0") int futurePage,
+                                  @RequestParam(defaultValue = "0") int pastPage, WebRequest request) {
+        if (ConditionalRequests.isNotModified(request, "index-" + futurePage + "-" + pastPage,
+                eventService.getFutureEventsVersion() + "-" + eventService.getPastEventsVersion())) {
+            return null;
+        }
         ModelAndView modelAndView = new ModelAndView("index");
-        modelAndView.getModelMap().addAttribute("futureEvents", eventService.getFutureEventsSummaries());
-        modelAndView.getModelMap().addAttribute("pastEvents", eventService.getPastEventsSummaries());
+        modelAndView.getModelMap().addAttribute("futureEvents",
+                eventService.getFutureEventsSummaries(futurePage, INDEX_PAGE_SIZE));
+        modelAndView.getModelMap().addAttribute("pastEvents",
+                eventService.getPastEventsSummaries(pastPage, INDEX_PAGE_SIZE));
         return modelAndView;
     }
 
@@ -30,17 +50,27 @@ public class WebController {
     }
 
     @GetMapping("/event/{eventId}")
-    public ModelAndView eventPage(@PathVariable("eventId") Long eventId) {
+    public ModelAndView eventPage(@PathVariable("eventId") Long eventId, WebRequest request) {
+        if (ConditionalRequests.isNotModified(request, "event-" + eventId, getPageVersion(eventId))) {
+            return null;
+        }
         ModelAndView modelAndView = new ModelAndView("event");
         modelAndView.getModelMap().addAttribute("now", LocalDateTime.now());
+        PastEventSnapshots.Snapshot<List<ParticipationSummaryDto>> snapshot =
+                pastEventSnapshots.getParticipants(eventId);
         modelAndView.getModelMap().addAttribute("event", eventService.getEventSummaryById(eventId));
-        modelAndView.getModelMap()
-                .addAttribute("participants", eventService.getEventParticipantSummariesList(eventId));
+        modelAndView.getModelMap().addAttribute("participants", snapshot != null
+                ? snapshot.getValue() : eventService.getEventParticipantSummariesList(eventId));
         return modelAndView;
     }
 
     @GetMapping("/event/{eventId}/person/{personId}")
-    public ModelAndView personPage(@PathVariable("eventId") Long eventId, @PathVariable("personId") Long personId) {
+    public ModelAndView personPage(@PathVariable("eventId") Long eventId, @PathVariable("personId") Long personId,
+                                   WebRequest request) {
+        if (ConditionalRequests.isNotModified(request, "person-" + eventId + "-" + personId,
+                getPageVersion(eventId))) {
+            return null;
+        }
         ModelAndView modelAndView = new ModelAndView("person");
         modelAndView.getModelMap().addAttribute("now", LocalDateTime.now());
         modelAndView.getModelMap().addAttribute("event", eventService.getEventSummaryById(eventId));
@@ -51,7 +81,12 @@ public class WebController {
     }
 
     @GetMapping("/event/{eventId}/company/{companyId}")
-    public ModelAndView companyPage(@PathVariable("eventId") Long eventId, @PathVariable("companyId") Long companyId) {
+    public ModelAndView companyPage(@PathVariable("eventId") Long eventId, @PathVariable("companyId") Long companyId,
+                                    WebRequest request) {
+        if (ConditionalRequests.isNotModified(request, "company-" + eventId + "-" + companyId,
+                getPageVersion(eventId))) {
+            return null;
+        }
         ModelAndView modelAndView = new ModelAndView("company");
         modelAndView.getModelMap().addAttribute("now", LocalDateTime.now());
         modelAndView.getModelMap().addAttribute("event", eventService.getEventSummaryById(eventId));
@@ -61,4 +96,18 @@ public class WebController {
         return modelAndView;
     }
 
+    /**
+     * Get version of the pages of an event. Participation edits bump the event version,
+     * and pages change when the event starts, as editing is no longer allowed.
+     * @param eventId id of event.
+     * @return version, null if event does not exist.
+     */
+    private String getPageVersion(Long eventId) {
+        Long version = eventService.getEventVersion(eventId);
+        EventSummaryDto summary = eventService.getEventSummaryById(eventId);
+        if (version == null || summary == null) {
+            return null;
+        }
+        return version + (summary.getTime().isBefore(LocalDateTime.now()) ? "-past" : "-future");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.rik.nullam.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BulkParticipationDto {
+    /**
+     * Person participations to add.
+     */
+    private List<PersonParticipationDto> persons;
+
+    /**
+     * Company participations to add.
+     */
+    private List<CompanyParticipationDto> companies;
+
+    /**
+     * Constructor for bulk participation dto.
+     * @param persons person participations.
+     * @param companies company participations.
+     */
+    public BulkParticipationDto(List<PersonParticipationDto> persons, List<CompanyParticipationDto> companies) {
+        this.persons = persons;
+        this.companies = companies;
+    }
+
+    /**
+     * No-args constructor.
+     */
+    public BulkParticipationDto() {
+    }
+}
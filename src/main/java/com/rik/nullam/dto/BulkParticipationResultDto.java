@@ -0,0 +1,43 @@
+package com.rik.nullam.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class BulkParticipationResultDto {
+    /**
+     * Number of participations saved.
+     */
+    private final int savedCount;
+
+    /**
+     * Number of valid participations put to the waitlist of a full event.
+     */
+    private final int waitlistedCount;
+
+    /**
+     * Validation results of person participations, in the order they were sent.
+     */
+    private final List<ValidationResult> personResults;
+
+    /**
+     * Validation results of company participations, in the order they were sent.
+     */
+    private final List<ValidationResult> companyResults;
+
+    /**
+     * Constructor for bulk participation result dto.
+     * @param savedCount number of saved participations.
+     * @param waitlistedCount number of waitlisted participations.
+     * @param personResults person validation results.
+     * @param companyResults company validation results.
+     */
+    public BulkParticipationResultDto(int savedCount, int waitlistedCount, List<ValidationResult> personResults,
+                                      List<ValidationResult> companyResults) {
+        this.savedCount = savedCount;
+        this.waitlistedCount = waitlistedCount;
+        this.personResults = personResults;
+        this.companyResults = companyResults;
+    }
+}
@@ -0,0 +1,49 @@
+package com.rik.nullam.dto;
+
+import lombok.Getter;
+
+@Getter
+public class CacheStatsDto {
+    /**
+     * Name of the cache.
+     */
+    private final String name;
+    /**
+     * Number of entries currently in the cache.
+     */
+    private final long size;
+    /**
+     * Number of lookups answered from the cache.
+     */
+    private final long hitCount;
+    /**
+     * Number of lookups that had to load the value.
+     */
+    private final long missCount;
+    /**
+     * Number of entries evicted because of size or expiry.
+     */
+    private final long evictionCount;
+    /**
+     * Ratio of hits to all lookups.
+     */
+    private final double hitRate;
+
+    /**
+     * Constructor for cache stats dto.
+     * @param name cache name.
+     * @param size number of entries.
+     * @param hitCount number of hits.
+     * @param missCount number of misses.
+     * @param evictionCount number of evictions.
+     * @param hitRate hit rate.
+     */
+    public CacheStatsDto(String name, long size, long hitCount, long missCount, long evictionCount, double hitRate) {
+        this.name = name;
+        this.size = size;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.hitRate = hitRate;
+    }
+}
@@ -0,0 +1,31 @@
+package com.rik.nullam.dto;
+
+import lombok.Getter;
+
+@Getter
+public class EventCountUpdateDto {
+    /**
+     * ID of the changed event.
+     */
+    private final Long eventId;
+    /**
+     * Current summary of the event, null if the event was deleted or archived.
+     */
+    private final EventSummaryDto summary;
+    /**
+     * Change in the number of participants since the previous update, negative if participants were removed.
+     */
+    private final int participantDelta;
+
+    /**
+     * Constructor for event count update dto.
+     * @param eventId id of event.
+     * @param summary current summary of event, null if event is gone.
+     * @param participantDelta change in the number of participants.
+     */
+    public EventCountUpdateDto(Long eventId, EventSummaryDto summary, int participantDelta) {
+        this.eventId = eventId;
+        this.summary = summary;
+        this.participantDelta = participantDelta;
+    }
+}
@@ -24,5 +24,9 @@ public class EventDto {
      * Additional information about the event.
      */
     private String additionalInfo;
+    /**
+     * Maximum number of participants, null if not limited.
+     */
+    private Integer capacity;
 
 }
@@ -0,0 +1,39 @@
+package com.rik.nullam.dto;
+
+import lombok.Getter;
+
+@Getter
+public class EventListVersionDto {
+    /**
+     * Number of events in the list.
+     */
+    private final long count;
+    /**
+     * Sum of event ids, changes when an event is replaced by another.
+     */
+    private final long idSum;
+    /**
+     * Sum of event versions, changes when any event of the list changes.
+     */
+    private final long versionSum;
+
+    /**
+     * Constructor for event list version dto.
+     * @param count number of events.
+     * @param idSum sum of event ids, null if there are no events.
+     * @param versionSum sum of event versions, null if there are no events.
+     */
+    public EventListVersionDto(Long count, Long idSum, Long versionSum) {
+        this.count = count;
+        this.idSum = idSum == null ? 0 : idSum;
+        this.versionSum = versionSum == null ? 0 : versionSum;
+    }
+
+    /**
+     * Get version of the list as text, equal only if the list has not changed.
+     * @return version of the list.
+     */
+    public String toTag() {
+        return count + "-" + idSum + "-" + versionSum;
+    }
+}
@@ -0,0 +1,42 @@
+package com.rik.nullam.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+public class EventSummaryCursorDto {
+    /**
+     * Event summaries in this slice.
+     */
+    private List<EventSummaryDto> events;
+    /**
+     * Time of the last event in this slice, null if there are no more events.
+     */
+    private LocalDateTime nextCursorTime;
+    /**
+     * ID of the last event in this slice, null if there are no more events.
+     */
+    private Long nextCursorId;
+
+    /**
+     * Constructor for event summary cursor dto.
+     * @param events event summaries.
+     * @param nextCursorTime time to continue from.
+     * @param nextCursorId id to continue from.
+     */
+    public EventSummaryCursorDto(List<EventSummaryDto> events, LocalDateTime nextCursorTime, Long nextCursorId) {
+        this.events = events;
+        this.nextCursorTime = nextCursorTime;
+        this.nextCursorId = nextCursorId;
+    }
+
+    /**
+     * No-args constructor.
+     */
+    public EventSummaryCursorDto() {
+    }
+}
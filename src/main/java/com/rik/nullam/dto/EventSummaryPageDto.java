@@ -0,0 +1,53 @@
+package com.rik.nullam.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class EventSummaryPageDto {
+    /**
+     * Event summaries on this page.
+     */
+    private List<EventSummaryDto> events;
+    /**
+     * Index of the page, starting from 0.
+     */
+    private int page;
+    /**
+     * Maximum number of events on a page.
+     */
+    private int size;
+    /**
+     * Total number of events over all pages.
+     */
+    private long totalElements;
+    /**
+     * Total number of pages.
+     */
+    private int totalPages;
+
+    /**
+     * Constructor for event summary page dto.
+     * @param events event summaries.
+     * @param page page index.
+     * @param size page size.
+     * @param totalElements total number of events.
+     * @param totalPages total number of pages.
+     */
+    public EventSummaryPageDto(List<EventSummaryDto> events, int page, int size, long totalElements, int totalPages) {
+        this.events = events;
+        this.page = page;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.totalPages = totalPages;
+    }
+
+    /**
+     * No-args constructor.
+     */
+    public EventSummaryPageDto() {
+    }
+}
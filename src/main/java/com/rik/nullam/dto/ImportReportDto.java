@@ -0,0 +1,66 @@
+package com.rik.nullam.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class ImportReportDto {
+    /**
+     * Number of data rows read, including skipped rows.
+     */
+    private long rowsRead;
+
+    /**
+     * Number of rows saved as participations.
+     */
+    private long rowsImported;
+
+    /**
+     * Number of rows put to the waitlist of a full event.
+     */
+    private long rowsWaitlisted;
+
+    /**
+     * Number of rows rejected by validation.
+     */
+    private long rowsRejected;
+
+    /**
+     * Last data row whose chunk was committed. Send it as skipRows to resume an interrupted import.
+     */
+    private long lastCommittedRow;
+
+    /**
+     * Import throughput in rows per second.
+     */
+    private double rowsPerSecond;
+
+    /**
+     * True if the whole input was read.
+     */
+    private boolean completed;
+
+    /**
+     * Reason the import stopped early, null if completed.
+     */
+    private String failureMessage;
+
+    /**
+     * First data row of the chunk that failed to commit, 0 if no chunk failed.
+     */
+    private long failedFromRow;
+
+    /**
+     * Last data row of the chunk that failed to commit, 0 if no chunk failed.
+     */
+    private long failedToRow;
+
+    /**
+     * Errors of rejected rows, limited to the first rejected rows.
+     */
+    private final List<ImportRowErrorDto> errors = new ArrayList<>();
+}
@@ -0,0 +1,28 @@
+package com.rik.nullam.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class ImportRowErrorDto {
+    /**
+     * Number of the rejected data row, starting from 1 after the header.
+     */
+    private final long row;
+
+    /**
+     * Validation error messages of the row.
+     */
+    private final List<String> messages;
+
+    /**
+     * Constructor for import row error dto.
+     * @param row row number.
+     * @param messages error messages.
+     */
+    public ImportRowErrorDto(long row, List<String> messages) {
+        this.row = row;
+        this.messages = messages;
+    }
+}
@@ -0,0 +1,31 @@
+package com.rik.nullam.dto;
+
+import lombok.Getter;
+
+@Getter
+public class ParticipantCountDriftDto {
+    /**
+     * ID of the event.
+     */
+    private final Long eventId;
+    /**
+     * Version of the event when the participants were counted.
+     */
+    private final Long version;
+    /**
+     * Participant total counted from the participation tables.
+     */
+    private final int countedParticipants;
+
+    /**
+     * Constructor for participant count drift dto.
+     * @param eventId id of event.
+     * @param version version of event.
+     * @param countedParticipants counted participant total.
+     */
+    public ParticipantCountDriftDto(Long eventId, Long version, Long countedParticipants) {
+        this.eventId = eventId;
+        this.version = version;
+        this.countedParticipants = countedParticipants.intValue();
+    }
+}
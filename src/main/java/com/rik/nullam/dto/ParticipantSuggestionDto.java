@@ -0,0 +1,54 @@
+package com.rik.nullam.dto;
+
+import lombok.Getter;
+
+@Getter
+public class ParticipantSuggestionDto {
+    /**
+     * Type of participant.
+     */
+    private final ParticipationSummaryDto.ParticipationType type;
+    /**
+     * Full name (for person) or legal name (for company).
+     */
+    private final String name;
+    /**
+     * First name of person, null for company.
+     */
+    private final String firstName;
+    /**
+     * Last name of person, null for company.
+     */
+    private final String lastName;
+    /**
+     * Personal ID (for person) or registry code (for company).
+     */
+    private final String idCode;
+
+    /**
+     * Constructor for person suggestion.
+     * @param firstName first name.
+     * @param lastName last name.
+     * @param personalCode personal code.
+     */
+    public ParticipantSuggestionDto(String firstName, String lastName, String personalCode) {
+        this.type = ParticipationSummaryDto.ParticipationType.PERSON;
+        this.name = String.format("%1$s %2$s", firstName, lastName);
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.idCode = personalCode;
+    }
+
+    /**
+     * Constructor for company suggestion.
+     * @param companyName company name.
+     * @param registryCode registry code.
+     */
+    public ParticipantSuggestionDto(String companyName, String registryCode) {
+        this.type = ParticipationSummaryDto.ParticipationType.COMPANY;
+        this.name = companyName;
+        this.firstName = null;
+        this.lastName = null;
+        this.idCode = registryCode;
+    }
+}
@@ -0,0 +1,41 @@
+package com.rik.nullam.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class ParticipationChangeBatchDto {
+    /**
+     * Changes in this batch, in sequence order.
+     */
+    private List<ParticipationChangeDto> changes;
+    /**
+     * Sequence number to continue from, the last one in this batch or the requested one if the batch is empty.
+     */
+    private long nextSince;
+    /**
+     * True if more changes follow this batch.
+     */
+    private boolean hasMore;
+
+    /**
+     * Constructor for participation change batch dto.
+     * @param changes changes in sequence order.
+     * @param nextSince sequence number to continue from.
+     * @param hasMore true if more changes follow.
+     */
+    public ParticipationChangeBatchDto(List<ParticipationChangeDto> changes, long nextSince, boolean hasMore) {
+        this.changes = changes;
+        this.nextSince = nextSince;
+        this.hasMore = hasMore;
+    }
+
+    /**
+     * No-args constructor.
+     */
+    public ParticipationChangeBatchDto() {
+    }
+}
@@ -0,0 +1,69 @@
+package com.rik.nullam.dto;
+
+import com.rik.nullam.entity.change.ParticipationChange;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+public class ParticipationChangeDto {
+    /**
+     * Position of the change in the feed.
+     */
+    private long sequenceNumber;
+    /**
+     * What changed.
+     */
+    private ParticipationChange.ChangeType changeType;
+    /**
+     * ID of the event.
+     */
+    private Long eventId;
+    /**
+     * Type of the changed participation, null for changes of the event.
+     */
+    private ParticipationSummaryDto.ParticipationType participationType;
+    /**
+     * ID of the changed participation, null for changes of the event.
+     */
+    private Long participationId;
+    /**
+     * Participation after the change, null for removals and changes of the event.
+     */
+    private ParticipationExportDto participation;
+    /**
+     * Time of the change.
+     */
+    private LocalDateTime changedAt;
+
+    /**
+     * Constructor for participation change dto.
+     * @param sequenceNumber position of the change in the feed.
+     * @param changeType what changed.
+     * @param eventId id of event.
+     * @param participationType type of participation, null for changes of the event.
+     * @param participationId id of participation, null for changes of the event.
+     * @param participation participation after the change, null if there is none.
+     * @param changedAt time of the change.
+     */
+    public ParticipationChangeDto(long sequenceNumber, ParticipationChange.ChangeType changeType, Long eventId,
+                                  ParticipationSummaryDto.ParticipationType participationType,
+                                  Long participationId, ParticipationExportDto participation,
+                                  LocalDateTime changedAt) {
+        this.sequenceNumber = sequenceNumber;
+        this.changeType = changeType;
+        this.eventId = eventId;
+        this.participationType = participationType;
+        this.participationId = participationId;
+        this.participation = participation;
+        this.changedAt = changedAt;
+    }
+
+    /**
+     * No-args constructor.
+     */
+    public ParticipationChangeDto() {
+    }
+}
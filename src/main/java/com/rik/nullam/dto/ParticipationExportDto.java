@@ -0,0 +1,92 @@
+package com.rik.nullam.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ParticipationExportDto {
+    /**
+     * Type of participation.
+     */
+    private ParticipationSummaryDto.ParticipationType type;
+
+    /**
+     * ID of the participation record.
+     */
+    private Long participationId;
+
+    /**
+     * ID of the event.
+     */
+    private Long eventId;
+
+    /**
+     * First name of the person, empty for companies.
+     */
+    private String firstName;
+
+    /**
+     * Last name of the person, empty for companies.
+     */
+    private String lastName;
+
+    /**
+     * Name of the company, empty for persons.
+     */
+    private String companyName;
+
+    /**
+     * Personal code (for person) or registry code (for company).
+     */
+    private String code;
+
+    /**
+     * Number of participants, 1 for persons.
+     */
+    private int numberOfParticipants;
+
+    /**
+     * Payment method for participation.
+     */
+    private String paymentMethod;
+
+    /**
+     * Additional information.
+     */
+    private String additionalInfo;
+
+    /**
+     * Constructor for participation export dto.
+     * @param type type of participation.
+     * @param participationId participation id.
+     * @param eventId event id.
+     * @param firstName first name.
+     * @param lastName last name.
+     * @param companyName company name.
+     * @param code personal or registry code.
+     * @param numberOfParticipants number of participants.
+     * @param paymentMethod payment method.
+     * @param additionalInfo additional info.
+     */
+    public ParticipationExportDto(ParticipationSummaryDto.ParticipationType type, Long participationId, Long eventId,
+                                  String firstName, String lastName, String companyName, String code,
+                                  int numberOfParticipants, String paymentMethod, String additionalInfo) {
+        this.type = type;
+        this.participationId = participationId;
+        this.eventId = eventId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.companyName = companyName;
+        this.code = code;
+        this.numberOfParticipants = numberOfParticipants;
+        this.paymentMethod = paymentMethod;
+        this.additionalInfo = additionalInfo;
+    }
+
+    /**
+     * No-args constructor.
+     */
+    public ParticipationExportDto() {
+    }
+}
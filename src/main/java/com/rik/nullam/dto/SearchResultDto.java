@@ -0,0 +1,59 @@
+package com.rik.nullam.dto;
+
+import lombok.Getter;
+
+@Getter
+public class SearchResultDto {
+    /**
+     * Type of the found record.
+     */
+    private final ResultType type;
+    /**
+     * ID of the event, or of the event the participant is registered to.
+     */
+    private final Long eventId;
+    /**
+     * Name of the event.
+     */
+    private final String eventName;
+    /**
+     * ID of the participation record, null for events.
+     */
+    private final Long participationId;
+    /**
+     * Name of event, full name of person or legal name of company.
+     */
+    private final String name;
+    /**
+     * Personal code or registry code, location for events.
+     */
+    private final String detail;
+
+    /**
+     * Type of the found record.
+     */
+    public enum ResultType {
+        EVENT,
+        PERSON,
+        COMPANY
+    }
+
+    /**
+     * Constructor for search result dto.
+     * @param type type of record.
+     * @param eventId event id.
+     * @param eventName event name.
+     * @param participationId participation id, null for events.
+     * @param name name of event, person or company.
+     * @param detail personal code, registry code or event location.
+     */
+    public SearchResultDto(ResultType type, Long eventId, String eventName, Long participationId,
+                           String name, String detail) {
+        this.type = type;
+        this.eventId = eventId;
+        this.eventName = eventName;
+        this.participationId = participationId;
+        this.name = name;
+        this.detail = detail;
+    }
+}
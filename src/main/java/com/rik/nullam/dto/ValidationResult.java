@@ -13,6 +13,7 @@ public class ValidationResult {
 
     private boolean valid;
     private final List<String> messages = new ArrayList<>();
+    private Long waitlistEntryId;
 
     /**
      * ValidationResult constructor.
@@ -30,5 +31,13 @@ public class ValidationResult {
         this.messages.add(message);
     }
 
+    /**
+     * Mark registration as put on the waitlist of a full event.
+     * @param waitlistEntryId id of waitlist entry, used to look up the queue position.
+     */
+    public void setWaitlistEntryId(Long waitlistEntryId) {
+        this.waitlistEntryId = waitlistEntryId;
+    }
+
 }
 
@@ -0,0 +1,31 @@
+package com.rik.nullam.dto;
+
+import lombok.Getter;
+
+@Getter
+public class WaitlistPositionDto {
+    /**
+     * ID of the waitlist entry.
+     */
+    private final Long entryId;
+    /**
+     * ID of the event.
+     */
+    private final Long eventId;
+    /**
+     * Position in the queue, 1 is the next to be promoted.
+     */
+    private final long position;
+
+    /**
+     * Constructor for waitlist position dto.
+     * @param entryId waitlist entry id.
+     * @param eventId event id.
+     * @param position position in queue.
+     */
+    public WaitlistPositionDto(Long entryId, Long eventId, long position) {
+        this.entryId = entryId;
+        this.eventId = eventId;
+        this.position = position;
+    }
+}
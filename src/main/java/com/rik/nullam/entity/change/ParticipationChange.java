@@ -0,0 +1,110 @@
+package com.rik.nullam.entity.change;
+
+import com.rik.nullam.dto.ParticipationSummaryDto;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Change of an event or a participation in the change feed, numbered in commit order.
+ */
+@Entity
+@Getter
+public class ParticipationChange {
+    /**
+     * Position of the change in the feed, increasing in commit order.
+     */
+    @Id
+    private Long sequenceNumber;
+    /**
+     * What changed.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ChangeType changeType;
+    /**
+     * Event of the change.
+     */
+    @Column(nullable = false)
+    private Long eventId;
+    /**
+     * Type of the changed participation, null for changes of the event.
+     */
+    @Enumerated(EnumType.STRING)
+    private ParticipationSummaryDto.ParticipationType participationType;
+    /**
+     * ID of the changed participation, null for changes of the event.
+     */
+    private Long participationId;
+    /**
+     * Participation after the change as JSON, null for removals and changes of the event.
+     */
+    @Lob
+    private String participation;
+    /**
+     * Time of the change.
+     */
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+
+    /**
+     * Kind of change.
+     */
+    public enum ChangeType {
+        /**
+         * Event was created.
+         */
+        EVENT_CREATED,
+        /**
+         * Event was deleted together with all its participations.
+         */
+        EVENT_DELETED,
+        /**
+         * Participation was added, also when promoted from the waitlist.
+         */
+        PARTICIPATION_ADDED,
+        /**
+         * Participation was edited.
+         */
+        PARTICIPATION_CHANGED,
+        /**
+         * Participation was removed.
+         */
+        PARTICIPATION_REMOVED
+    }
+
+    /**
+     * Constructor for participation changes.
+     *
+     * @param sequenceNumber    position of the change in the feed.
+     * @param changeType        what changed.
+     * @param eventId           event of the change.
+     * @param participationType type of the changed participation, null for changes of the event.
+     * @param participationId   id of the changed participation, null for changes of the event.
+     * @param participation     participation after the change as JSON, null if there is none.
+     * @param changedAt         time of the change.
+     */
+    public ParticipationChange(Long sequenceNumber, ChangeType changeType, Long eventId,
+                               ParticipationSummaryDto.ParticipationType participationType, Long participationId,
+                               String participation, LocalDateTime changedAt) {
+        this.sequenceNumber = sequenceNumber;
+        this.changeType = changeType;
+        this.eventId = eventId;
+        this.participationType = participationType;
+        this.participationId = participationId;
+        this.participation = participation;
+        this.changedAt = changedAt;
+    }
+
+    /**
+     * No-args constructor for JPA.
+     */
+    protected ParticipationChange() {
+    }
+}
@@ -0,0 +1,92 @@
+package com.rik.nullam.entity.event;
+
+import jakarta.persistence.Basic;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event moved out of the event table once it is older than the archive age, with its participations
+ * stored as one compressed document.
+ */
+@Entity
+@Getter
+public class ArchivedEvent {
+    /**
+     * Identifier of the event, the same as before archiving.
+     */
+    @Id
+    private Long id;
+    /**
+     * Name of the event.
+     */
+    @Column(nullable = false)
+    private String name;
+    /**
+     * Starting time of the event.
+     */
+    @Column(nullable = false)
+    private LocalDateTime time;
+    /**
+     * Location of the event.
+     */
+    @Column(nullable = false)
+    private String location;
+    /**
+     * Additional information about the event.
+     */
+    @Column(length = 1000)
+    private String additionalInfo;
+    /**
+     * Maximum number of participants, null if the event was not limited.
+     */
+    @Column
+    private Integer capacity;
+    /**
+     * Total number of participants, persons and company participants combined.
+     */
+    @Column(nullable = false)
+    private int participantCount;
+    /**
+     * Participations of the event as gzipped JSON, loaded only when asked for.
+     */
+    @Lob
+    @Basic(fetch = FetchType.LAZY)
+    @Column(nullable = false)
+    private byte[] participations;
+    /**
+     * Time the event was archived.
+     */
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    /**
+     * Constructor for archived events.
+     *
+     * @param event          event to archive.
+     * @param participations participations of the event as gzipped JSON.
+     * @param archivedAt     time of archiving.
+     */
+    public ArchivedEvent(Event event, byte[] participations, LocalDateTime archivedAt) {
+        this.id = event.getId();
+        this.name = event.getName();
+        this.time = event.getTime();
+        this.location = event.getLocation();
+        this.additionalInfo = event.getAdditionalInfo();
+        this.capacity = event.getCapacity();
+        this.participantCount = event.getParticipantCount();
+        this.participations = participations;
+        this.archivedAt = archivedAt;
+    }
+
+    /**
+     * No-args constructor for JPA.
+     */
+    protected ArchivedEvent() {
+    }
+}
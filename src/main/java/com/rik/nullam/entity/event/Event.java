@@ -4,8 +4,10 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Size;
 import lombok.Getter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
@@ -42,6 +44,25 @@ public class Event {
     @Size(max = 1000)
     @Column(length = 1000)
     private String additionalInfo;
+    /**
+     * Maximum number of participants, null if the event is not limited.
+     */
+    @Column
+    private Integer capacity;
+    /**
+     * Total number of participants, persons and company participants combined.
+     * Maintained on every participation change instead of being counted on read.
+     */
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private int participantCount;
+    /**
+     * Version of the event row, bumped on every participant count change.
+     */
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
 
     /**
      * Constructor for events.
@@ -49,12 +70,14 @@ public class Event {
      * @param time           time of event.
      * @param location       location of event.
      * @param additionalInfo additional info.
+     * @param capacity       maximum number of participants, null if not limited.
      */
-    public Event(String name, LocalDateTime time, String location, String additionalInfo) {
+    public Event(String name, LocalDateTime time, String location, String additionalInfo, Integer capacity) {
         this.name = name;
         this.time = time;
         this.location = location;
         this.additionalInfo = additionalInfo;
+        this.capacity = capacity;
     }
 
     /**
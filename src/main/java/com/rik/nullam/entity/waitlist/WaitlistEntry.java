@@ -0,0 +1,132 @@
+package com.rik.nullam.entity.waitlist;
+
+import com.rik.nullam.entity.event.Event;
+import com.rik.nullam.entity.participation.PaymentMethod;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+
+/**
+ * Registration waiting for free seats of a full event. Entries of an event are served in id order.
+ * Person entries have names and personal code, company entries have company name and registry code.
+ */
+@Entity
+@Getter
+public class WaitlistEntry {
+    /**
+     * Unique identifier, also the position of the entry in the queue.
+     */
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    /**
+     * Event the registrant is waiting for.
+     */
+    @ManyToOne(optional = false)
+    private Event event;
+
+    /**
+     * Payment method of the registrant.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PaymentMethod paymentMethod;
+
+    /**
+     * Additional info of the registrant.
+     */
+    @Size(max = 5000)
+    @Column(length = 5000)
+    private String additionalInfo;
+
+    /**
+     * First name of the person.
+     */
+    private String firstName;
+
+    /**
+     * Last name of the person.
+     */
+    private String lastName;
+
+    /**
+     * Personal code of the person.
+     */
+    private String personalCode;
+
+    /**
+     * Name of the company.
+     */
+    private String companyName;
+
+    /**
+     * Registry code of the company.
+     */
+    private String registryCode;
+
+    /**
+     * Number of seats needed, 1 for a person.
+     */
+    @Column(nullable = false)
+    private int seats;
+
+    /**
+     * No-args constructor for JPA.
+     */
+    protected WaitlistEntry() {
+    }
+
+    /**
+     * Waitlist entry of a person.
+     * @param event Event.
+     * @param paymentMethod Method of payment.
+     * @param additionalInfo Additional info.
+     * @param firstName First name of person.
+     * @param lastName Last name of person.
+     * @param personalCode Personal code.
+     */
+    public WaitlistEntry(Event event, PaymentMethod paymentMethod, String additionalInfo,
+                         String firstName, String lastName, String personalCode) {
+        this.event = event;
+        this.paymentMethod = paymentMethod;
+        this.additionalInfo = additionalInfo;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.personalCode = personalCode;
+        this.seats = 1;
+    }
+
+    /**
+     * Waitlist entry of a company.
+     * @param event Event.
+     * @param paymentMethod Method of payment.
+     * @param additionalInfo Additional info.
+     * @param companyName Name of company.
+     * @param registryCode Registration code of company.
+     * @param numberOfParticipants Number of people attending event.
+     */
+    public WaitlistEntry(Event event, PaymentMethod paymentMethod, String additionalInfo,
+                         String companyName, String registryCode, int numberOfParticipants) {
+        this.event = event;
+        this.paymentMethod = paymentMethod;
+        this.additionalInfo = additionalInfo;
+        this.companyName = companyName;
+        this.registryCode = registryCode;
+        this.seats = numberOfParticipants;
+    }
+
+    /**
+     * Check if entry belongs to a company.
+     * @return true if company, false if person.
+     */
+    public boolean isCompany() {
+        return registryCode != null;
+    }
+}
@@ -0,0 +1,65 @@
+package com.rik.nullam.repository;
+
+import com.rik.nullam.dto.EventSummaryDto;
+import com.rik.nullam.entity.event.ArchivedEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedEventRepository extends CrudRepository<ArchivedEvent, Long> {
+    /**
+     * Select clause that builds event summaries of archived events.
+     */
+    String SUMMARY_SELECT = "SELECT new com.rik.nullam.dto.EventSummaryDto(a.id, a.name, a.time, a.location, "
+            + "a.participantCount) FROM ArchivedEvent a ";
+
+    /**
+     * Find summaries of all archived events ordered by time.
+     * @return summaries in a list.
+     */
+    @Query(SUMMARY_SELECT + "ORDER BY a.time, a.id")
+    List<EventSummaryDto> findEventSummaries();
+
+    /**
+     * Find a page of archived event summaries, most recent first.
+     * @param pageable offset and maximum number of events.
+     * @return summaries in a list.
+     */
+    @Query(SUMMARY_SELECT + "ORDER BY a.time DESC, a.id DESC")
+    List<EventSummaryDto> findEventSummariesMostRecentFirst(Pageable pageable);
+
+    /**
+     * Find summary of an archived event.
+     * @param id id of event.
+     * @return summary, empty if event is not archived.
+     */
+    @Query(SUMMARY_SELECT + "WHERE a.id = :id")
+    Optional<EventSummaryDto> findEventSummaryById(@Param("id") Long id);
+
+    /**
+     * Find archived event summaries following a cursor, most recent first.
+     * @param cursorTime time of the last event already received.
+     * @param cursorId id of the last event already received.
+     * @param pageable maximum number of events.
+     * @return summaries in a list.
+     */
+    @Query(SUMMARY_SELECT + "WHERE a.time < :cursorTime OR (a.time = :cursorTime AND a.id < :cursorId) "
+            + "ORDER BY a.time DESC, a.id DESC")
+    List<EventSummaryDto> findEventSummariesBeforeCursor(@Param("cursorTime") LocalDateTime cursorTime,
+                                                         @Param("cursorId") Long cursorId, Pageable pageable);
+
+    /**
+     * Find compressed participations of an archived event.
+     * @param id id of event.
+     * @return participations as gzipped JSON, empty if event is not archived.
+     */
+    @Query("SELECT a.participations FROM ArchivedEvent a WHERE a.id = :id")
+    Optional<byte[]> findParticipationsById(@Param("id") Long id);
+}
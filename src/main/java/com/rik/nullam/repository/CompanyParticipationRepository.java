@@ -1,11 +1,21 @@
 package com.rik.nullam.repository;
 
+import com.rik.nullam.dto.ParticipantSuggestionDto;
+import com.rik.nullam.dto.SearchResultDto;
 import com.rik.nullam.entity.event.Event;
 import com.rik.nullam.entity.participation.CompanyParticipation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface CompanyParticipationRepository extends CrudRepository<CompanyParticipation, Long> {
@@ -15,10 +25,90 @@ public interface CompanyParticipationRepository extends CrudRepository<CompanyPa
      */
     void deleteAllByEvent(Event event);
 
+    /**
+     * Delete all participations of given events with one statement.
+     * @param eventIds event ids.
+     * @return number of deleted participations.
+     */
+    @Modifying
+    @Query("DELETE FROM CompanyParticipation c WHERE c.event.id IN :eventIds")
+    int deleteAllByEventIds(@Param("eventIds") Collection<Long> eventIds);
+
+    /**
+     * Get all participations of given events in id order. The events should already be loaded.
+     * @param eventIds event ids.
+     * @return participations in a list.
+     */
+    @Query("SELECT c FROM CompanyParticipation c WHERE c.event.id IN :eventIds ORDER BY c.id")
+    List<CompanyParticipation> findAllByEventIds(@Param("eventIds") Collection<Long> eventIds);
+
     /**
      * Get all participants by event id.
+     * The event is fetched in the same query instead of a separate select.
      * @param eventId event id.
      * @return list of participations.
      */
-    List<CompanyParticipation> getCompanyParticipationsByEvent_Id(Long eventId);
+    @Query("SELECT c FROM CompanyParticipation c JOIN FETCH c.event WHERE c.event.id = :eventId")
+    List<CompanyParticipation> getCompanyParticipationsByEvent_Id(@Param("eventId") Long eventId);
+
+    /**
+     * Stream all participations of an event in id order with a forward-only cursor.
+     * Must be consumed inside a transaction.
+     * @param eventId event id.
+     * @return stream of participations.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM CompanyParticipation c WHERE c.event.id = :eventId ORDER BY c.id")
+    Stream<CompanyParticipation> streamCompanyParticipationsByEventId(@Param("eventId") Long eventId);
+
+    /**
+     * Stream search records of all participations with a forward-only cursor, without loading the entities.
+     * Must be consumed inside a transaction.
+     * @return stream of search results.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.rik.nullam.dto.SearchResultDto(com.rik.nullam.dto.SearchResultDto$ResultType.COMPANY, "
+            + "e.id, e.name, c.id, c.companyName, c.registryCode) FROM CompanyParticipation c JOIN c.event e")
+    Stream<SearchResultDto> streamSearchResults();
+
+    /**
+     * Check if company is registered to event.
+     * @param eventId event id.
+     * @param registryCode registry code.
+     * @return true if registered.
+     */
+    boolean existsByEvent_IdAndRegistryCode(Long eventId, String registryCode);
+
+    /**
+     * Check if company is registered to event with a participation other than given one.
+     * @param eventId event id.
+     * @param registryCode registry code.
+     * @param participationId id of participation to leave out.
+     * @return true if registered.
+     */
+    boolean existsByEvent_IdAndRegistryCodeAndIdNot(Long eventId, String registryCode, Long participationId);
+
+    /**
+     * Find which of given registry codes are registered to event.
+     * @param eventId event id.
+     * @param registryCodes registry codes to look for.
+     * @return registered registry codes.
+     */
+    @Query("SELECT c.registryCode FROM CompanyParticipation c "
+            + "WHERE c.event.id = :eventId AND c.registryCode IN :registryCodes")
+    List<String> findRegisteredRegistryCodes(@Param("eventId") Long eventId,
+                                             @Param("registryCodes") Collection<String> registryCodes);
+
+    /**
+     * Stream distinct company participants ever registered, for name suggestions.
+     * Must be consumed inside a transaction.
+     * @return stream of suggestions.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT DISTINCT new com.rik.nullam.dto.ParticipantSuggestionDto(c.companyName, c.registryCode) "
+            + "FROM CompanyParticipation c")
+    Stream<ParticipantSuggestionDto> streamCompanySuggestions();
 }
@@ -1,15 +1,36 @@
 package com.rik.nullam.repository;
 
+import com.rik.nullam.dto.EventListVersionDto;
+import com.rik.nullam.dto.EventSummaryDto;
+import com.rik.nullam.dto.ParticipantCountDriftDto;
 import com.rik.nullam.entity.event.Event;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface EventRepository extends CrudRepository<Event, Long> {
+    /**
+     * Select clause that builds event summaries from the maintained participant count.
+     */
+    String SUMMARY_SELECT = "SELECT new com.rik.nullam.dto.EventSummaryDto(e.id, e.name, e.time, e.location, "
+            + "e.participantCount) FROM Event e ";
+
+    /**
+     * Participant total of event e counted from the participation tables.
+     */
+    String COUNTED_PARTICIPANTS = "((SELECT COUNT(p) FROM PersonParticipation p WHERE p.event = e) "
+            + "+ (SELECT COALESCE(SUM(c.numberOfParticipants), 0) FROM CompanyParticipation c WHERE c.event = e))";
+
     /**
      * Find all events with a time before given time.
      * @param timeBefore time.
@@ -30,4 +51,197 @@ public interface EventRepository extends CrudRepository<Event, Long> {
      * @return optional of event.
      */
     Optional<Event> findEventById(Long id);
+
+    /**
+     * Find summaries of all events with a time before given time, ordered by time.
+     * @param timeBefore time.
+     * @return summaries in a list.
+     */
+    @Query(SUMMARY_SELECT + "WHERE e.time < :timeBefore ORDER BY e.time")
+    List<EventSummaryDto> findEventSummariesByTimeBefore(@Param("timeBefore") LocalDateTime timeBefore);
+
+    /**
+     * Find summaries of all events with a time after given time, ordered by time.
+     * @param timeAfter time.
+     * @return summaries in a list.
+     */
+    @Query(SUMMARY_SELECT + "WHERE e.time > :timeAfter ORDER BY e.time")
+    List<EventSummaryDto> findEventSummariesByTimeAfter(@Param("timeAfter") LocalDateTime timeAfter);
+
+    /**
+     * Find event summary by event ID.
+     * @param id ID of event.
+     * @return optional of event summary.
+     */
+    @Query(SUMMARY_SELECT + "WHERE e.id = :id")
+    Optional<EventSummaryDto> findEventSummaryById(@Param("id") Long id);
+
+    /**
+     * Find a page of summaries of events with a time before given time, most recent first.
+     * @param timeBefore time.
+     * @param pageable page to load.
+     * @return page of summaries.
+     */
+    @Query(value = SUMMARY_SELECT + "WHERE e.time < :timeBefore ORDER BY e.time DESC, e.id DESC",
+            countQuery = "SELECT COUNT(e) FROM Event e WHERE e.time < :timeBefore")
+    Page<EventSummaryDto> findEventSummariesByTimeBefore(@Param("timeBefore") LocalDateTime timeBefore,
+                                                         Pageable pageable);
+
+    /**
+     * Find a page of summaries of events with a time after given time, earliest first.
+     * @param timeAfter time.
+     * @param pageable page to load.
+     * @return page of summaries.
+     */
+    @Query(value = SUMMARY_SELECT + "WHERE e.time > :timeAfter ORDER BY e.time, e.id",
+            countQuery = "SELECT COUNT(e) FROM Event e WHERE e.time > :timeAfter")
+    Page<EventSummaryDto> findEventSummariesByTimeAfter(@Param("timeAfter") LocalDateTime timeAfter,
+                                                        Pageable pageable);
+
+    /**
+     * Find summaries of events with a time before given time that come after the cursor
+     * in most recent first order.
+     * @param timeBefore time.
+     * @param cursorTime time of the last event of the previous slice.
+     * @param cursorId id of the last event of the previous slice.
+     * @param pageable limit of the slice.
+     * @return summaries in a list.
+     */
+    @Query(SUMMARY_SELECT + "WHERE e.time < :timeBefore "
+            + "AND (e.time < :cursorTime OR (e.time = :cursorTime AND e.id < :cursorId)) "
+            + "ORDER BY e.time DESC, e.id DESC")
+    List<EventSummaryDto> findEventSummariesByTimeBeforeCursor(@Param("timeBefore") LocalDateTime timeBefore,
+                                                               @Param("cursorTime") LocalDateTime cursorTime,
+                                                               @Param("cursorId") Long cursorId,
+                                                               Pageable pageable);
+
+    /**
+     * Find summaries of events with a time after given time that come after the cursor
+     * in earliest first order.
+     * @param timeAfter time.
+     * @param cursorTime time of the last event of the previous slice.
+     * @param cursorId id of the last event of the previous slice.
+     * @param pageable limit of the slice.
+     * @return summaries in a list.
+     */
+    @Query(SUMMARY_SELECT + "WHERE e.time > :timeAfter "
+            + "AND (e.time > :cursorTime OR (e.time = :cursorTime AND e.id > :cursorId)) "
+            + "ORDER BY e.time, e.id")
+    List<EventSummaryDto> findEventSummariesByTimeAfterCursor(@Param("timeAfter") LocalDateTime timeAfter,
+                                                              @Param("cursorTime") LocalDateTime cursorTime,
+                                                              @Param("cursorId") Long cursorId,
+                                                              Pageable pageable);
+
+    /**
+     * Add delta to the participant count of an event in a single atomic update.
+     * @param id ID of event.
+     * @param delta number of participants added, negative if removed.
+     * @return number of updated events.
+     */
+    @Modifying
+    @Query("UPDATE Event e SET e.participantCount = e.participantCount + :delta, e.version = e.version + 1 "
+            + "WHERE e.id = :id")
+    int adjustParticipantCount(@Param("id") Long id, @Param("delta") int delta);
+
+    /**
+     * Add participants to event only if they fit into its capacity.
+     * The check and the increment are one statement, so concurrent reservations cannot oversell.
+     * @param id id of event.
+     * @param seats number of participants to add.
+     * @return 1 if seats were reserved, 0 if event is full or not found.
+     */
+    @Modifying
+    @Query("UPDATE Event e SET e.participantCount = e.participantCount + :seats, e.version = e.version + 1 "
+            + "WHERE e.id = :id AND (e.capacity IS NULL OR e.participantCount + :seats <= e.capacity)")
+    int reserveSeats(@Param("id") Long id, @Param("seats") int seats);
+
+    /**
+     * Get number of free seats of event, read from the database.
+     * @param id id of event.
+     * @return free seats, empty if event is not limited or not found.
+     */
+    @Query("SELECT e.capacity - e.participantCount FROM Event e WHERE e.id = :id")
+    Optional<Integer> findFreeSeats(@Param("id") Long id);
+
+    /**
+     * Find events whose maintained participant count differs from the participation tables.
+     * @return drifted events with their counted participant totals.
+     */
+    @Query("SELECT new com.rik.nullam.dto.ParticipantCountDriftDto(e.id, e.version, " + COUNTED_PARTICIPANTS + ") "
+            + "FROM Event e WHERE e.participantCount <> " + COUNTED_PARTICIPANTS)
+    List<ParticipantCountDriftDto> findParticipantCountDrift();
+
+    /**
+     * Overwrite participant count, if the event has not changed since given version.
+     * @param id ID of event.
+     * @param participantCount correct participant count.
+     * @param version version the count was computed at.
+     * @return number of updated events, 0 if the event was changed meanwhile.
+     */
+    @Modifying
+    @Query("UPDATE Event e SET e.participantCount = :participantCount, e.version = e.version + 1 "
+            + "WHERE e.id = :id AND e.version = :version")
+    int repairParticipantCount(@Param("id") Long id, @Param("participantCount") int participantCount,
+                               @Param("version") Long version);
+
+    /**
+     * Find version of an event, bumped on every change of the event or its participations.
+     * @param id ID of event.
+     * @return optional of version.
+     */
+    @Query("SELECT e.version FROM Event e WHERE e.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Bump version of an event after a change that does not change the participant count.
+     * @param id ID of event.
+     * @return number of updated events.
+     */
+    @Modifying
+    @Query("UPDATE Event e SET e.version = e.version + 1 WHERE e.id = :id")
+    int bumpVersion(@Param("id") Long id);
+
+    /**
+     * Find version of the list of events with a time after given time.
+     * @param timeAfter time.
+     * @return version of the list.
+     */
+    @Query("SELECT new com.rik.nullam.dto.EventListVersionDto(COUNT(e), SUM(e.id), SUM(e.version)) "
+            + "FROM Event e WHERE e.time > :timeAfter")
+    EventListVersionDto findListVersionByTimeAfter(@Param("timeAfter") LocalDateTime timeAfter);
+
+    /**
+     * Find version of the list of events with a time before given time.
+     * @param timeBefore time.
+     * @return version of the list.
+     */
+    @Query("SELECT new com.rik.nullam.dto.EventListVersionDto(COUNT(e), SUM(e.id), SUM(e.version)) "
+            + "FROM Event e WHERE e.time < :timeBefore")
+    EventListVersionDto findListVersionByTimeBefore(@Param("timeBefore") LocalDateTime timeBefore);
+
+    /**
+     * Find start time of the first event after given time.
+     * @param timeAfter time.
+     * @return time of the next event, empty if there is none.
+     */
+    @Query("SELECT MIN(e.time) FROM Event e WHERE e.time > :timeAfter")
+    Optional<LocalDateTime> findNextEventTimeAfter(@Param("timeAfter") LocalDateTime timeAfter);
+
+    /**
+     * Find oldest events with a time before given time.
+     * @param timeBefore time.
+     * @param pageable maximum number of events.
+     * @return events in (time, id) order.
+     */
+    @Query("SELECT e FROM Event e WHERE e.time < :timeBefore ORDER BY e.time, e.id")
+    List<Event> findOldestEventsBefore(@Param("timeBefore") LocalDateTime timeBefore, Pageable pageable);
+
+    /**
+     * Delete events with one statement. Their participations and waitlists must be deleted first.
+     * @param ids event ids.
+     * @return number of deleted events.
+     */
+    @Modifying
+    @Query("DELETE FROM Event e WHERE e.id IN :ids")
+    int deleteAllByIds(@Param("ids") Collection<Long> ids);
 }
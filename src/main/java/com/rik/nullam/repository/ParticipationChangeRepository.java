@@ -0,0 +1,40 @@
+package com.rik.nullam.repository;
+
+import com.rik.nullam.entity.change.ParticipationChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ParticipationChangeRepository extends CrudRepository<ParticipationChange, Long> {
+    /**
+     * Find changes following a sequence number, in sequence order.
+     * @param since last sequence number already received.
+     * @param pageable maximum number of changes.
+     * @return changes in a list.
+     */
+    @Query("SELECT c FROM ParticipationChange c WHERE c.sequenceNumber > :since ORDER BY c.sequenceNumber")
+    List<ParticipationChange> findChangesAfter(@Param("since") long since, Pageable pageable);
+
+    /**
+     * Take sequence numbers for changes. Locks the counter until the transaction ends,
+     * so transactions taking numbers commit in number order.
+     * @param count number of sequence numbers to take.
+     * @return number of updated rows.
+     */
+    @Modifying
+    @Query(value = "UPDATE change_sequence SET last_value = last_value + :count WHERE id = 1", nativeQuery = true)
+    int advanceSequence(@Param("count") int count);
+
+    /**
+     * Find the last sequence number taken.
+     * @return last sequence number.
+     */
+    @Query(value = "SELECT last_value FROM change_sequence WHERE id = 1", nativeQuery = true)
+    long findLastSequenceNumber();
+}
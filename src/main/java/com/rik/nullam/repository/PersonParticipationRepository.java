@@ -1,11 +1,21 @@
 package com.rik.nullam.repository;
 
+import com.rik.nullam.dto.ParticipantSuggestionDto;
+import com.rik.nullam.dto.SearchResultDto;
 import com.rik.nullam.entity.event.Event;
 import com.rik.nullam.entity.participation.PersonParticipation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface PersonParticipationRepository extends CrudRepository<PersonParticipation, Long> {
@@ -15,10 +25,90 @@ public interface PersonParticipationRepository extends CrudRepository<PersonPart
      */
     void deleteAllByEvent(Event event);
 
+    /**
+     * Delete all participations of given events with one statement.
+     * @param eventIds event ids.
+     * @return number of deleted participations.
+     */
+    @Modifying
+    @Query("DELETE FROM PersonParticipation p WHERE p.event.id IN :eventIds")
+    int deleteAllByEventIds(@Param("eventIds") Collection<Long> eventIds);
+
+    /**
+     * Get all participations of given events in id order. The events should already be loaded.
+     * @param eventIds event ids.
+     * @return participations in a list.
+     */
+    @Query("SELECT p FROM PersonParticipation p WHERE p.event.id IN :eventIds ORDER BY p.id")
+    List<PersonParticipation> findAllByEventIds(@Param("eventIds") Collection<Long> eventIds);
+
     /**
      * Get all participations by event id.
+     * The event is fetched in the same query instead of a separate select.
      * @param eventId event id.
      * @return participations in a list.
      */
-    List<PersonParticipation> getPersonParticipationsByEvent_Id(Long eventId);
+    @Query("SELECT p FROM PersonParticipation p JOIN FETCH p.event WHERE p.event.id = :eventId")
+    List<PersonParticipation> getPersonParticipationsByEvent_Id(@Param("eventId") Long eventId);
+
+    /**
+     * Stream all participations of an event in id order with a forward-only cursor.
+     * Must be consumed inside a transaction.
+     * @param eventId event id.
+     * @return stream of participations.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM PersonParticipation p WHERE p.event.id = :eventId ORDER BY p.id")
+    Stream<PersonParticipation> streamPersonParticipationsByEventId(@Param("eventId") Long eventId);
+
+    /**
+     * Stream search records of all participations with a forward-only cursor, without loading the entities.
+     * Must be consumed inside a transaction.
+     * @return stream of search results.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.rik.nullam.dto.SearchResultDto(com.rik.nullam.dto.SearchResultDto$ResultType.PERSON, "
+            + "e.id, e.name, p.id, CONCAT(p.firstName, ' ', p.lastName), p.personalCode) FROM PersonParticipation p JOIN p.event e")
+    Stream<SearchResultDto> streamSearchResults();
+
+    /**
+     * Check if person is registered to event.
+     * @param eventId event id.
+     * @param personalCode personal code.
+     * @return true if registered.
+     */
+    boolean existsByEvent_IdAndPersonalCode(Long eventId, String personalCode);
+
+    /**
+     * Check if person is registered to event with a participation other than given one.
+     * @param eventId event id.
+     * @param personalCode personal code.
+     * @param participationId id of participation to leave out.
+     * @return true if registered.
+     */
+    boolean existsByEvent_IdAndPersonalCodeAndIdNot(Long eventId, String personalCode, Long participationId);
+
+    /**
+     * Find which of given personal codes are registered to event.
+     * @param eventId event id.
+     * @param personalCodes personal codes to look for.
+     * @return registered personal codes.
+     */
+    @Query("SELECT p.personalCode FROM PersonParticipation p "
+            + "WHERE p.event.id = :eventId AND p.personalCode IN :personalCodes")
+    List<String> findRegisteredPersonalCodes(@Param("eventId") Long eventId,
+                                             @Param("personalCodes") Collection<String> personalCodes);
+
+    /**
+     * Stream distinct person participants ever registered, for name suggestions.
+     * Must be consumed inside a transaction.
+     * @return stream of suggestions.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT DISTINCT new com.rik.nullam.dto.ParticipantSuggestionDto(p.firstName, p.lastName, p.personalCode) "
+            + "FROM PersonParticipation p")
+    Stream<ParticipantSuggestionDto> streamPersonSuggestions();
 }
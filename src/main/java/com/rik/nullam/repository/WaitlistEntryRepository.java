@@ -0,0 +1,102 @@
+package com.rik.nullam.repository;
+
+import com.rik.nullam.entity.event.Event;
+import com.rik.nullam.entity.waitlist.WaitlistEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WaitlistEntryRepository extends CrudRepository<WaitlistEntry, Long> {
+    /**
+     * Get first entries in the queue of an event.
+     * @param eventId event id.
+     * @param pageable number of entries to get.
+     * @return entries in queue order.
+     */
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.event.id = :eventId ORDER BY w.id")
+    List<WaitlistEntry> findQueueHead(@Param("eventId") Long eventId, Pageable pageable);
+
+    /**
+     * Check if anyone is waiting for the event.
+     * @param eventId event id.
+     * @return true if queue is not empty.
+     */
+    boolean existsByEvent_Id(Long eventId);
+
+    /**
+     * Count entries ahead of given entry in the queue of an event.
+     * @param eventId event id.
+     * @param id id of the entry.
+     * @return number of entries ahead.
+     */
+    long countByEvent_IdAndIdLessThan(Long eventId, Long id);
+
+    /**
+     * Delete entries with one statement.
+     * @param ids ids of entries.
+     * @return number of deleted entries.
+     */
+    @Modifying
+    @Query("DELETE FROM WaitlistEntry w WHERE w.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * Delete all entries by event.
+     * @param event event.
+     */
+    void deleteAllByEvent(Event event);
+
+    /**
+     * Delete waitlists of given events with one statement.
+     * @param eventIds event ids.
+     * @return number of deleted entries.
+     */
+    @Modifying
+    @Query("DELETE FROM WaitlistEntry w WHERE w.event.id IN :eventIds")
+    int deleteAllByEventIds(@Param("eventIds") Collection<Long> eventIds);
+
+    /**
+     * Check if person is waiting for event.
+     * @param eventId event id.
+     * @param personalCode personal code.
+     * @return true if waiting.
+     */
+    boolean existsByEvent_IdAndPersonalCode(Long eventId, String personalCode);
+
+    /**
+     * Check if company is waiting for event.
+     * @param eventId event id.
+     * @param registryCode registry code.
+     * @return true if waiting.
+     */
+    boolean existsByEvent_IdAndRegistryCode(Long eventId, String registryCode);
+
+    /**
+     * Find which of given personal codes are waiting for event.
+     * @param eventId event id.
+     * @param personalCodes personal codes to look for.
+     * @return waiting personal codes.
+     */
+    @Query("SELECT w.personalCode FROM WaitlistEntry w "
+            + "WHERE w.event.id = :eventId AND w.personalCode IN :personalCodes")
+    List<String> findWaitingPersonalCodes(@Param("eventId") Long eventId,
+                                          @Param("personalCodes") Collection<String> personalCodes);
+
+    /**
+     * Find which of given registry codes are waiting for event.
+     * @param eventId event id.
+     * @param registryCodes registry codes to look for.
+     * @return waiting registry codes.
+     */
+    @Query("SELECT w.registryCode FROM WaitlistEntry w "
+            + "WHERE w.event.id = :eventId AND w.registryCode IN :registryCodes")
+    List<String> findWaitingRegistryCodes(@Param("eventId") Long eventId,
+                                          @Param("registryCodes") Collection<String> registryCodes);
+}
@@ -0,0 +1,282 @@
+package com.rik.nullam.service;
+
+import com.rik.nullam.dto.BulkParticipationDto;
+import com.rik.nullam.dto.BulkParticipationResultDto;
+import com.rik.nullam.dto.CompanyParticipationDto;
+import com.rik.nullam.dto.PersonParticipationDto;
+import com.rik.nullam.dto.ValidationResult;
+import com.rik.nullam.entity.change.ParticipationChange;
+import com.rik.nullam.entity.event.Event;
+import com.rik.nullam.entity.participation.CompanyParticipation;
+import com.rik.nullam.entity.participation.PaymentMethod;
+import com.rik.nullam.entity.participation.PersonParticipation;
+import com.rik.nullam.repository.CompanyParticipationRepository;
+import com.rik.nullam.repository.EventRepository;
+import com.rik.nullam.repository.PersonParticipationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import static com.rik.nullam.service.ValidationResultErrorConstants.EVENT_IN_PAST;
+
+/**
+ * Service to add large numbers of participations in one request.
+ */
+@Service
+public class BulkParticipationService {
+
+    private static final Logger LOGGER = Logger.getLogger(BulkParticipationService.class.getName());
+
+    private final ParticipationValidator participationValidator;
+    private final EventRepository eventRepository;
+    private final CompanyParticipationRepository companyParticipationRepository;
+    private final PersonParticipationRepository personParticipationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SeatReservationEngine seatReservationEngine;
+    private final WaitlistService waitlistService;
+    private final ChangeFeed changeFeed;
+    private final EntityManager entityManager;
+    private final int batchSize;
+
+    /**
+     * Bulk participation service constructor.
+     * @param participationValidator participation validator.
+     * @param eventRepository event repository.
+     * @param companyParticipationRepository company participation repository.
+     * @param personParticipationRepository person participation repository.
+     * @param eventPublisher publisher of event data changes.
+     * @param seatReservationEngine engine that keeps participant counts within event capacity.
+     * @param waitlistService waitlist of full events.
+     * @param changeFeed feed of changes for downstream systems.
+     * @param entityManager entity manager used to flush finished batches.
+     * @param batchSize number of rows written in one JDBC batch.
+     */
+    public BulkParticipationService(ParticipationValidator participationValidator,
+                                    EventRepository eventRepository,
+                                    CompanyParticipationRepository companyParticipationRepository,
+                                    PersonParticipationRepository personParticipationRepository,
+                                    ApplicationEventPublisher eventPublisher,
+                                    SeatReservationEngine seatReservationEngine,
+                                    WaitlistService waitlistService,
+                                    ChangeFeed changeFeed,
+                                    EntityManager entityManager,
+                                    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.participationValidator = participationValidator;
+        this.eventRepository = eventRepository;
+        this.companyParticipationRepository = companyParticipationRepository;
+        this.personParticipationRepository = personParticipationRepository;
+        this.eventPublisher = eventPublisher;
+        this.seatReservationEngine = seatReservationEngine;
+        this.waitlistService = waitlistService;
+        this.changeFeed = changeFeed;
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Validate all participations and save the valid ones.
+     * Each distinct event is looked up once and seats are reserved once per event when all its valid
+     * participations fit. Participations of events that have already started are rejected.
+     * Otherwise participations are admitted in the order they were sent, persons before companies,
+     * while they fit into the free seats, and the rest are put to the end of the waitlist of the event.
+     * If registrations are already waiting for an event, its participations queue behind them and
+     * the queue is promoted into the free seats in the same transaction, like single registrations.
+     *
+     * @param dto participations to add.
+     * @return number of saved and waitlisted participations and validation result of every row.
+     */
+    @Transactional
+    public BulkParticipationResultDto addParticipations(BulkParticipationDto dto) {
+        List<PersonParticipationDto> persons = dto.getPersons() == null ? List.of() : dto.getPersons();
+        List<CompanyParticipationDto> companies = dto.getCompanies() == null ? List.of() : dto.getCompanies();
+
+        Map<Long, Event> events = findEvents(persons, companies);
+        List<ValidationResult> personResults = participationValidator.validatePersons(persons, events.keySet());
+        List<ValidationResult> companyResults = participationValidator.validateCompanies(companies, events.keySet());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < persons.size(); i++) {
+            rejectIfStarted(personResults.get(i), events.get(persons.get(i).getEventId()), now);
+        }
+        for (int i = 0; i < companies.size(); i++) {
+            rejectIfStarted(companyResults.get(i), events.get(companies.get(i).getEventId()), now);
+        }
+
+        Map<Long, List<Registration>> registrations = new LinkedHashMap<>();
+        for (int i = 0; i < persons.size(); i++) {
+            if (personResults.get(i).isValid()) {
+                registrations.computeIfAbsent(persons.get(i).getEventId(), id -> new ArrayList<>())
+                        .add(new Registration(persons.get(i), null, personResults.get(i)));
+            }
+        }
+        for (int i = 0; i < companies.size(); i++) {
+            if (companyResults.get(i).isValid()) {
+                registrations.computeIfAbsent(companies.get(i).getEventId(), id -> new ArrayList<>())
+                        .add(new Registration(null, companies.get(i), companyResults.get(i)));
+            }
+        }
+
+        int waitlistedCount = 0;
+        int promotedCount = 0;
+        Set<Long> changedEvents = new HashSet<>();
+        List<PersonParticipation> personParticipations = new ArrayList<>();
+        List<CompanyParticipation> companyParticipations = new ArrayList<>();
+        for (Map.Entry<Long, List<Registration>> eventRegistrations : registrations.entrySet()) {
+            Event event = events.get(eventRegistrations.getKey());
+            List<Registration> rows = eventRegistrations.getValue();
+            boolean queued = waitlistService.hasQueue(event);
+            int admitted = queued ? 0 : admit(eventRegistrations.getKey(), rows);
+            for (Registration row : rows.subList(0, admitted)) {
+                if (row.person != null) {
+                    personParticipations.add(new PersonParticipation(event,
+                            PaymentMethod.valueOf(row.person.getPaymentMethod()), row.person.getAdditionalInfo(),
+                            row.person.getFirstName(), row.person.getLastName(), row.person.getPersonalCode()));
+                } else {
+                    companyParticipations.add(new CompanyParticipation(event,
+                            PaymentMethod.valueOf(row.company.getPaymentMethod()), row.company.getAdditionalInfo(),
+                            row.company.getCompanyName(), row.company.getRegistryCode(),
+                            row.company.getNumberOfParticipants()));
+                }
+            }
+            for (Registration row : rows.subList(admitted, rows.size())) {
+                row.result.setWaitlistEntryId(row.person != null
+                        ? waitlistService.addPerson(event, row.person)
+                        : waitlistService.addCompany(event, row.company));
+                waitlistedCount++;
+            }
+            int promoted = queued ? waitlistService.promote(event) : 0;
+            promotedCount += promoted;
+            if (admitted > 0 || promoted > 0) {
+                changedEvents.add(eventRegistrations.getKey());
+            }
+        }
+
+        saveInBatches(personParticipations, personParticipationRepository::saveAll);
+        saveInBatches(companyParticipations, companyParticipationRepository::saveAll);
+        personParticipations.forEach(person -> changeFeed.recordParticipationChange(
+                ParticipationChange.ChangeType.PARTICIPATION_ADDED, ParticipantExportService.toExportRow(person)));
+        companyParticipations.forEach(company -> changeFeed.recordParticipationChange(
+                ParticipationChange.ChangeType.PARTICIPATION_ADDED, ParticipantExportService.toExportRow(company)));
+
+        changedEvents.forEach(eventId -> eventPublisher.publishEvent(new EventDataChangedEvent(eventId)));
+
+        int savedCount = personParticipations.size() + companyParticipations.size();
+        LOGGER.info(String.format("Added %1$d participations to %2$d events, %3$d waitlisted, %4$d promoted",
+                savedCount, registrations.size(), waitlistedCount, promotedCount));
+        return new BulkParticipationResultDto(savedCount, waitlistedCount, personResults, companyResults);
+    }
+
+    /**
+     * Reserve seats for the longest leading part of the registrations of an event that fits.
+     * All registrations are reserved at once if they fit, which is the usual case. Otherwise the free seats
+     * are read from the database and the registrations are taken in order until the first one that does not fit.
+     * @param eventId id of event.
+     * @param rows valid registrations of the event in the order they were sent.
+     * @return number of leading registrations that got seats.
+     */
+    private int admit(Long eventId, List<Registration> rows) {
+        int total = rows.stream().mapToInt(Registration::seats).sum();
+        if (seatReservationEngine.reserve(eventId, total)) {
+            return rows.size();
+        }
+        int free = eventRepository.findFreeSeats(eventId).orElse(0);
+        int admitted = 0;
+        int seats = 0;
+        while (admitted < rows.size() && seats + rows.get(admitted).seats() <= free) {
+            seats += rows.get(admitted++).seats();
+        }
+        if (admitted == 0 || seatReservationEngine.reserve(eventId, seats)) {
+            return admitted;
+        }
+        // Seats were taken by a concurrent registration since they were read
+        return 0;
+    }
+
+    /**
+     * Add an error to a valid participation of an event that has already started.
+     * @param result validation result of participation.
+     * @param event event of participation, null if it does not exist.
+     * @param now current time.
+     */
+    private void rejectIfStarted(ValidationResult result, Event event, LocalDateTime now) {
+        if (result.isValid() && event != null && event.getTime().isBefore(now)) {
+            result.addError(EVENT_IN_PAST);
+        }
+    }
+
+    /**
+     * Load all events referenced by the participations with one query.
+     * @param persons person participations.
+     * @param companies company participations.
+     * @return events by id.
+     */
+    private Map<Long, Event> findEvents(List<PersonParticipationDto> persons,
+                                        List<CompanyParticipationDto> companies) {
+        Set<Long> eventIds = new HashSet<>();
+        persons.forEach(person -> eventIds.add(person.getEventId()));
+        companies.forEach(company -> eventIds.add(company.getEventId()));
+        eventIds.remove(null);
+
+        Map<Long, Event> events = new HashMap<>();
+        if (!eventIds.isEmpty()) {
+            eventRepository.findAllById(eventIds).forEach(event -> events.put(event.getId(), event));
+        }
+        return events;
+    }
+
+    /**
+     * Save entities a batch at a time, flushing each batch as one JDBC batch and
+     * detaching it so the persistence context does not grow with the import.
+     * @param entities entities to save.
+     * @param saver saves a batch of entities.
+     */
+    private <T> void saveInBatches(List<T> entities, Consumer<List<T>> saver) {
+        for (int from = 0; from < entities.size(); from += batchSize) {
+            saver.accept(entities.subList(from, Math.min(from + batchSize, entities.size())));
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+
+    /**
+     * Valid person or company registration with its validation result.
+     */
+    private static final class Registration {
+        private final PersonParticipationDto person;
+        private final CompanyParticipationDto company;
+        private final ValidationResult result;
+
+        /**
+         * Registration constructor.
+         * @param person person registration, null for companies.
+         * @param company company registration, null for persons.
+         * @param result validation result of the row.
+         */
+        private Registration(PersonParticipationDto person, CompanyParticipationDto company,
+                             ValidationResult result) {
+            this.person = person;
+            this.company = company;
+            this.result = result;
+        }
+
+        /**
+         * Get number of seats the registration needs.
+         * @return seats.
+         */
+        private int seats() {
+            return person != null ? 1 : company.getNumberOfParticipants();
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.rik.nullam.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Asynchronous log of business events such as created events and added participants.
+ * The request thread only puts the event name and its fields into a bounded ring buffer,
+ * a background thread formats them into JSON lines and writes them to the log.
+ * When the buffer is full, events are dropped or the request thread waits, depending on the policy.
+ */
+@Component
+public class BusinessEventLog {
+
+    private static final Logger LOGGER = Logger.getLogger(BusinessEventLog.class.getName());
+    private static final int DRAIN_BATCH_SIZE = 256;
+
+    private final BlockingQueue<Entry> buffer;
+    private final OverflowPolicy overflowPolicy;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    /**
+     * What to do with an event when the buffer is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Drop the event and count it, the request is not slowed down.
+         */
+        DROP,
+        /**
+         * Wait until the writer has made room, no event is lost.
+         */
+        BLOCK
+    }
+
+    /**
+     * Business event log constructor, starts the writer thread.
+     * @param capacity number of events the buffer holds.
+     * @param overflowPolicy what to do when the buffer is full.
+     */
+    public BusinessEventLog(@Value("${nullam.business-log.capacity:8192}") int capacity,
+                            @Value("${nullam.business-log.overflow-policy:DROP}") OverflowPolicy overflowPolicy) {
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.writer = new Thread(this::writeEntries, "business-event-log");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Log a business event. Fields are given as name and value pairs and formatted on the writer thread.
+     * @param event name of the event, e.g. participation_added.
+     * @param fields names and values of fields, alternating.
+     */
+    public void log(String event, Object... fields) {
+        if (!LOGGER.isLoggable(Level.INFO)) {
+            return;
+        }
+        Entry entry = new Entry(System.currentTimeMillis(), event, fields);
+        if (overflowPolicy == OverflowPolicy.DROP) {
+            if (!buffer.offer(entry)) {
+                dropped.incrementAndGet();
+            }
+            return;
+        }
+        try {
+            buffer.put(entry);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Get number of events dropped because the buffer was full.
+     * @return number of dropped events.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Write remaining events and stop the writer thread.
+     * @throws InterruptedException if interrupted while waiting for the writer.
+     */
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Take events from the buffer in batches and write them until closed, then write what is left.
+     */
+    private void writeEntries() {
+        List<Entry> batch = new ArrayList<>(DRAIN_BATCH_SIZE);
+        long reportedDropped = 0;
+        while (running) {
+            try {
+                batch.add(buffer.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            buffer.drainTo(batch, DRAIN_BATCH_SIZE - 1);
+            write(batch);
+            long droppedNow = dropped.get();
+            if (droppedNow != reportedDropped) {
+                LOGGER.warning(String.format("Business event buffer was full, %1$d events dropped in total",
+                        droppedNow));
+                reportedDropped = droppedNow;
+            }
+        }
+        buffer.drainTo(batch);
+        write(batch);
+    }
+
+    /**
+     * Format and write a batch of events.
+     * @param batch events to write, cleared afterwards.
+     */
+    private void write(List<Entry> batch) {
+        for (Entry entry : batch) {
+            LOGGER.info(entry.format());
+        }
+        batch.clear();
+    }
+
+    /**
+     * Business event waiting to be written.
+     */
+    private static final class Entry {
+        private final long timestamp;
+        private final String event;
+        private final Object[] fields;
+
+        /**
+         * Entry constructor.
+         * @param timestamp time of the event in milliseconds.
+         * @param event name of the event.
+         * @param fields names and values of fields, alternating.
+         */
+        private Entry(long timestamp, String event, Object[] fields) {
+            this.timestamp = timestamp;
+            this.event = event;
+            this.fields = fields;
+        }
+
+        /**
+         * Format the event as a JSON object on one line.
+         * @return JSON line.
+         */
+        private String format() {
+            StringBuilder json = new StringBuilder(64 + fields.length * 16);
+            json.append("{\"timestamp\":").append(timestamp).append(",\"event\":");
+            appendValue(json, event);
+            for (int i = 0; i + 1 < fields.length; i += 2) {
+                json.append(',');
+                appendValue(json, String.valueOf(fields[i]));
+                json.append(':');
+                appendValue(json, fields[i + 1]);
+            }
+            return json.append('}').toString();
+        }
+
+        /**
+         * Append a value, numbers and booleans as they are and everything else as an escaped string.
+         * @param json JSON being built.
+         * @param value value to append.
+         */
+        private static void appendValue(StringBuilder json, Object value) {
+            if (value == null || value instanceof Number || value instanceof Boolean) {
+                json.append(value);
+                return;
+            }
+            json.append('"');
+            String text = value.toString();
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '"' -> json.append("\\\"");
+                    case '\\' -> json.append("\\\\");
+                    case '\n' -> json.append("\\n");
+                    case '\r' -> json.append("\\r");
+                    case '\t' -> json.append("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            json.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            json.append(c);
+                        }
+                    }
+                }
+            }
+            json.append('"');
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.rik.nullam.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rik.nullam.dto.ParticipationChangeBatchDto;
+import com.rik.nullam.dto.ParticipationChangeDto;
+import com.rik.nullam.dto.ParticipationExportDto;
+import com.rik.nullam.dto.ParticipationSummaryDto;
+import com.rik.nullam.entity.change.ParticipationChange;
+import com.rik.nullam.repository.ParticipationChangeRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Feed of event and participation changes for downstream systems. Mutators record their changes in their
+ * own transaction; just before commit the changes of the transaction get consecutive sequence numbers and
+ * are written to the outbox table, so a change is in the feed if and only if it was committed. Consumers
+ * read the feed in batches after the last sequence number they have seen, optionally waiting for new changes.
+ */
+@Service
+public class ChangeFeed {
+
+    private static final int MAXIMUM_BATCH_SIZE = 1000;
+
+    private final ParticipationChangeRepository participationChangeRepository;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final long maximumWaitMs;
+
+    private final AtomicLong lastCommitted = new AtomicLong();
+    private final Set<CompletableFuture<Void>> waiters = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Change feed constructor.
+     * @param participationChangeRepository participation change repository.
+     * @param objectMapper mapper used for the participations in the feed.
+     * @param entityManager entity manager used to insert changes.
+     * @param maximumWaitMs maximum time a consumer may wait for new changes.
+     */
+    public ChangeFeed(ParticipationChangeRepository participationChangeRepository, ObjectMapper objectMapper,
+                      EntityManager entityManager,
+                      @Value("${nullam.changes.maximum-wait-ms:25000}") long maximumWaitMs) {
+        this.participationChangeRepository = participationChangeRepository;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.maximumWaitMs = maximumWaitMs;
+    }
+
+    /**
+     * Record creation or deletion of an event.
+     * @param changeType type of change.
+     * @param eventId id of event.
+     */
+    public void recordEventChange(ParticipationChange.ChangeType changeType, Long eventId) {
+        record(new PendingChange(changeType, eventId, null, null, null));
+    }
+
+    /**
+     * Record an added or changed participation with its data after the change.
+     * @param changeType type of change.
+     * @param participation participation after the change.
+     */
+    public void recordParticipationChange(ParticipationChange.ChangeType changeType,
+                                          ParticipationExportDto participation) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(participation);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        record(new PendingChange(changeType, participation.getEventId(), participation.getType(),
+                participation.getParticipationId(), json));
+    }
+
+    /**
+     * Record a removed participation.
+     * @param eventId id of event.
+     * @param type type of participation.
+     * @param participationId id of participation.
+     */
+    public void recordRemoval(Long eventId, ParticipationSummaryDto.ParticipationType type, Long participationId) {
+        record(new PendingChange(ParticipationChange.ChangeType.PARTICIPATION_REMOVED, eventId, type,
+                participationId, null));
+    }
+
+    /**
+     * Get changes following a sequence number.
+     * @param since last sequence number already received, 0 to start from the beginning.
+     * @param limit maximum number of changes.
+     * @return changes in sequence order.
+     */
+    public ParticipationChangeBatchDto getChanges(long since, int limit) {
+        int size = Math.max(1, Math.min(limit, MAXIMUM_BATCH_SIZE));
+        List<ParticipationChange> changes = participationChangeRepository.findChangesAfter(since,
+                PageRequest.of(0, size + 1));
+        List<ParticipationChangeDto> batch = changes.stream().limit(size).map(this::toDto).toList();
+        long nextSince = batch.isEmpty() ? since : batch.get(batch.size() - 1).getSequenceNumber();
+        return new ParticipationChangeBatchDto(batch, nextSince, changes.size() > size);
+    }
+
+    /**
+     * Get changes following a sequence number, waiting for the next commit if there are none yet.
+     * No thread is held while waiting.
+     * @param since last sequence number already received, 0 to start from the beginning.
+     * @param limit maximum number of changes.
+     * @param waitMs how long to wait for changes, limited by the maximum wait.
+     * @return future of changes in sequence order, empty if none were committed in time.
+     */
+    public CompletableFuture<ParticipationChangeBatchDto> awaitChanges(long since, int limit, long waitMs) {
+        ParticipationChangeBatchDto batch = getChanges(since, limit);
+        if (!batch.getChanges().isEmpty() || waitMs <= 0) {
+            return CompletableFuture.completedFuture(batch);
+        }
+        CompletableFuture<Void> commit = new CompletableFuture<>();
+        waiters.add(commit);
+        // A commit between the read above and registering the waiter would not have signalled it
+        if (lastCommitted.get() > since) {
+            commit.complete(null);
+        }
+        return commit.completeOnTimeout(null, Math.min(waitMs, maximumWaitMs), TimeUnit.MILLISECONDS)
+                .whenComplete((result, e) -> waiters.remove(commit))
+                .thenApplyAsync(ignored -> getChanges(since, limit));
+    }
+
+    /**
+     * Add a change to the changes of the current transaction, written just before it commits.
+     * @param change change.
+     * @throws IllegalStateException if there is no transaction, as the change would not be atomic with the mutation.
+     */
+    private void record(PendingChange change) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Changes can only be recorded in a transaction");
+        }
+        TransactionChanges changes = (TransactionChanges) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            changes = new TransactionChanges();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(changes);
+        }
+        changes.changes.add(change);
+    }
+
+    /**
+     * Number and insert changes. Taking the numbers locks the sequence counter until commit, which is why
+     * it happens as late as possible: pending entity changes of the transaction are flushed first,
+     * so their statements do not run while the counter is held.
+     * @param changes changes in the order they were recorded.
+     * @return last sequence number taken.
+     */
+    private long write(List<PendingChange> changes) {
+        entityManager.flush();
+        participationChangeRepository.advanceSequence(changes.size());
+        long last = participationChangeRepository.findLastSequenceNumber();
+        long sequenceNumber = last - changes.size();
+        LocalDateTime now = LocalDateTime.now();
+        for (PendingChange change : changes) {
+            entityManager.persist(new ParticipationChange(++sequenceNumber, change.changeType, change.eventId,
+                    change.participationType, change.participationId, change.participation, now));
+        }
+        return last;
+    }
+
+    /**
+     * Wake consumers waiting for changes after a commit.
+     * @param lastSequenceNumber last sequence number of the commit.
+     */
+    private void committed(long lastSequenceNumber) {
+        lastCommitted.accumulateAndGet(lastSequenceNumber, Math::max);
+        waiters.forEach(waiter -> waiter.complete(null));
+    }
+
+    /**
+     * Convert a stored change to dto.
+     * @param change stored change.
+     * @return change dto.
+     */
+    private ParticipationChangeDto toDto(ParticipationChange change) {
+        ParticipationExportDto participation = null;
+        if (change.getParticipation() != null) {
+            try {
+                participation = objectMapper.readValue(change.getParticipation(), ParticipationExportDto.class);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return new ParticipationChangeDto(change.getSequenceNumber(), change.getChangeType(), change.getEventId(),
+                change.getParticipationType(), change.getParticipationId(), participation, change.getChangedAt());
+    }
+
+    /**
+     * Changes recorded in one transaction, written before and announced after its commit.
+     */
+    private final class TransactionChanges implements TransactionSynchronization {
+        private final List<PendingChange> changes = new ArrayList<>();
+        private long lastSequenceNumber;
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            lastSequenceNumber = write(changes);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ChangeFeed.this);
+            if (status == STATUS_COMMITTED) {
+                committed(lastSequenceNumber);
+            }
+        }
+    }
+
+    /**
+     * Change waiting for its transaction to commit.
+     */
+    private static final class PendingChange {
+        private final ParticipationChange.ChangeType changeType;
+        private final Long eventId;
+        private final ParticipationSummaryDto.ParticipationType participationType;
+        private final Long participationId;
+        private final String participation;
+
+        /**
+         * Pending change constructor.
+         * @param changeType type of change.
+         * @param eventId id of event.
+         * @param participationType type of participation, null for changes of the event.
+         * @param participationId id of participation, null for changes of the event.
+         * @param participation participation after the change as JSON, null if there is none.
+         */
+        private PendingChange(ParticipationChange.ChangeType changeType, Long eventId,
+                              ParticipationSummaryDto.ParticipationType participationType, Long participationId,
+                              String participation) {
+            this.changeType = changeType;
+            this.eventId = eventId;
+            this.participationType = participationType;
+            this.participationId = participationId;
+            this.participation = participation;
+        }
+    }
+}
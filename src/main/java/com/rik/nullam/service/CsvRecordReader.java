@@ -0,0 +1,95 @@
+package com.rik.nullam.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads comma separated records one at a time. Supports quoted fields with commas,
+ * doubled quotes and line breaks. Only the current record is held in memory.
+ */
+public class CsvRecordReader {
+
+    private final Reader reader;
+    private final int maximumRecordLength;
+    private int pushedBack = -1;
+
+    /**
+     * CSV record reader constructor.
+     * @param reader reader to read from, should be buffered.
+     * @param maximumRecordLength maximum number of characters in a record.
+     */
+    public CsvRecordReader(Reader reader, int maximumRecordLength) {
+        this.reader = reader;
+        this.maximumRecordLength = maximumRecordLength;
+    }
+
+    /**
+     * Read the next record.
+     * @return fields of the record, or null at the end of input.
+     * @throws IOException if reading fails or the record is longer than allowed.
+     */
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int length = 0;
+        while (true) {
+            if (++length > maximumRecordLength) {
+                throw new IOException(String.format("CSV record is longer than %1$d characters", maximumRecordLength));
+            }
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("CSV input ends inside a quoted field");
+                } else if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        pushedBack = next;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                break;
+            } else if (c == '\r') {
+                int next = read();
+                if (next != '\n') {
+                    pushedBack = next;
+                }
+                break;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Read next character, taking a pushed back character first.
+     * @return character or -1 at the end of input.
+     * @throws IOException if reading fails.
+     */
+    private int read() throws IOException {
+        if (pushedBack != -1) {
+            int c = pushedBack;
+            pushedBack = -1;
+            return c;
+        }
+        return reader.read();
+    }
+}
@@ -0,0 +1,240 @@
+package com.rik.nullam.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rik.nullam.dto.EventSummaryDto;
+import com.rik.nullam.dto.ParticipationExportDto;
+import com.rik.nullam.entity.event.ArchivedEvent;
+import com.rik.nullam.entity.event.Event;
+import com.rik.nullam.repository.ArchivedEventRepository;
+import com.rik.nullam.repository.CompanyParticipationRepository;
+import com.rik.nullam.repository.EventRepository;
+import com.rik.nullam.repository.PersonParticipationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Archive of old events. Events older than the archive age are periodically moved, oldest first, out of the
+ * event and participation tables into the archived event table, with their participations as one gzipped
+ * JSON document. As the oldest events are moved first, every archived event comes before every remaining
+ * event in time order, so past listings read the remaining events and continue into the archive.
+ */
+@Service
+public class EventArchive {
+
+    private static final Logger LOGGER = Logger.getLogger(EventArchive.class.getName());
+    private static final TypeReference<List<ParticipationExportDto>> PARTICIPATIONS = new TypeReference<>() {
+    };
+
+    private final EventRepository eventRepository;
+    private final ArchivedEventRepository archivedEventRepository;
+    private final PersonParticipationRepository personParticipationRepository;
+    private final CompanyParticipationRepository companyParticipationRepository;
+    private final WaitlistService waitlistService;
+    private final SeatReservationEngine seatReservationEngine;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final int ageDays;
+    private final int batchSize;
+
+    /**
+     * Event archive constructor.
+     * @param eventRepository event repository.
+     * @param archivedEventRepository archived event repository.
+     * @param personParticipationRepository person participation repository.
+     * @param companyParticipationRepository company participation repository.
+     * @param waitlistService waitlist of full events.
+     * @param seatReservationEngine engine that keeps participant counts within event capacity.
+     * @param eventPublisher publisher of event data changes.
+     * @param objectMapper mapper used for the archived participations.
+     * @param entityManager entity manager used to insert archived events.
+     * @param ageDays age in days after which an event is archived.
+     * @param batchSize maximum number of events archived in one run.
+     */
+    public EventArchive(EventRepository eventRepository, ArchivedEventRepository archivedEventRepository,
+                        PersonParticipationRepository personParticipationRepository,
+                        CompanyParticipationRepository companyParticipationRepository,
+                        WaitlistService waitlistService, SeatReservationEngine seatReservationEngine,
+                        ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper,
+                        EntityManager entityManager,
+                        @Value("${nullam.archive.age-days:365}") int ageDays,
+                        @Value("${nullam.archive.batch-size:100}") int batchSize) {
+        this.eventRepository = eventRepository;
+        this.archivedEventRepository = archivedEventRepository;
+        this.personParticipationRepository = personParticipationRepository;
+        this.companyParticipationRepository = companyParticipationRepository;
+        this.waitlistService = waitlistService;
+        this.seatReservationEngine = seatReservationEngine;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.ageDays = ageDays;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Move the oldest events past the archive age into the archive, a batch at a time.
+     * Participations and waitlists of the batch are read and deleted with one statement each.
+     *
+     * @return number of archived events.
+     */
+    @Scheduled(initialDelayString = "${nullam.archive.initial-delay-ms:300000}",
+            fixedDelayString = "${nullam.archive.interval-ms:600000}")
+    @Transactional
+    public int archive() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Event> events = eventRepository.findOldestEventsBefore(now.minusDays(ageDays),
+                PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        List<Long> eventIds = events.stream().map(Event::getId).toList();
+        Map<Long, List<ParticipationExportDto>> participations = new HashMap<>();
+        personParticipationRepository.findAllByEventIds(eventIds).forEach(person -> participations
+                .computeIfAbsent(person.getEvent().getId(), id -> new ArrayList<>())
+                .add(ParticipantExportService.toExportRow(person)));
+        companyParticipationRepository.findAllByEventIds(eventIds).forEach(company -> participations
+                .computeIfAbsent(company.getEvent().getId(), id -> new ArrayList<>())
+                .add(ParticipantExportService.toExportRow(company)));
+
+        for (Event event : events) {
+            entityManager.persist(new ArchivedEvent(event,
+                    compress(participations.getOrDefault(event.getId(), List.of())), now));
+        }
+        personParticipationRepository.deleteAllByEventIds(eventIds);
+        companyParticipationRepository.deleteAllByEventIds(eventIds);
+        waitlistService.deleteAllByEventIds(eventIds);
+        eventRepository.deleteAllByIds(eventIds);
+        for (Long eventId : eventIds) {
+            seatReservationEngine.forget(eventId);
+            eventPublisher.publishEvent(new EventDataChangedEvent(eventId));
+        }
+        LOGGER.info(String.format("Archived %1$d events with %2$d participations",
+                events.size(), participations.values().stream().mapToInt(List::size).sum()));
+        return events.size();
+    }
+
+    /**
+     * Find summary of an archived event.
+     * @param eventId id of event.
+     * @return summary, empty if event is not archived.
+     */
+    public Optional<EventSummaryDto> findSummary(Long eventId) {
+        return archivedEventRepository.findEventSummaryById(eventId);
+    }
+
+    /**
+     * Find summaries of all archived events, oldest first.
+     * @return summaries in a list.
+     */
+    public List<EventSummaryDto> findSummaries() {
+        return archivedEventRepository.findEventSummaries();
+    }
+
+    /**
+     * Find summaries of archived events, most recent first, skipping the given number of events.
+     * @param offset number of events to skip.
+     * @param limit maximum number of events.
+     * @return summaries in a list.
+     */
+    public List<EventSummaryDto> findSummaries(long offset, int limit) {
+        return archivedEventRepository.findEventSummariesMostRecentFirst(new OffsetPageRequest(offset, limit));
+    }
+
+    /**
+     * Find summaries of archived events following a cursor, most recent first.
+     * @param cursorTime time of the last event already received.
+     * @param cursorId id of the last event already received.
+     * @param limit maximum number of events.
+     * @return summaries in a list.
+     */
+    public List<EventSummaryDto> findSummariesBefore(LocalDateTime cursorTime, Long cursorId, int limit) {
+        return archivedEventRepository.findEventSummariesBeforeCursor(cursorTime, cursorId, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Count archived events.
+     * @return number of archived events.
+     */
+    public long count() {
+        return archivedEventRepository.count();
+    }
+
+    /**
+     * Find participations of an archived event.
+     * @param eventId id of event.
+     * @return participations, persons first, empty if event is not archived.
+     */
+    public Optional<List<ParticipationExportDto>> findParticipations(Long eventId) {
+        return archivedEventRepository.findParticipationsById(eventId).map(this::decompress);
+    }
+
+    /**
+     * Serialize participations to gzipped JSON.
+     * @param participations participations.
+     * @return compressed document.
+     */
+    private byte[] compress(List<ParticipationExportDto> participations) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(compressed)) {
+            objectMapper.writeValue(out, participations);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Read participations from gzipped JSON.
+     * @param document compressed document.
+     * @return participations.
+     */
+    private List<ParticipationExportDto> decompress(byte[] document) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(document))) {
+            return objectMapper.readValue(in, PARTICIPATIONS);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Page request starting at any offset. Past event pages continue into the archive where the events of the
+     * event table end, which is rarely a multiple of the page size.
+     */
+    private static final class OffsetPageRequest extends PageRequest {
+        private final long offset;
+
+        private OffsetPageRequest(long offset, int limit) {
+            super((int) (offset / limit), limit, Sort.unsorted());
+            this.offset = offset;
+        }
+
+        @Override
+        public long getOffset() {
+            return offset;
+        }
+    }
+}
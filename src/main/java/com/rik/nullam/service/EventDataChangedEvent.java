@@ -0,0 +1,53 @@
+package com.rik.nullam.service;
+
+import com.rik.nullam.dto.ParticipationSummaryDto;
+import lombok.Getter;
+
+/**
+ * Published by the service layer whenever an event or its participations change.
+ * A change of a single participation names that participation, other changes only name the event.
+ */
+@Getter
+public class EventDataChangedEvent {
+    /**
+     * ID of the changed event.
+     */
+    private final Long eventId;
+    /**
+     * Type of the changed participation, null if the change is not limited to one participation.
+     */
+    private final ParticipationSummaryDto.ParticipationType participationType;
+    /**
+     * ID of the changed participation, null if the change is not limited to one participation.
+     */
+    private final Long participationId;
+
+    /**
+     * Constructor for event data changed event.
+     * @param eventId id of the changed event.
+     */
+    public EventDataChangedEvent(Long eventId) {
+        this(eventId, null, null);
+    }
+
+    /**
+     * Constructor for a change of a single participation.
+     * @param eventId id of the event of the participation.
+     * @param participationType type of the changed participation.
+     * @param participationId id of the changed participation.
+     */
+    public EventDataChangedEvent(Long eventId, ParticipationSummaryDto.ParticipationType participationType,
+                                 Long participationId) {
+        this.eventId = eventId;
+        this.participationType = participationType;
+        this.participationId = participationId;
+    }
+
+    /**
+     * Check if only one participation of the event changed.
+     * @return true if the change names a participation.
+     */
+    public boolean isParticipationChange() {
+        return participationId != null;
+    }
+}
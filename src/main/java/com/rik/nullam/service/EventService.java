@@ -1,11 +1,17 @@
 package com.rik.nullam.service;
 
+import com.rik.nullam.dto.CacheStatsDto;
 import com.rik.nullam.dto.CompanyParticipationDto;
 import com.rik.nullam.dto.EventDto;
+import com.rik.nullam.dto.EventSummaryCursorDto;
 import com.rik.nullam.dto.EventSummaryDto;
+import com.rik.nullam.dto.EventSummaryPageDto;
+import com.rik.nullam.dto.ParticipationExportDto;
 import com.rik.nullam.dto.ParticipationSummaryDto;
 import com.rik.nullam.dto.PersonParticipationDto;
 import com.rik.nullam.dto.ValidationResult;
+import com.rik.nullam.dto.WaitlistPositionDto;
+import com.rik.nullam.entity.change.ParticipationChange;
 import com.rik.nullam.entity.event.Event;
 
 import com.rik.nullam.entity.participation.CompanyParticipation;
@@ -14,7 +20,11 @@ import com.rik.nullam.entity.participation.PersonParticipation;
 import com.rik.nullam.repository.CompanyParticipationRepository;
 import com.rik.nullam.repository.EventRepository;
 import com.rik.nullam.repository.PersonParticipationRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -23,7 +33,10 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
+import static com.rik.nullam.service.ValidationResultErrorConstants.EVENT_FULL;
+import static com.rik.nullam.service.ValidationResultErrorConstants.EVENT_IN_PAST;
 import static com.rik.nullam.service.ValidationResultErrorConstants.FAILED_TO_SAVE;
 import static com.rik.nullam.service.ValidationResultErrorConstants.PARTICIPATION_NOT_FOUND;
 
@@ -31,9 +44,11 @@ import static com.rik.nullam.service.ValidationResultErrorConstants.PARTICIPATIO
  * Event service class to handle adding and removing events and participants.
  */
 @Service
+@Timed(value = "nullam.event.service", histogram = true, percentiles = {0.5, 0.95, 0.99})
 public class EventService {
 
     private static final java.util.logging.Logger LOGGER = Logger.getLogger(EventService.class.getName());
+    private static final int MAXIMUM_PAGE_SIZE = 100;
 
     private final EventValidator eventValidator;
     private final ParticipationValidator participationValidator;
@@ -42,6 +57,14 @@ public class EventService {
     private final CompanyParticipationRepository companyParticipationRepository;
     private final PersonParticipationRepository personParticipationRepository;
 
+    private final EventSummaryCache eventSummaryCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SeatReservationEngine seatReservationEngine;
+    private final WaitlistService waitlistService;
+    private final BusinessEventLog businessEventLog;
+    private final EventArchive eventArchive;
+    private final ChangeFeed changeFeed;
+
     /**
      * Event service constructor.
      * @param eventValidator event validator.
@@ -49,18 +72,39 @@ public class EventService {
      * @param eventRepository event repository.
      * @param companyParticipationRepository company participation repository.
      * @param personParticipationRepository person participation repository.
+     * @param eventSummaryCache cache of event summaries and participant lists.
+     * @param eventPublisher publisher of event data changes.
+     * @param seatReservationEngine engine that keeps participant counts within event capacity.
+     * @param waitlistService waitlist of full events.
+     * @param businessEventLog asynchronous log of created and deleted events and participations.
+     * @param eventArchive archive of old events.
+     * @param changeFeed feed of changes for downstream systems.
      */
     public EventService(EventValidator eventValidator,
                         ParticipationValidator participationValidator,
                         EventRepository eventRepository,
                         CompanyParticipationRepository companyParticipationRepository,
-                        PersonParticipationRepository personParticipationRepository
+                        PersonParticipationRepository personParticipationRepository,
+                        EventSummaryCache eventSummaryCache,
+                        ApplicationEventPublisher eventPublisher,
+                        SeatReservationEngine seatReservationEngine,
+                        WaitlistService waitlistService,
+                        BusinessEventLog businessEventLog,
+                        EventArchive eventArchive,
+                        ChangeFeed changeFeed
     ) {
         this.eventValidator = eventValidator;
         this.participationValidator = participationValidator;
         this.eventRepository = eventRepository;
         this.companyParticipationRepository = companyParticipationRepository;
         this.personParticipationRepository = personParticipationRepository;
+        this.eventSummaryCache = eventSummaryCache;
+        this.eventPublisher = eventPublisher;
+        this.seatReservationEngine = seatReservationEngine;
+        this.waitlistService = waitlistService;
+        this.businessEventLog = businessEventLog;
+        this.eventArchive = eventArchive;
+        this.changeFeed = changeFeed;
     }
 
     /**
@@ -77,11 +121,13 @@ public class EventService {
             return validationResult;
         }
         Event event = new Event(eventDto.getName(), eventDto.getTime(),
-                eventDto.getLocation(), eventDto.getAdditionalInfo());
+                eventDto.getLocation(), eventDto.getAdditionalInfo(), eventDto.getCapacity());
         try {
             eventRepository.save(event);
-            LOGGER.info(String.format("Event successfully created: %1$s at %2$s",
-                    eventDto.getName(), eventDto.getLocation()));
+            eventPublisher.publishEvent(new EventDataChangedEvent(event.getId()));
+            changeFeed.recordEventChange(ParticipationChange.ChangeType.EVENT_CREATED, event.getId());
+            businessEventLog.log("event_created", "eventId", event.getId(),
+                    "name", eventDto.getName(), "location", eventDto.getLocation());
         } catch (Exception e) {
             LOGGER.warning(e.getMessage());
             validationResult.addError(FAILED_TO_SAVE);
@@ -108,8 +154,12 @@ public class EventService {
         try {
             companyParticipationRepository.deleteAllByEvent(event);
             personParticipationRepository.deleteAllByEvent(event);
+            waitlistService.deleteAllByEvent(event);
             eventRepository.deleteById(id);
-            LOGGER.info(String.format("Deleted event: %1$s", event.getName()));
+            seatReservationEngine.forget(id);
+            eventPublisher.publishEvent(new EventDataChangedEvent(id));
+            changeFeed.recordEventChange(ParticipationChange.ChangeType.EVENT_DELETED, id);
+            businessEventLog.log("event_deleted", "eventId", id, "name", event.getName());
         } catch (Exception e) {
             LOGGER.warning(e.getMessage());
             return false;
@@ -118,18 +168,42 @@ public class EventService {
     }
 
     /**
-     * Get event summary by event id;
+     * Get event summary by event id, also of an archived event.
      * @param eventId id of event.
      * @return event summary.
      */
     public EventSummaryDto getEventSummaryById(Long eventId) {
-        Optional<Event> optionalEvent = eventRepository.findEventById(eventId);
-        if (optionalEvent.isEmpty()) {
-            return null;
-        }
-        Event event = optionalEvent.get();
-        return new EventSummaryDto(eventId, event.getName(), event.getTime(), event.getLocation(),
-                calculateNumberOfParticipants(eventId));
+        return eventSummaryCache.getSummary(eventId, id -> eventRepository.findEventSummaryById(id)
+                .or(() -> eventArchive.findSummary(id)).orElse(null));
+    }
+
+    /**
+     * Get version of an event, changed by every write to the event or its participations.
+     * Lets callers tell if cached event data is still current without loading it.
+     *
+     * @param eventId id of event.
+     * @return version, null if event does not exist.
+     */
+    public Long getEventVersion(Long eventId) {
+        return eventRepository.findVersionById(eventId).orElse(null);
+    }
+
+    /**
+     * Get version of the list of future events, changed when an event is added, removed or changed.
+     *
+     * @return version of the list.
+     */
+    public String getFutureEventsVersion() {
+        return eventRepository.findListVersionByTimeAfter(LocalDateTime.now()).toTag();
+    }
+
+    /**
+     * Get version of the list of past events, changed when an event is added, removed or changed.
+     *
+     * @return version of the list.
+     */
+    public String getPastEventsVersion() {
+        return eventRepository.findListVersionByTimeBefore(LocalDateTime.now()).toTag();
     }
 
     /**
@@ -138,62 +212,181 @@ public class EventService {
      * @return summaries in a list.
      */
     public List<EventSummaryDto> getFutureEventsSummaries() {
-        List<Event> futureEvents = eventRepository.findEventsByTimeAfter(LocalDateTime.now());
-        return createEventSummariesList(futureEvents);
+        return eventRepository.findEventSummariesByTimeAfter(LocalDateTime.now());
     }
 
     /**
      * Get summaries for all past events including name, time, location and number of participants.
+     * Archived events come first, as they are older than the rest.
      *
      * @return summaries in a list.
      */
     public List<EventSummaryDto> getPastEventsSummaries() {
-        List<Event> pastEvents = eventRepository.findEventsByTimeBefore(LocalDateTime.now());
-        return createEventSummariesList(pastEvents);
+        return Stream.concat(eventArchive.findSummaries().stream(),
+                eventRepository.findEventSummariesByTimeBefore(LocalDateTime.now()).stream()).toList();
     }
 
     /**
-     * Create a list of summaries from a list of events.
+     * Get a page of future event summaries, earliest first.
      *
-     * @param events List of events.
-     * @return summaries in a list.
+     * @param page index of the page, starting from 0.
+     * @param size number of events on a page.
+     * @return page of summaries.
+     */
+    public EventSummaryPageDto getFutureEventsSummaries(int page, int size) {
+        return createEventSummaryPage(eventRepository.findEventSummariesByTimeAfter(
+                LocalDateTime.now(), createPageRequest(page, size)));
+    }
+
+    /**
+     * Get a page of past event summaries, most recent first.
+     * Pages past the events still in the event table continue into the archive.
+     *
+     * @param page index of the page, starting from 0.
+     * @param size number of events on a page.
+     * @return page of summaries.
      */
-    private List<EventSummaryDto> createEventSummariesList(List<Event> events) {
-        List<EventSummaryDto> result = new ArrayList<>();
-        for (Event event : events) {
-            result.add(new EventSummaryDto(event.getId(), event.getName(), event.getTime(), event.getLocation(),
-                    calculateNumberOfParticipants(event.getId())));
+    public EventSummaryPageDto getPastEventsSummaries(int page, int size) {
+        PageRequest pageRequest = createPageRequest(page, size);
+        Page<EventSummaryDto> recent = eventRepository.findEventSummariesByTimeBefore(LocalDateTime.now(), pageRequest);
+        List<EventSummaryDto> events = recent.getContent();
+        if (events.size() < pageRequest.getPageSize()) {
+            long archiveOffset = Math.max(0, pageRequest.getOffset() - recent.getTotalElements());
+            events = Stream.concat(events.stream(), eventArchive.findSummaries(archiveOffset,
+                    pageRequest.getPageSize() - events.size()).stream()).toList();
         }
-        return result.stream().sorted(Comparator.comparing(EventSummaryDto::getTime)).toList();
+        long total = recent.getTotalElements() + eventArchive.count();
+        return new EventSummaryPageDto(events, pageRequest.getPageNumber(), pageRequest.getPageSize(), total,
+                (int) ((total + pageRequest.getPageSize() - 1) / pageRequest.getPageSize()));
     }
 
     /**
-     * Calculate the total amount of participants in an event.
+     * Get future event summaries following the given cursor, earliest first.
+     * Without a cursor the first events are returned.
      *
-     * @param eventId id of the event.
-     * @return total number of participants.
+     * @param cursorTime time of the last event already received.
+     * @param cursorId id of the last event already received.
+     * @param size maximum number of events to return.
+     * @return summaries with the cursor to continue from.
      */
-    private int calculateNumberOfParticipants(Long eventId) {
-        List<CompanyParticipation> companies = companyParticipationRepository.getCompanyParticipationsByEvent_Id(eventId);
-        List<PersonParticipation> persons = personParticipationRepository.getPersonParticipationsByEvent_Id(eventId);
+    public EventSummaryCursorDto getFutureEventsSummariesAfter(LocalDateTime cursorTime, Long cursorId, int size) {
+        LocalDateTime now = LocalDateTime.now();
+        if (cursorTime == null || cursorId == null) {
+            cursorTime = now;
+            cursorId = Long.MAX_VALUE;
+        }
+        int limit = clampPageSize(size);
+        return createEventSummaryCursor(eventRepository.findEventSummariesByTimeAfterCursor(
+                now, cursorTime, cursorId, PageRequest.of(0, limit + 1)), limit);
+    }
 
-        int result = 0;
-        for (CompanyParticipation participation : companies) {
-            result += participation.getNumberOfParticipants();
+    /**
+     * Get past event summaries following the given cursor, most recent first.
+     * Without a cursor the most recent events are returned. Archived events follow the rest.
+     *
+     * @param cursorTime time of the last event already received.
+     * @param cursorId id of the last event already received.
+     * @param size maximum number of events to return.
+     * @return summaries with the cursor to continue from.
+     */
+    public EventSummaryCursorDto getPastEventsSummariesBefore(LocalDateTime cursorTime, Long cursorId, int size) {
+        LocalDateTime now = LocalDateTime.now();
+        if (cursorTime == null || cursorId == null) {
+            cursorTime = now;
+            cursorId = Long.MIN_VALUE;
+        }
+        int limit = clampPageSize(size);
+        List<EventSummaryDto> summaries = eventRepository.findEventSummariesByTimeBeforeCursor(
+                now, cursorTime, cursorId, PageRequest.of(0, limit + 1));
+        if (summaries.size() < limit + 1) {
+            summaries = Stream.concat(summaries.stream(), eventArchive.findSummariesBefore(
+                    cursorTime, cursorId, limit + 1 - summaries.size()).stream()).toList();
         }
-        result += persons.size();
-        return result;
+        return createEventSummaryCursor(summaries, limit);
     }
 
     /**
-     * Create summary of all participants in an event.
+     * Create page request with page index and size kept within allowed bounds.
+     *
+     * @param page index of the page.
+     * @param size size of the page.
+     * @return page request.
+     */
+    private PageRequest createPageRequest(int page, int size) {
+        return PageRequest.of(Math.max(page, 0), clampPageSize(size));
+    }
+
+    /**
+     * Keep page size between 1 and maximum page size.
+     *
+     * @param size requested size.
+     * @return allowed size.
+     */
+    private int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAXIMUM_PAGE_SIZE));
+    }
+
+    /**
+     * Create event summary page dto from a page of summaries.
+     *
+     * @param page page of summaries.
+     * @return page dto.
+     */
+    private EventSummaryPageDto createEventSummaryPage(Page<EventSummaryDto> page) {
+        return new EventSummaryPageDto(page.getContent(), page.getNumber(), page.getSize(),
+                page.getTotalElements(), page.getTotalPages());
+    }
+
+    /**
+     * Create cursor dto from summaries loaded with one extra row, which tells if there are more events.
+     *
+     * @param summaries summaries, at most limit + 1.
+     * @param limit number of summaries to return.
+     * @return cursor dto.
+     */
+    private EventSummaryCursorDto createEventSummaryCursor(List<EventSummaryDto> summaries, int limit) {
+        if (summaries.size() <= limit) {
+            return new EventSummaryCursorDto(summaries, null, null);
+        }
+        List<EventSummaryDto> slice = summaries.subList(0, limit);
+        EventSummaryDto last = slice.get(slice.size() - 1);
+        return new EventSummaryCursorDto(List.copyOf(slice), last.getTime(), last.getId());
+    }
+
+    /**
+     * Get hit, miss and eviction statistics of the event summary cache.
+     *
+     * @return statistics of each cache.
+     */
+    public List<CacheStatsDto> getCacheStatistics() {
+        return eventSummaryCache.getStatistics();
+    }
+
+    /**
+     * Get summary of all participants in an event, also of an archived event.
      *
      * @param eventId ID of the event.
      * @return summaries as a list.
      */
     public List<ParticipationSummaryDto> getEventParticipantSummariesList(Long eventId) {
+        return eventSummaryCache.getParticipants(eventId, this::createEventParticipantSummariesList);
+    }
+
+    /**
+     * Create summary of all participants in an event.
+     *
+     * @param eventId ID of the event.
+     * @return summaries as a list.
+     */
+    private List<ParticipationSummaryDto> createEventParticipantSummariesList(Long eventId) {
         List<CompanyParticipation> companies = companyParticipationRepository.getCompanyParticipationsByEvent_Id(eventId);
         List<PersonParticipation> persons = personParticipationRepository.getPersonParticipationsByEvent_Id(eventId);
+        if (companies.isEmpty() && persons.isEmpty()) {
+            Optional<List<ParticipationExportDto>> archived = eventArchive.findParticipations(eventId);
+            if (archived.isPresent()) {
+                return createArchivedParticipantSummariesList(archived.get());
+            }
+        }
         List<ParticipationSummaryDto> result = new ArrayList<>();
 
         for (CompanyParticipation participation : companies) {
@@ -210,6 +403,25 @@ public class EventService {
         return result.stream().sorted(Comparator.comparing(ParticipationSummaryDto::getName)).toList();
     }
 
+    /**
+     * Create summary of participants of an archived event, in the same form as of other events.
+     *
+     * @param participations archived participations.
+     * @return summaries as a list.
+     */
+    private List<ParticipationSummaryDto> createArchivedParticipantSummariesList(
+            List<ParticipationExportDto> participations) {
+        return participations.stream()
+                .map(participation -> participation.getType() == ParticipationSummaryDto.ParticipationType.PERSON
+                        ? new ParticipationSummaryDto(String.format("%1$s %2$s", participation.getFirstName(),
+                        participation.getLastName()), participation.getCode(), participation.getParticipationId(),
+                        participation.getType())
+                        : new ParticipationSummaryDto(participation.getCompanyName(), participation.getCode(),
+                        participation.getParticipationId(), participation.getType()))
+                .sorted(Comparator.comparing(ParticipationSummaryDto::getName))
+                .toList();
+    }
+
     /**
      * Get person participation info.
      * @param participationId id of participation.
@@ -248,7 +460,16 @@ public class EventService {
     }
 
     /**
-     * Add new person participation if fields are valid.
+     * Get position of a registration in the waitlist of a full event.
+     * @param waitlistEntryId id of waitlist entry.
+     * @return position, null if registration is not on the waitlist anymore.
+     */
+    public WaitlistPositionDto getWaitlistPosition(Long waitlistEntryId) {
+        return waitlistService.getPosition(waitlistEntryId).orElse(null);
+    }
+
+    /**
+     * Add new person participation if fields are valid and event has not started.
      *
      * @param personDto participation info.
      * @return validation result.
@@ -258,21 +479,34 @@ public class EventService {
         ValidationResult validationResult = participationValidator.validatePerson(personDto);
         if (!validationResult.isValid()) return validationResult;
 
-        Optional<Event> optionalEvent = eventRepository.findEventById(personDto.getEventId());
+        Event event = eventRepository.findEventById(personDto.getEventId()).get();
+        if (checkIfEventIsInThePast(event)) {
+            validationResult.addError(EVENT_IN_PAST);
+            return validationResult;
+        }
+        if (waitlistService.hasQueue(event) || !seatReservationEngine.reserve(personDto.getEventId(), 1)) {
+            validationResult.setWaitlistEntryId(waitlistService.addPerson(event, personDto));
+            return validationResult;
+        }
         PaymentMethod payment = PaymentMethod.valueOf(personDto.getPaymentMethod());
 
-        PersonParticipation participation = new PersonParticipation(optionalEvent.get(), payment,
+        PersonParticipation participation = new PersonParticipation(event, payment,
                 personDto.getAdditionalInfo(), personDto.getFirstName(), personDto.getLastName(),
                 personDto.getPersonalCode()
         );
         personParticipationRepository.save(participation);
-        LOGGER.info(String.format("Added %1$s %2$s to event %3$s",
-                participation.getFirstName(), participation.getLastName(), participation.getEvent().getName()));
+        eventPublisher.publishEvent(new EventDataChangedEvent(personDto.getEventId(),
+                ParticipationSummaryDto.ParticipationType.PERSON, participation.getId()));
+        changeFeed.recordParticipationChange(ParticipationChange.ChangeType.PARTICIPATION_ADDED,
+                ParticipantExportService.toExportRow(participation));
+        businessEventLog.log("participation_added", "type", "PERSON", "participationId", participation.getId(),
+                "eventId", event.getId(), "firstName", participation.getFirstName(),
+                "lastName", participation.getLastName());
         return validationResult;
     }
 
     /**
-     * Add new company participation if valid.
+     * Add new company participation if valid and event has not started.
      *
      * @param companyDto info of participation.
      * @return validation result.
@@ -283,21 +517,35 @@ public class EventService {
 
         if (!validationResult.isValid()) return validationResult;
 
-        Optional<Event> optionalEvent = eventRepository.findEventById(companyDto.getEventId());
+        Event event = eventRepository.findEventById(companyDto.getEventId()).get();
+        if (checkIfEventIsInThePast(event)) {
+            validationResult.addError(EVENT_IN_PAST);
+            return validationResult;
+        }
+        if (waitlistService.hasQueue(event)
+                || !seatReservationEngine.reserve(companyDto.getEventId(), companyDto.getNumberOfParticipants())) {
+            validationResult.setWaitlistEntryId(waitlistService.addCompany(event, companyDto));
+            return validationResult;
+        }
         PaymentMethod payment = PaymentMethod.valueOf(companyDto.getPaymentMethod());
 
-        CompanyParticipation participation = new CompanyParticipation(optionalEvent.get(), payment,
+        CompanyParticipation participation = new CompanyParticipation(event, payment,
                 companyDto.getAdditionalInfo(), companyDto.getCompanyName(), companyDto.getRegistryCode(),
                 companyDto.getNumberOfParticipants()
         );
         companyParticipationRepository.save(participation);
-        LOGGER.info(String.format("Added %1$s to event %2$s",
-                participation.getCompanyName(), participation.getEvent().getName()));
+        eventPublisher.publishEvent(new EventDataChangedEvent(companyDto.getEventId(),
+                ParticipationSummaryDto.ParticipationType.COMPANY, participation.getId()));
+        changeFeed.recordParticipationChange(ParticipationChange.ChangeType.PARTICIPATION_ADDED,
+                ParticipantExportService.toExportRow(participation));
+        businessEventLog.log("participation_added", "type", "COMPANY", "participationId", participation.getId(),
+                "eventId", event.getId(), "companyName", participation.getCompanyName(),
+                "participants", participation.getNumberOfParticipants());
         return validationResult;
     }
 
     /**
-     * Edit person participation.
+     * Edit person participation if event has not started.
      * @param dto person info.
      * @return validation result.
      */
@@ -313,6 +561,10 @@ public class EventService {
         if (!validationResult.isValid()) return validationResult;
 
         PersonParticipation participation = optional.get();
+        if (checkIfEventIsInThePast(participation.getEvent())) {
+            validationResult.addError(EVENT_IN_PAST);
+            return validationResult;
+        }
 
         participation.setFirstName(dto.getFirstName());
         participation.setLastName(dto.getLastName());
@@ -321,12 +573,17 @@ public class EventService {
         participation.setAdditionalInfo(dto.getAdditionalInfo());
 
         personParticipationRepository.save(participation);
+        eventRepository.bumpVersion(participation.getEvent().getId());
+        eventPublisher.publishEvent(new EventDataChangedEvent(participation.getEvent().getId(),
+                ParticipationSummaryDto.ParticipationType.PERSON, participation.getId()));
+        changeFeed.recordParticipationChange(ParticipationChange.ChangeType.PARTICIPATION_CHANGED,
+                ParticipantExportService.toExportRow(participation));
 
         return validationResult;
     }
 
     /**
-     * Edit company participation.
+     * Edit company participation if event has not started.
      * @param dto company info.
      * @return validation result.
      */
@@ -343,6 +600,16 @@ public class EventService {
         if (!validationResult.isValid()) return validationResult;
 
         CompanyParticipation participation = optional.get();
+        if (checkIfEventIsInThePast(participation.getEvent())) {
+            validationResult.addError(EVENT_IN_PAST);
+            return validationResult;
+        }
+        Long eventId = participation.getEvent().getId();
+        int participantDelta = dto.getNumberOfParticipants() - participation.getNumberOfParticipants();
+        if (participantDelta > 0 && !seatReservationEngine.reserve(eventId, participantDelta)) {
+            validationResult.addError(EVENT_FULL);
+            return validationResult;
+        }
         participation.setCompanyName(dto.getCompanyName());
         participation.setRegistryCode(dto.getRegistryCode());
         participation.setNumberOfParticipants(dto.getNumberOfParticipants());
@@ -350,6 +617,16 @@ public class EventService {
         participation.setAdditionalInfo(dto.getAdditionalInfo());
 
         companyParticipationRepository.save(participation);
+        eventRepository.bumpVersion(eventId);
+        changeFeed.recordParticipationChange(ParticipationChange.ChangeType.PARTICIPATION_CHANGED,
+                ParticipantExportService.toExportRow(participation));
+        int promoted = 0;
+        if (participantDelta < 0) {
+            seatReservationEngine.release(eventId, -participantDelta);
+            promoted = waitlistService.promote(participation.getEvent());
+        }
+        eventPublisher.publishEvent(createParticipationChange(eventId,
+                ParticipationSummaryDto.ParticipationType.COMPANY, participation.getId(), promoted));
         return validationResult;
     }
 
@@ -365,18 +642,52 @@ public class EventService {
             Optional<PersonParticipation> optional = personParticipationRepository.findById(participationId);
             if (optional.isPresent() && !checkIfEventIsInThePast(optional.get().getEvent())) {
                 personParticipationRepository.deleteById(participationId);
+                changeFeed.recordRemoval(optional.get().getEvent().getId(), type, participationId);
+                seatReservationEngine.release(optional.get().getEvent().getId(), 1);
+                int promoted = waitlistService.promote(optional.get().getEvent());
+                eventPublisher.publishEvent(createParticipationChange(optional.get().getEvent().getId(),
+                        type, participationId, promoted));
+                businessEventLog.log("participation_deleted", "type", type, "participationId", participationId,
+                        "eventId", optional.get().getEvent().getId(), "promoted", promoted);
                 return true;
             }
         } else if (type.equals(ParticipationSummaryDto.ParticipationType.COMPANY)) {
             Optional<CompanyParticipation> optional = companyParticipationRepository.findById(participationId);
             if (optional.isPresent() && !checkIfEventIsInThePast(optional.get().getEvent())) {
+                CompanyParticipation participation = optional.get();
                 companyParticipationRepository.deleteById(participationId);
+                changeFeed.recordRemoval(participation.getEvent().getId(), type, participationId);
+                seatReservationEngine.release(participation.getEvent().getId(),
+                        participation.getNumberOfParticipants());
+                int promoted = waitlistService.promote(participation.getEvent());
+                eventPublisher.publishEvent(createParticipationChange(participation.getEvent().getId(),
+                        type, participationId, promoted));
+                businessEventLog.log("participation_deleted", "type", type, "participationId", participationId,
+                        "eventId", participation.getEvent().getId(), "promoted", promoted);
                 return true;
             }
         }
         return false;
     }
 
+    /**
+     * Create change of one participation. If waitlisted participants were promoted as well,
+     * the change covers the whole event.
+     * @param eventId id of event.
+     * @param type type of changed participation.
+     * @param participationId id of changed participation.
+     * @param promoted number of participants promoted from the waitlist.
+     * @return event data change.
+     */
+    private EventDataChangedEvent createParticipationChange(Long eventId,
+                                                           ParticipationSummaryDto.ParticipationType type,
+                                                           Long participationId, int promoted) {
+        if (promoted > 0) {
+            return new EventDataChangedEvent(eventId);
+        }
+        return new EventDataChangedEvent(eventId, type, participationId);
+    }
+
     /**
      * Check if event has already happened.
      * @param event Event to check.
@@ -0,0 +1,144 @@
+package com.rik.nullam.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.rik.nullam.dto.CacheStatsDto;
+import com.rik.nullam.dto.EventSummaryDto;
+import com.rik.nullam.dto.ParticipationSummaryDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Size and time bounded cache of event summaries and participant lists, keyed by event id.
+ * Entries of an event are dropped once a change to that event has been committed.
+ * Values are loaded on the calling thread without holding a lock of the cache. Committing transactions
+ * invalidate entries while still holding their database connection, so waiting for a load that needs a
+ * connection could use up the pool.
+ */
+@Component
+public class EventSummaryCache {
+
+    private final AsyncCache<Long, EventSummaryDto> summaries;
+    private final AsyncCache<Long, List<ParticipationSummaryDto>> participants;
+
+    /**
+     * Event summary cache constructor.
+     * @param maximumSize maximum number of entries in each cache.
+     * @param expireAfterWriteSeconds seconds after which an entry is reloaded.
+     */
+    public EventSummaryCache(@Value("${nullam.cache.maximum-size:10000}") long maximumSize,
+                             @Value("${nullam.cache.expire-after-write-seconds:300}") long expireAfterWriteSeconds) {
+        this.summaries = createCache(maximumSize, expireAfterWriteSeconds);
+        this.participants = createCache(maximumSize, expireAfterWriteSeconds);
+    }
+
+    /**
+     * Get event summary from cache or load it.
+     * @param eventId id of event.
+     * @param loader loads the summary on a miss, may return null.
+     * @return event summary or null if there is none.
+     */
+    public EventSummaryDto getSummary(Long eventId, Function<Long, EventSummaryDto> loader) {
+        return get(summaries, eventId, loader);
+    }
+
+    /**
+     * Get participant summaries of an event from cache or load them.
+     * @param eventId id of event.
+     * @param loader loads the participant summaries on a miss.
+     * @return participant summaries.
+     */
+    public List<ParticipationSummaryDto> getParticipants(Long eventId,
+                                                        Function<Long, List<ParticipationSummaryDto>> loader) {
+        return get(participants, eventId, loader);
+    }
+
+    /**
+     * Drop cached data of an event.
+     * @param eventId id of event.
+     */
+    public void invalidate(Long eventId) {
+        summaries.synchronous().invalidate(eventId);
+        participants.synchronous().invalidate(eventId);
+    }
+
+    /**
+     * Drop cached data of the changed event once the change is committed.
+     * @param change change of event data.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEventDataChanged(EventDataChangedEvent change) {
+        invalidate(change.getEventId());
+    }
+
+    /**
+     * Get hit, miss and eviction statistics of the caches.
+     * @return statistics of summary and participant caches.
+     */
+    public List<CacheStatsDto> getStatistics() {
+        return List.of(createStats("eventSummaries", summaries), createStats("eventParticipants", participants));
+    }
+
+    /**
+     * Get value from cache or load it. A load that is invalidated before it completes is not kept.
+     * A thread that finds the value being loaded by another thread loads it too instead of waiting.
+     * @param cache cache.
+     * @param eventId id of event.
+     * @param loader loads the value on a miss, may return null, which is not cached.
+     * @return value or null if there is none.
+     */
+    private static <V> V get(AsyncCache<Long, V> cache, Long eventId, Function<Long, V> loader) {
+        CompletableFuture<V> cached = cache.getIfPresent(eventId);
+        if (cached != null && cached.isDone() && !cached.isCompletedExceptionally()) {
+            return cached.join();
+        }
+        CompletableFuture<V> loading = new CompletableFuture<>();
+        if (cached != null || cache.asMap().putIfAbsent(eventId, loading) != null) {
+            return loader.apply(eventId);
+        }
+        try {
+            V value = loader.apply(eventId);
+            loading.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Create cache statistics dto.
+     * @param name name of cache.
+     * @param asyncCache cache.
+     * @return statistics.
+     */
+    private CacheStatsDto createStats(String name, AsyncCache<?, ?> asyncCache) {
+        Cache<?, ?> cache = asyncCache.synchronous();
+        CacheStats stats = cache.stats();
+        return new CacheStatsDto(name, cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.evictionCount(), stats.hitRate());
+    }
+
+    /**
+     * Create cache with statistics recording.
+     * @param maximumSize maximum number of entries.
+     * @param expireAfterWriteSeconds seconds after which an entry expires.
+     * @return cache.
+     */
+    private static <V> AsyncCache<Long, V> createCache(long maximumSize, long expireAfterWriteSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+                .recordStats()
+                .buildAsync();
+    }
+}
@@ -8,6 +8,7 @@ import java.time.LocalDateTime;
 
 import static com.rik.nullam.service.ValidationResultErrorConstants.INCORRECT_TIME;
 import static com.rik.nullam.service.ValidationResultErrorConstants.INFO_TOO_LONG;
+import static com.rik.nullam.service.ValidationResultErrorConstants.INVALID_CAPACITY;
 import static com.rik.nullam.service.ValidationResultErrorConstants.MISSING_OR_BLANK;
 
 @Service
@@ -32,6 +33,9 @@ public class EventValidator {
         if (dto.getAdditionalInfo() != null && dto.getAdditionalInfo().length() > MAXIMUM_EVENT_INFO_LENGTH) {
             result.addError(INFO_TOO_LONG);
         }
+        if (dto.getCapacity() != null && dto.getCapacity() < 1) {
+            result.addError(INVALID_CAPACITY);
+        }
         return result;
     }
 
@@ -0,0 +1,32 @@
+package com.rik.nullam.service;
+
+import lombok.Getter;
+
+import java.util.Locale;
+
+/**
+ * Formats participants can be exported in.
+ */
+@Getter
+public enum ExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    ExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    /**
+     * Get format from a request parameter, ignoring case, so both "ndjson" and "NDJSON" are accepted.
+     * @param value name of format.
+     * @return format.
+     * @throws IllegalArgumentException if there is no format with that name.
+     */
+    public static ExportFormat fromParameter(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
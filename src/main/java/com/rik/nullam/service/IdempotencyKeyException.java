@@ -0,0 +1,36 @@
+package com.rik.nullam.service;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a request can not be answered from the idempotency store.
+ */
+@Getter
+public class IdempotencyKeyException extends RuntimeException {
+
+    private final Reason reason;
+
+    /**
+     * Why the request was refused.
+     */
+    public enum Reason {
+        /**
+         * The key was already used for a request with a different body.
+         */
+        REQUEST_MISMATCH,
+        /**
+         * The first request with the key did not finish within the wait time.
+         */
+        IN_PROGRESS
+    }
+
+    /**
+     * Idempotency key exception constructor.
+     * @param reason why the request was refused.
+     * @param message description of the error.
+     */
+    public IdempotencyKeyException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+}
@@ -0,0 +1,144 @@
+package com.rik.nullam.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Size and time bounded store of responses to write requests, keyed by the client's idempotency key.
+ * A retried request with the same key gets the stored response and the write is not done again.
+ * Every response is stored with a hash of its request body, so a key reused for a different request
+ * is refused instead of answered with the response of another request.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger LOGGER = Logger.getLogger(IdempotencyStore.class.getName());
+
+    private final ObjectMapper objectMapper;
+    private final long waitSeconds;
+    private final Cache<String, StoredResponse> responses;
+
+    /**
+     * Idempotency store constructor.
+     * @param objectMapper mapper used to hash request bodies.
+     * @param maximumSize maximum number of stored responses.
+     * @param expireAfterWriteSeconds seconds a response is kept for retries.
+     * @param waitSeconds seconds a retry waits for the first request with the same key to finish.
+     */
+    public IdempotencyStore(ObjectMapper objectMapper,
+                            @Value("${nullam.idempotency.maximum-size:10000}") long maximumSize,
+                            @Value("${nullam.idempotency.expire-after-write-seconds:3600}")
+                            long expireAfterWriteSeconds,
+                            @Value("${nullam.idempotency.wait-seconds:30}") long waitSeconds) {
+        this.objectMapper = objectMapper;
+        this.waitSeconds = waitSeconds;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+                .build();
+    }
+
+    /**
+     * Run write action once per idempotency key. A request that arrives while the first one with the
+     * same key is still running waits for its response, at most for the wait time. If the action fails,
+     * nothing is stored and the request can be retried.
+     * @param operation name of the operation, keys are only compared within one operation.
+     * @param idempotencyKey key sent by the client, action is always run if null or blank.
+     * @param request request body, compared with the body of the first request with the same key.
+     * @param action write action.
+     * @return response of the action, stored or new.
+     * @throws IdempotencyKeyException if the key was used for a different request body,
+     *                                 or the first request did not finish in time.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, String idempotencyKey, Object request, Supplier<T> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        String key = operation + ":" + idempotencyKey;
+        StoredResponse created = new StoredResponse(hash(request));
+        StoredResponse existing = responses.asMap().putIfAbsent(key, created);
+        if (existing != null) {
+            if (!MessageDigest.isEqual(existing.requestHash, created.requestHash)) {
+                throw new IdempotencyKeyException(IdempotencyKeyException.Reason.REQUEST_MISMATCH,
+                        String.format("Key %1$s was used for a different request", key));
+            }
+            LOGGER.fine(String.format("Returning stored response for %1$s", key));
+            return (T) await(key, existing.response);
+        }
+        try {
+            T response = action.get();
+            created.response.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            responses.asMap().remove(key, created);
+            created.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Wait for the response of the first request with the same key.
+     * @param key key of the request.
+     * @param response response of the first request.
+     * @return response.
+     */
+    private Object await(String key, CompletableFuture<Object> response) {
+        try {
+            return response.get(waitSeconds, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException
+                    ? runtimeException : new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyException(IdempotencyKeyException.Reason.IN_PROGRESS,
+                    String.format("Request with key %1$s is still in progress", key));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyException(IdempotencyKeyException.Reason.IN_PROGRESS,
+                    String.format("Interrupted while waiting for request with key %1$s", key));
+        }
+    }
+
+    /**
+     * Hash a request body.
+     * @param request request body.
+     * @return SHA-256 of the body as JSON.
+     */
+    private byte[] hash(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Response of a request, stored with the hash of its body.
+     */
+    private static final class StoredResponse {
+        private final byte[] requestHash;
+        private final CompletableFuture<Object> response = new CompletableFuture<>();
+
+        /**
+         * Stored response constructor.
+         * @param requestHash hash of the request body.
+         */
+        private StoredResponse(byte[] requestHash) {
+            this.requestHash = requestHash;
+        }
+    }
+}
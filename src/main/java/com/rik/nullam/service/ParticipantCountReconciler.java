@@ -0,0 +1,62 @@
+package com.rik.nullam.service;
+
+import com.rik.nullam.dto.ParticipantCountDriftDto;
+import com.rik.nullam.repository.EventRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.logging.Logger;
+
+/**
+ * Periodically repairs maintained participant counts that no longer match the participation tables.
+ */
+@Service
+public class ParticipantCountReconciler {
+
+    private static final Logger LOGGER = Logger.getLogger(ParticipantCountReconciler.class.getName());
+
+    private final EventRepository eventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SeatReservationEngine seatReservationEngine;
+
+    /**
+     * Participant count reconciler constructor.
+     * @param eventRepository event repository.
+     * @param eventPublisher publisher of event data changes.
+     * @param seatReservationEngine engine whose seat counters are reloaded after a repair.
+     */
+    public ParticipantCountReconciler(EventRepository eventRepository, ApplicationEventPublisher eventPublisher,
+                                      SeatReservationEngine seatReservationEngine) {
+        this.eventRepository = eventRepository;
+        this.eventPublisher = eventPublisher;
+        this.seatReservationEngine = seatReservationEngine;
+    }
+
+    /**
+     * Recount participants of drifted events and store the correct count.
+     * Events changed after counting are skipped and repaired on the next run.
+     * Seat counters of repaired events are dropped and loaded again from the repaired count.
+     *
+     * @return number of repaired events.
+     */
+    @Scheduled(initialDelayString = "${nullam.participant-count.reconcile-initial-delay-ms:60000}",
+            fixedDelayString = "${nullam.participant-count.reconcile-interval-ms:600000}")
+    @Transactional
+    public int reconcile() {
+        int repaired = 0;
+        for (ParticipantCountDriftDto drift : eventRepository.findParticipantCountDrift()) {
+            if (eventRepository.repairParticipantCount(
+                    drift.getEventId(), drift.getCountedParticipants(), drift.getVersion()) > 0) {
+                seatReservationEngine.forget(drift.getEventId());
+                eventPublisher.publishEvent(new EventDataChangedEvent(drift.getEventId()));
+                repaired++;
+            }
+        }
+        if (repaired > 0) {
+            LOGGER.warning(String.format("Repaired participant count of %1$d events", repaired));
+        }
+        return repaired;
+    }
+}
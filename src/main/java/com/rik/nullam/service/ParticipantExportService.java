@@ -0,0 +1,154 @@
+package com.rik.nullam.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rik.nullam.dto.ParticipationExportDto;
+import com.rik.nullam.dto.ParticipationSummaryDto;
+import com.rik.nullam.entity.participation.CompanyParticipation;
+import com.rik.nullam.entity.participation.PersonParticipation;
+import com.rik.nullam.repository.CompanyParticipationRepository;
+import com.rik.nullam.repository.PersonParticipationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Service to export participants of an event without holding them all in memory.
+ */
+@Service
+public class ParticipantExportService {
+
+    /**
+     * Columns of the CSV export, in order.
+     */
+    public static final String[] CSV_COLUMNS = {"type", "participationId", "eventId", "firstName", "lastName",
+            "companyName", "code", "numberOfParticipants", "paymentMethod", "additionalInfo"};
+
+    private final PersonParticipationRepository personParticipationRepository;
+    private final CompanyParticipationRepository companyParticipationRepository;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    /**
+     * Participant export service constructor.
+     * @param personParticipationRepository person participation repository.
+     * @param companyParticipationRepository company participation repository.
+     * @param objectMapper mapper used for NDJSON lines.
+     * @param entityManager entity manager used to detach written rows.
+     */
+    public ParticipantExportService(PersonParticipationRepository personParticipationRepository,
+                                    CompanyParticipationRepository companyParticipationRepository,
+                                    ObjectMapper objectMapper,
+                                    EntityManager entityManager) {
+        this.personParticipationRepository = personParticipationRepository;
+        this.companyParticipationRepository = companyParticipationRepository;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Write all participants of an event to the output stream, persons first, each in id order.
+     * Rows are read with a database cursor and written one at a time.
+     *
+     * @param eventId ID of the event.
+     * @param format format to write.
+     * @param outputStream stream to write to, left open.
+     * @throws IOException if writing fails.
+     */
+    @Transactional
+    public void exportParticipants(Long eventId, ExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(String.join(",", CSV_COLUMNS));
+            writer.write('\n');
+        }
+        try (Stream<PersonParticipation> persons =
+                     personParticipationRepository.streamPersonParticipationsByEventId(eventId)) {
+            persons.forEach(person -> {
+                writeRow(writer, format, toExportRow(person));
+                entityManager.detach(person);
+            });
+        }
+        try (Stream<CompanyParticipation> companies =
+                     companyParticipationRepository.streamCompanyParticipationsByEventId(eventId)) {
+            companies.forEach(company -> {
+                writeRow(writer, format, toExportRow(company));
+                entityManager.detach(company);
+            });
+        }
+        writer.flush();
+    }
+
+    /**
+     * Write one row in the given format.
+     * @param writer writer.
+     * @param format format.
+     * @param row row to write.
+     */
+    private void writeRow(Writer writer, ExportFormat format, ParticipationExportDto row) {
+        try {
+            if (format == ExportFormat.NDJSON) {
+                writer.write(objectMapper.writeValueAsString(row));
+            } else {
+                writer.write(String.join(",", row.getType().name(), Objects.toString(row.getParticipationId(), ""),
+                        Objects.toString(row.getEventId(), ""), escapeCsv(row.getFirstName()),
+                        escapeCsv(row.getLastName()), escapeCsv(row.getCompanyName()), escapeCsv(row.getCode()),
+                        String.valueOf(row.getNumberOfParticipants()), row.getPaymentMethod(),
+                        escapeCsv(row.getAdditionalInfo())));
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Quote CSV field if it contains a separator, quote or line break.
+     * @param field field value, may be null.
+     * @return value safe to write as a CSV field.
+     */
+    private String escapeCsv(String field) {
+        if (field == null) {
+            return "";
+        }
+        if (field.contains(",") || field.contains("\"") || field.contains("\n") || field.contains("\r")) {
+            return "\"" + field.replace("\"", "\"\"") + "\"";
+        }
+        return field;
+    }
+
+    /**
+     * Create export row from a person participation.
+     * Also the format in which participations of archived events are stored.
+     * @param participation participation.
+     * @return export row.
+     */
+    static ParticipationExportDto toExportRow(PersonParticipation participation) {
+        return new ParticipationExportDto(ParticipationSummaryDto.ParticipationType.PERSON, participation.getId(),
+                participation.getEvent().getId(), participation.getFirstName(), participation.getLastName(),
+                null, participation.getPersonalCode(), 1, String.valueOf(participation.getPaymentMethod()),
+                participation.getAdditionalInfo());
+    }
+
+    /**
+     * Create export row from a company participation.
+     * Also the format in which participations of archived events are stored.
+     * @param participation participation.
+     * @return export row.
+     */
+    static ParticipationExportDto toExportRow(CompanyParticipation participation) {
+        return new ParticipationExportDto(ParticipationSummaryDto.ParticipationType.COMPANY, participation.getId(),
+                participation.getEvent().getId(), null, null, participation.getCompanyName(),
+                participation.getRegistryCode(), participation.getNumberOfParticipants(),
+                String.valueOf(participation.getPaymentMethod()), participation.getAdditionalInfo());
+    }
+}
@@ -0,0 +1,230 @@
+package com.rik.nullam.service;
+
+import com.rik.nullam.dto.BulkParticipationDto;
+import com.rik.nullam.dto.BulkParticipationResultDto;
+import com.rik.nullam.dto.CompanyParticipationDto;
+import com.rik.nullam.dto.ImportReportDto;
+import com.rik.nullam.dto.ImportRowErrorDto;
+import com.rik.nullam.dto.ParticipationSummaryDto;
+import com.rik.nullam.dto.PersonParticipationDto;
+import com.rik.nullam.dto.ValidationResult;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import static com.rik.nullam.service.ValidationResultErrorConstants.MISSING_OR_BLANK;
+
+/**
+ * Service to import participants from a CSV stream in fixed-size chunks.
+ * The CSV uses the columns of the participant export; participationId and eventId columns are ignored.
+ */
+@Service
+public class ParticipantImportService {
+
+    private static final Logger LOGGER = Logger.getLogger(ParticipantImportService.class.getName());
+    private static final int MAXIMUM_RECORD_LENGTH = 16 * 1024;
+    private static final int MAXIMUM_REPORTED_ERRORS = 100;
+    private static final int MAXIMUM_CHUNK_SIZE = 5000;
+
+    private final BulkParticipationService bulkParticipationService;
+
+    /**
+     * Participant import service constructor.
+     * @param bulkParticipationService service that validates and saves each chunk.
+     */
+    public ParticipantImportService(BulkParticipationService bulkParticipationService) {
+        this.bulkParticipationService = bulkParticipationService;
+    }
+
+    /**
+     * Read participants from CSV and add them to an event. Rows are read only as fast as chunks
+     * are committed, each chunk in its own transaction, so memory stays bounded by the chunk size.
+     * If a chunk fails to commit, the import stops with the rows of that chunk in the report and
+     * the last committed row still pointing at the end of the previous chunk.
+     *
+     * @param eventId ID of the event.
+     * @param inputStream CSV input with a header row.
+     * @param skipRows number of data rows to skip, used to resume an interrupted import.
+     * @param chunkSize number of rows committed together.
+     * @return report of the import progress.
+     */
+    public ImportReportDto importParticipants(Long eventId, InputStream inputStream, long skipRows, int chunkSize) {
+        ImportReportDto report = new ImportReportDto();
+        report.setLastCommittedRow(Math.max(skipRows, 0));
+        Chunk chunk = new Chunk(Math.max(1, Math.min(chunkSize, MAXIMUM_CHUNK_SIZE)));
+        long start = System.nanoTime();
+        try {
+            CsvRecordReader reader = new CsvRecordReader(new BufferedReader(
+                    new InputStreamReader(inputStream, StandardCharsets.UTF_8)), MAXIMUM_RECORD_LENGTH);
+            List<String> header = reader.readRecord();
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; header != null && i < header.size(); i++) {
+                columns.put(header.get(i).trim(), i);
+            }
+            List<String> record;
+            boolean failed = false;
+            while (!failed && (record = reader.readRecord()) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) continue;
+                long row = report.getRowsRead() + 1;
+                report.setRowsRead(row);
+                if (row <= skipRows) continue;
+                chunk.add(row, eventId, record, columns, report);
+                if (chunk.isFull()) {
+                    failed = !commit(chunk, report);
+                }
+            }
+            report.setCompleted(!failed && commit(chunk, report));
+        } catch (IOException e) {
+            LOGGER.warning(e.getMessage());
+            report.setFailureMessage(e.getMessage());
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        report.setRowsPerSecond(seconds > 0 ? (report.getRowsRead() - Math.max(skipRows, 0)) / seconds : 0);
+        LOGGER.info(String.format("Imported %1$d participants to event %2$d, %3$.0f rows/s",
+                report.getRowsImported(), eventId, report.getRowsPerSecond()));
+        return report;
+    }
+
+    /**
+     * Save chunk in one transaction and record the outcome of every row.
+     * A chunk that fails is rolled back as a whole and recorded as the failure of the import.
+     * @param chunk rows to save.
+     * @param report report to update.
+     * @return true if the chunk was committed.
+     */
+    private boolean commit(Chunk chunk, ImportReportDto report) {
+        if (chunk.isEmpty()) {
+            report.setLastCommittedRow(Math.max(report.getLastCommittedRow(), chunk.lastRow));
+            return true;
+        }
+        BulkParticipationResultDto result;
+        try {
+            result = bulkParticipationService.addParticipations(
+                    new BulkParticipationDto(List.copyOf(chunk.persons), List.copyOf(chunk.companies)));
+        } catch (RuntimeException e) {
+            LOGGER.warning(String.format("Import chunk of rows %1$d-%2$d failed: %3$s",
+                    chunk.firstRow, chunk.lastRow, e.getMessage()));
+            report.setFailureMessage(e.getMessage());
+            report.setFailedFromRow(chunk.firstRow);
+            report.setFailedToRow(chunk.lastRow);
+            return false;
+        }
+        report.setRowsImported(report.getRowsImported() + result.getSavedCount());
+        report.setRowsWaitlisted(report.getRowsWaitlisted() + result.getWaitlistedCount());
+        recordRejected(chunk.personRows, result.getPersonResults(), report);
+        recordRejected(chunk.companyRows, result.getCompanyResults(), report);
+        report.setLastCommittedRow(chunk.lastRow);
+        chunk.clear();
+        return true;
+    }
+
+    /**
+     * Count rejected rows and keep errors of the first ones.
+     * @param rows row numbers.
+     * @param results validation results of the rows.
+     * @param report report to update.
+     */
+    private static void recordRejected(List<Long> rows, List<ValidationResult> results, ImportReportDto report) {
+        for (int i = 0; i < rows.size(); i++) {
+            if (!results.get(i).isValid()) {
+                rejectRow(rows.get(i), results.get(i).getMessages(), report);
+            }
+        }
+    }
+
+    /**
+     * Count rejected row and keep its errors if the error list is not full.
+     * @param row row number.
+     * @param messages error messages.
+     * @param report report to update.
+     */
+    private static void rejectRow(long row, List<String> messages, ImportReportDto report) {
+        report.setRowsRejected(report.getRowsRejected() + 1);
+        if (report.getErrors().size() < MAXIMUM_REPORTED_ERRORS) {
+            report.getErrors().add(new ImportRowErrorDto(row, List.copyOf(messages)));
+        }
+    }
+
+    /**
+     * Rows waiting to be committed together.
+     */
+    private static final class Chunk {
+        private final int size;
+        private final List<PersonParticipationDto> persons = new ArrayList<>();
+        private final List<Long> personRows = new ArrayList<>();
+        private final List<CompanyParticipationDto> companies = new ArrayList<>();
+        private final List<Long> companyRows = new ArrayList<>();
+        private long firstRow;
+        private long lastRow;
+
+        private Chunk(int size) {
+            this.size = size;
+        }
+
+        /**
+         * Parse CSV record into a participation and add it to the chunk.
+         * Rows of unknown type are rejected immediately.
+         */
+        private void add(long row, Long eventId, List<String> record, Map<String, Integer> columns,
+                         ImportReportDto report) {
+            lastRow = row;
+            String type = field(record, columns, "type");
+            if (isEmpty()) {
+                firstRow = row;
+            }
+            if (ParticipationSummaryDto.ParticipationType.PERSON.name().equalsIgnoreCase(type)) {
+                persons.add(new PersonParticipationDto(null, eventId, field(record, columns, "paymentMethod"),
+                        field(record, columns, "additionalInfo"), field(record, columns, "firstName"),
+                        field(record, columns, "lastName"), field(record, columns, "code")));
+                personRows.add(row);
+            } else if (ParticipationSummaryDto.ParticipationType.COMPANY.name().equalsIgnoreCase(type)) {
+                companies.add(new CompanyParticipationDto(null, eventId, field(record, columns, "paymentMethod"),
+                        field(record, columns, "additionalInfo"), field(record, columns, "companyName"),
+                        field(record, columns, "code"), parseInteger(field(record, columns, "numberOfParticipants"))));
+                companyRows.add(row);
+            } else {
+                rejectRow(row, List.of(MISSING_OR_BLANK), report);
+            }
+        }
+
+        private boolean isFull() {
+            return persons.size() + companies.size() >= size;
+        }
+
+        private boolean isEmpty() {
+            return persons.isEmpty() && companies.isEmpty();
+        }
+
+        private void clear() {
+            persons.clear();
+            personRows.clear();
+            companies.clear();
+            companyRows.clear();
+        }
+
+        private static String field(List<String> record, Map<String, Integer> columns, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= record.size() || record.get(index).isEmpty()) {
+                return null;
+            }
+            return record.get(index);
+        }
+
+        private static Integer parseInteger(String value) {
+            try {
+                return value == null ? null : Integer.valueOf(value.trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
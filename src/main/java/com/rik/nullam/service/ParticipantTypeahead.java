@@ -0,0 +1,246 @@
+package com.rik.nullam.service;
+
+import com.rik.nullam.dto.ParticipantSuggestionDto;
+import com.rik.nullam.dto.ParticipationSummaryDto;
+import com.rik.nullam.entity.participation.CompanyParticipation;
+import com.rik.nullam.entity.participation.PersonParticipation;
+import com.rik.nullam.repository.CompanyParticipationRepository;
+import com.rik.nullam.repository.PersonParticipationRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Suggests previously registered persons and companies while a name or code is being typed.
+ * Every participant is kept once per personal or registry code, under sorted keys for its name
+ * and code in a separate sorted map per participant type, so a prefix lookup is a range read of
+ * the first matching keys and does not depend on the number of participants, also when only one
+ * type is asked for. The number of kept participants is limited.
+ */
+@Component
+public class ParticipantTypeahead {
+
+    private static final Logger LOGGER = Logger.getLogger(ParticipantTypeahead.class.getName());
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final char KEY_SEPARATOR = '\u0000';
+    private static final int MAXIMUM_SUGGESTIONS = 20;
+
+    private final PersonParticipationRepository personParticipationRepository;
+    private final CompanyParticipationRepository companyParticipationRepository;
+    private final int maximumParticipants;
+
+    private final Map<String, ParticipantSuggestionDto> participants = new ConcurrentHashMap<>();
+    private final Map<ParticipationSummaryDto.ParticipationType,
+            ConcurrentSkipListMap<String, ParticipantSuggestionDto>> prefixes =
+            new EnumMap<>(ParticipationSummaryDto.ParticipationType.class);
+    private final AtomicBoolean fullReported = new AtomicBoolean();
+
+    /**
+     * Participant typeahead constructor.
+     * @param personParticipationRepository person participation repository.
+     * @param companyParticipationRepository company participation repository.
+     * @param maximumParticipants maximum number of distinct participants kept.
+     */
+    public ParticipantTypeahead(PersonParticipationRepository personParticipationRepository,
+                                CompanyParticipationRepository companyParticipationRepository,
+                                @Value("${nullam.typeahead.maximum-participants:200000}") int maximumParticipants) {
+        this.personParticipationRepository = personParticipationRepository;
+        this.companyParticipationRepository = companyParticipationRepository;
+        this.maximumParticipants = maximumParticipants;
+        for (ParticipationSummaryDto.ParticipationType type : ParticipationSummaryDto.ParticipationType.values()) {
+            prefixes.put(type, new ConcurrentSkipListMap<>());
+        }
+    }
+
+    /**
+     * Load distinct participants once the application has started. Participants are streamed from
+     * the database and reading stops once the limit is reached, so only kept participants are loaded.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void build() {
+        try (Stream<ParticipantSuggestionDto> persons = personParticipationRepository.streamPersonSuggestions()) {
+            persons.takeWhile(person -> participants.size() < maximumParticipants).forEach(this::put);
+        }
+        if (participants.size() < maximumParticipants) {
+            try (Stream<ParticipantSuggestionDto> companies =
+                         companyParticipationRepository.streamCompanySuggestions()) {
+                companies.takeWhile(company -> participants.size() < maximumParticipants).forEach(this::put);
+            }
+        }
+        LOGGER.info(String.format("Loaded %1$d participants for name suggestions", participants.size()));
+    }
+
+    /**
+     * Add participants of a committed change. Removed participations are kept,
+     * as they were registered before and may register again.
+     * @param change change of event data.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEventDataChanged(EventDataChangedEvent change) {
+        if (!change.isParticipationChange()) {
+            personParticipationRepository.getPersonParticipationsByEvent_Id(change.getEventId()).forEach(this::put);
+            companyParticipationRepository.getCompanyParticipationsByEvent_Id(change.getEventId()).forEach(this::put);
+        } else if (change.getParticipationType() == ParticipationSummaryDto.ParticipationType.PERSON) {
+            personParticipationRepository.findById(change.getParticipationId()).ifPresent(this::put);
+        } else {
+            companyParticipationRepository.findById(change.getParticipationId()).ifPresent(this::put);
+        }
+    }
+
+    /**
+     * Get participants whose name or code starts with given text. Persons are also found by last name.
+     * Case and diacritics are ignored.
+     * @param prefix beginning of name or code.
+     * @param type type of participants to suggest, null for both.
+     * @param limit maximum number of suggestions.
+     * @return suggestions in alphabetical order of the matched key.
+     */
+    public List<ParticipantSuggestionDto> suggest(String prefix, ParticipationSummaryDto.ParticipationType type,
+                                                  int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        int maximum = Math.max(1, Math.min(limit, MAXIMUM_SUGGESTIONS));
+        Map<String, ParticipantSuggestionDto> found = new LinkedHashMap<>();
+        if (type != null) {
+            Iterator<Map.Entry<String, ParticipantSuggestionDto>> range = range(type, key);
+            while (range.hasNext() && found.size() < maximum) {
+                ParticipantSuggestionDto suggestion = range.next().getValue();
+                found.putIfAbsent(identity(suggestion), suggestion);
+            }
+            return new ArrayList<>(found.values());
+        }
+        // Merge the ranges of both types in key order
+        Iterator<Map.Entry<String, ParticipantSuggestionDto>> persons =
+                range(ParticipationSummaryDto.ParticipationType.PERSON, key);
+        Iterator<Map.Entry<String, ParticipantSuggestionDto>> companies =
+                range(ParticipationSummaryDto.ParticipationType.COMPANY, key);
+        Map.Entry<String, ParticipantSuggestionDto> person = persons.hasNext() ? persons.next() : null;
+        Map.Entry<String, ParticipantSuggestionDto> company = companies.hasNext() ? companies.next() : null;
+        while ((person != null || company != null) && found.size() < maximum) {
+            if (company == null || person != null && person.getKey().compareTo(company.getKey()) <= 0) {
+                found.putIfAbsent(identity(person.getValue()), person.getValue());
+                person = persons.hasNext() ? persons.next() : null;
+            } else {
+                found.putIfAbsent(identity(company.getValue()), company.getValue());
+                company = companies.hasNext() ? companies.next() : null;
+            }
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    /**
+     * Get keys of participants of one type starting with given key, in key order.
+     * @param type type of participants.
+     * @param key normalized beginning of key.
+     * @return iterator over matching keys.
+     */
+    private Iterator<Map.Entry<String, ParticipantSuggestionDto>> range(
+            ParticipationSummaryDto.ParticipationType type, String key) {
+        NavigableMap<String, ParticipantSuggestionDto> range =
+                prefixes.get(type).subMap(key, true, key + Character.MAX_VALUE, false);
+        return range.entrySet().iterator();
+    }
+
+    /**
+     * Get number of distinct participants kept.
+     * @return number of participants.
+     */
+    public int size() {
+        return participants.size();
+    }
+
+    /**
+     * Keep a person participant.
+     * @param person participation.
+     */
+    private void put(PersonParticipation person) {
+        put(new ParticipantSuggestionDto(person.getFirstName(), person.getLastName(), person.getPersonalCode()));
+    }
+
+    /**
+     * Keep a company participant.
+     * @param company participation.
+     */
+    private void put(CompanyParticipation company) {
+        put(new ParticipantSuggestionDto(company.getCompanyName(), company.getRegistryCode()));
+    }
+
+    /**
+     * Keep a participant, replacing the name kept for the same code.
+     * New participants are skipped once the limit is reached.
+     * @param suggestion participant.
+     */
+    private synchronized void put(ParticipantSuggestionDto suggestion) {
+        String identity = identity(suggestion);
+        ParticipantSuggestionDto previous = participants.get(identity);
+        if (previous == null && participants.size() >= maximumParticipants) {
+            if (fullReported.compareAndSet(false, true)) {
+                LOGGER.warning(String.format("Name suggestions are limited to %1$d participants", maximumParticipants));
+            }
+            return;
+        }
+        participants.put(identity, suggestion);
+        ConcurrentSkipListMap<String, ParticipantSuggestionDto> typePrefixes = prefixes.get(suggestion.getType());
+        List<String> keys = keys(suggestion);
+        keys.forEach(key -> typePrefixes.put(key, suggestion));
+        if (previous != null) {
+            keys(previous).stream().filter(key -> !keys.contains(key)).forEach(typePrefixes::remove);
+        }
+    }
+
+    /**
+     * Create sorted keys of a participant: name, last name first for persons, and code.
+     * Every key ends with the identity of the participant, so equal names do not overwrite each other.
+     * @param suggestion participant.
+     * @return keys.
+     */
+    private List<String> keys(ParticipantSuggestionDto suggestion) {
+        String suffix = KEY_SEPARATOR + identity(suggestion);
+        List<String> keys = new ArrayList<>();
+        keys.add(normalize(suggestion.getName()) + suffix);
+        if (suggestion.getType() == ParticipationSummaryDto.ParticipationType.PERSON) {
+            keys.add(normalize(suggestion.getLastName() + " " + suggestion.getFirstName()) + suffix);
+        }
+        keys.add(normalize(suggestion.getIdCode()) + suffix);
+        return keys;
+    }
+
+    /**
+     * Get identity of a participant, its type and code.
+     * @param suggestion participant.
+     * @return identity.
+     */
+    private static String identity(ParticipantSuggestionDto suggestion) {
+        return suggestion.getType().name().charAt(0) + suggestion.getIdCode();
+    }
+
+    /**
+     * Normalize text to a key: case and diacritics removed, words separated by single spaces.
+     * @param text text to normalize.
+     * @return key, empty if there are no letters or digits.
+     */
+    private static String normalize(String text) {
+        return SEPARATOR.matcher(SearchIndex.normalize(text)).replaceAll(" ").trim();
+    }
+}
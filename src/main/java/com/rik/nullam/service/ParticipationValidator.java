@@ -5,9 +5,23 @@ import com.rik.nullam.dto.PersonParticipationDto;
 import com.rik.nullam.dto.ValidationResult;
 
 import com.rik.nullam.entity.participation.PaymentMethod;
+import com.rik.nullam.repository.CompanyParticipationRepository;
 import com.rik.nullam.repository.EventRepository;
+import com.rik.nullam.repository.PersonParticipationRepository;
+import com.rik.nullam.repository.WaitlistEntryRepository;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+import static com.rik.nullam.service.ValidationResultErrorConstants.DUPLICATE_REGISTRATION;
 import static com.rik.nullam.service.ValidationResultErrorConstants.EVENT_NOT_FOUND;
 import static com.rik.nullam.service.ValidationResultErrorConstants.INFO_TOO_LONG;
 import static com.rik.nullam.service.ValidationResultErrorConstants.INVALID_CODE_FORMAT;
@@ -23,11 +37,28 @@ public class ParticipationValidator {
     private static final String COMPANY_CODE_REGEX = "^\\d{7,8}$";
     private static final int MAXIMUM_PERSON_INFO_LENGTH = 1500;
     private static final int MAXIMUM_COMPANY_INFO_LENGTH = 5000;
+    private static final int CODES_PER_QUERY = 500;
 
     private final EventRepository eventRepository;
+    private final PersonParticipationRepository personParticipationRepository;
+    private final CompanyParticipationRepository companyParticipationRepository;
+    private final WaitlistEntryRepository waitlistEntryRepository;
 
-    public ParticipationValidator(EventRepository eventRepository) {
+    /**
+     * Participation validator constructor.
+     * @param eventRepository event repository.
+     * @param personParticipationRepository person participation repository.
+     * @param companyParticipationRepository company participation repository.
+     * @param waitlistEntryRepository waitlist entry repository.
+     */
+    public ParticipationValidator(EventRepository eventRepository,
+                                  PersonParticipationRepository personParticipationRepository,
+                                  CompanyParticipationRepository companyParticipationRepository,
+                                  WaitlistEntryRepository waitlistEntryRepository) {
         this.eventRepository = eventRepository;
+        this.personParticipationRepository = personParticipationRepository;
+        this.companyParticipationRepository = companyParticipationRepository;
+        this.waitlistEntryRepository = waitlistEntryRepository;
     }
 
     /**
@@ -36,6 +67,87 @@ public class ParticipationValidator {
      * @return validation result.
      */
     public ValidationResult validatePerson(PersonParticipationDto dto) {
+        return validatePerson(dto, eventRepository::existsById, this::isRegistered);
+    }
+
+    /**
+     * Validate person participations against events that are already known to exist.
+     * Registered persons are looked up with one query per event, a person repeated in the list
+     * is a duplicate of its first occurrence.
+     * @param dtos infos to validate.
+     * @param existingEventIds ids of events that exist.
+     * @return validation results in the same order as infos.
+     */
+    public List<ValidationResult> validatePersons(List<PersonParticipationDto> dtos, Set<Long> existingEventIds) {
+        Map<Long, Set<String>> codesByEvent = new HashMap<>();
+        for (PersonParticipationDto dto : dtos) {
+            if (existingEventIds.contains(dto.getEventId()) && dto.getPersonalCode() != null) {
+                codesByEvent.computeIfAbsent(dto.getEventId(), id -> new HashSet<>()).add(dto.getPersonalCode());
+            }
+        }
+        Set<String> registered = findRegistered(codesByEvent,
+                personParticipationRepository::findRegisteredPersonalCodes,
+                waitlistEntryRepository::findWaitingPersonalCodes);
+
+        Set<String> seen = new HashSet<>();
+        List<ValidationResult> results = new ArrayList<>();
+        for (PersonParticipationDto dto : dtos) {
+            results.add(validatePerson(dto, existingEventIds::contains, person -> {
+                String key = registrationKey(person.getEventId(), person.getPersonalCode());
+                return registered.contains(key) || !seen.add(key);
+            }));
+        }
+        return results;
+    }
+
+    /**
+     * Validate if company participation info is correct.
+     * @param dto info to validate.
+     * @return validation result.
+     */
+    public ValidationResult validateCompany(CompanyParticipationDto dto) {
+        return validateCompany(dto, eventRepository::existsById, this::isRegistered);
+    }
+
+    /**
+     * Validate company participations against events that are already known to exist.
+     * Registered companies are looked up with one query per event, a company repeated in the list
+     * is a duplicate of its first occurrence.
+     * @param dtos infos to validate.
+     * @param existingEventIds ids of events that exist.
+     * @return validation results in the same order as infos.
+     */
+    public List<ValidationResult> validateCompanies(List<CompanyParticipationDto> dtos, Set<Long> existingEventIds) {
+        Map<Long, Set<String>> codesByEvent = new HashMap<>();
+        for (CompanyParticipationDto dto : dtos) {
+            if (existingEventIds.contains(dto.getEventId()) && dto.getRegistryCode() != null) {
+                codesByEvent.computeIfAbsent(dto.getEventId(), id -> new HashSet<>()).add(dto.getRegistryCode());
+            }
+        }
+        Set<String> registered = findRegistered(codesByEvent,
+                companyParticipationRepository::findRegisteredRegistryCodes,
+                waitlistEntryRepository::findWaitingRegistryCodes);
+
+        Set<String> seen = new HashSet<>();
+        List<ValidationResult> results = new ArrayList<>();
+        for (CompanyParticipationDto dto : dtos) {
+            results.add(validateCompany(dto, existingEventIds::contains, company -> {
+                String key = registrationKey(company.getEventId(), company.getRegistryCode());
+                return registered.contains(key) || !seen.add(key);
+            }));
+        }
+        return results;
+    }
+
+    /**
+     * Validate if person participation info is correct.
+     * @param dto info to validate.
+     * @param eventExists check if event with given id exists.
+     * @param isDuplicate check if person is already registered to the event.
+     * @return validation result.
+     */
+    private ValidationResult validatePerson(PersonParticipationDto dto, Predicate<Long> eventExists,
+                                            Predicate<PersonParticipationDto> isDuplicate) {
         ValidationResult result = new ValidationResult();
 
         if (dto.getEventId() == null ||
@@ -55,7 +167,7 @@ public class ParticipationValidator {
             result.addError(INFO_TOO_LONG);
         }
 
-        if (!eventRepository.existsById(dto.getEventId())) {
+        if (!eventExists.test(dto.getEventId())) {
             result.addError(EVENT_NOT_FOUND);
         }
 
@@ -65,15 +177,21 @@ public class ParticipationValidator {
             result.addError(INVALID_PAYMENT);
         }
 
+        if (result.isValid() && isDuplicate.test(dto)) {
+            result.addError(DUPLICATE_REGISTRATION);
+        }
         return result;
     }
 
     /**
      * Validate if company participation info is correct.
      * @param dto info to validate.
+     * @param eventExists check if event with given id exists.
+     * @param isDuplicate check if company is already registered to the event.
      * @return validation result.
      */
-    public ValidationResult validateCompany(CompanyParticipationDto dto) {
+    private ValidationResult validateCompany(CompanyParticipationDto dto, Predicate<Long> eventExists,
+                                             Predicate<CompanyParticipationDto> isDuplicate) {
         ValidationResult result = new ValidationResult();
 
         if (dto.getEventId() == null ||
@@ -98,7 +216,7 @@ public class ParticipationValidator {
             result.addError(INFO_TOO_LONG);
         }
 
-        if (!eventRepository.existsById(dto.getEventId())) {
+        if (!eventExists.test(dto.getEventId())) {
             result.addError(EVENT_NOT_FOUND);
         }
 
@@ -107,9 +225,77 @@ public class ParticipationValidator {
         } catch (IllegalArgumentException e) {
             result.addError(INVALID_PAYMENT);
         }
+
+        if (result.isValid() && isDuplicate.test(dto)) {
+            result.addError(DUPLICATE_REGISTRATION);
+        }
         return result;
     }
 
+    /**
+     * Check if person is registered to the event or waiting for it, leaving out the edited participation.
+     * Each lookup is a single row probe of the (event_id, personal_code) unique index.
+     * @param dto person info.
+     * @return true if already registered.
+     */
+    private boolean isRegistered(PersonParticipationDto dto) {
+        boolean participates = dto.getParticipationId() == null
+                ? personParticipationRepository.existsByEvent_IdAndPersonalCode(dto.getEventId(),
+                        dto.getPersonalCode())
+                : personParticipationRepository.existsByEvent_IdAndPersonalCodeAndIdNot(dto.getEventId(),
+                        dto.getPersonalCode(), dto.getParticipationId());
+        return participates || waitlistEntryRepository.existsByEvent_IdAndPersonalCode(dto.getEventId(),
+                dto.getPersonalCode());
+    }
+
+    /**
+     * Check if company is registered to the event or waiting for it, leaving out the edited participation.
+     * Each lookup is a single row probe of the (event_id, registry_code) unique index.
+     * @param dto company info.
+     * @return true if already registered.
+     */
+    private boolean isRegistered(CompanyParticipationDto dto) {
+        boolean participates = dto.getParticipationId() == null
+                ? companyParticipationRepository.existsByEvent_IdAndRegistryCode(dto.getEventId(),
+                        dto.getRegistryCode())
+                : companyParticipationRepository.existsByEvent_IdAndRegistryCodeAndIdNot(dto.getEventId(),
+                        dto.getRegistryCode(), dto.getParticipationId());
+        return participates || waitlistEntryRepository.existsByEvent_IdAndRegistryCode(dto.getEventId(),
+                dto.getRegistryCode());
+    }
+
+    /**
+     * Find codes that are registered to or waiting for their event, a few hundred codes per query.
+     * @param codesByEvent codes to look for by event id.
+     * @param findRegistered finds registered codes of an event.
+     * @param findWaiting finds waiting codes of an event.
+     * @return registration keys of found codes.
+     */
+    private Set<String> findRegistered(Map<Long, Set<String>> codesByEvent,
+                                       BiFunction<Long, Collection<String>, List<String>> findRegistered,
+                                       BiFunction<Long, Collection<String>, List<String>> findWaiting) {
+        Set<String> registered = new HashSet<>();
+        codesByEvent.forEach((eventId, codes) -> {
+            List<String> codeList = new ArrayList<>(codes);
+            for (int from = 0; from < codeList.size(); from += CODES_PER_QUERY) {
+                List<String> chunk = codeList.subList(from, Math.min(from + CODES_PER_QUERY, codeList.size()));
+                findRegistered.apply(eventId, chunk).forEach(code -> registered.add(registrationKey(eventId, code)));
+                findWaiting.apply(eventId, chunk).forEach(code -> registered.add(registrationKey(eventId, code)));
+            }
+        });
+        return registered;
+    }
+
+    /**
+     * Key of a registration of a code to an event.
+     * @param eventId event id.
+     * @param code personal or registry code.
+     * @return registration key.
+     */
+    private String registrationKey(Long eventId, String code) {
+        return eventId + ":" + code;
+    }
+
     /**
      * Check if field is null or blank.
      * @param field string to check.
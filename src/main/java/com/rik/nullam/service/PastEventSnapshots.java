@@ -0,0 +1,285 @@
+package com.rik.nullam.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rik.nullam.dto.EventSummaryDto;
+import com.rik.nullam.dto.ParticipationSummaryDto;
+import com.rik.nullam.repository.EventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Immutable JSON snapshots of past events. Participations of an event can not be added, changed or removed
+ * once the event has started, so its summary and participant list are serialized once and the same bytes,
+ * optionally also gzipped, are served to every later request. The list of past events only grows when the
+ * next event starts, so its snapshot is kept until then. Snapshots are limited by their total size in bytes.
+ */
+@Component
+public class PastEventSnapshots {
+
+    private final EventService eventService;
+    private final EventRepository eventRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean gzip;
+
+    private final Cache<String, Snapshot<?>> snapshots;
+    private volatile PastEventsSnapshot pastEvents;
+
+    /**
+     * Snapshot of data serialized to JSON.
+     * @param <T> type of data.
+     */
+    public static final class Snapshot<T> {
+        private final T value;
+        private final byte[] json;
+        private final byte[] gzippedJson;
+        private final String etag;
+
+        /**
+         * Snapshot constructor.
+         * @param value data, must not be changed afterwards.
+         * @param json data serialized to JSON.
+         * @param gzippedJson gzipped JSON, null if not gzipped.
+         * @param etag entity tag of the JSON, without quotes.
+         */
+        private Snapshot(T value, byte[] json, byte[] gzippedJson, String etag) {
+            this.value = value;
+            this.json = json;
+            this.gzippedJson = gzippedJson;
+            this.etag = etag;
+        }
+
+        /**
+         * Get data of the snapshot.
+         * @return data.
+         */
+        public T getValue() {
+            return value;
+        }
+
+        /**
+         * Get JSON of the snapshot. The array is shared and must not be changed.
+         * @return JSON bytes in UTF-8.
+         */
+        public byte[] getJson() {
+            return json;
+        }
+
+        /**
+         * Get gzipped JSON of the snapshot. The array is shared and must not be changed.
+         * @return gzipped JSON bytes, null if gzipping is disabled.
+         */
+        public byte[] getGzippedJson() {
+            return gzippedJson;
+        }
+
+        /**
+         * Get strong entity tag of the snapshot, built from its JSON.
+         * @return quoted entity tag.
+         */
+        public String getEtag() {
+            return "\"" + etag + "\"";
+        }
+
+        /**
+         * Get strong entity tag of the gzipped snapshot, which differs from the tag of the plain JSON.
+         * @return quoted entity tag.
+         */
+        public String getGzippedEtag() {
+            return "\"" + etag + "-gzip\"";
+        }
+
+        /**
+         * Get number of bytes held by the snapshot.
+         * @return size in bytes.
+         */
+        private int getSize() {
+            return json.length + (gzippedJson == null ? 0 : gzippedJson.length);
+        }
+    }
+
+    /**
+     * Snapshot of the list of past events with the time until which the list stays the same.
+     */
+    private static final class PastEventsSnapshot {
+        private final Snapshot<List<EventSummaryDto>> snapshot;
+        private final LocalDateTime validUntil;
+        private final Set<Long> eventIds;
+
+        /**
+         * Past events snapshot constructor.
+         * @param snapshot snapshot of the list.
+         * @param validUntil start time of the next event, null if there is none.
+         */
+        private PastEventsSnapshot(Snapshot<List<EventSummaryDto>> snapshot, LocalDateTime validUntil) {
+            this.snapshot = snapshot;
+            this.validUntil = validUntil;
+            this.eventIds = snapshot.getValue().stream().map(EventSummaryDto::getId).collect(Collectors.toSet());
+        }
+
+        /**
+         * Check if the list is still the list of past events.
+         * @param now current time.
+         * @return true if no event has started since the snapshot was taken.
+         */
+        private boolean isValidAt(LocalDateTime now) {
+            return validUntil == null || now.isBefore(validUntil);
+        }
+
+        /**
+         * Check if an event starts before the list expires, so that it would be missing from the list
+         * once it has started.
+         * @param summary summary of event, null if event does not exist.
+         * @return true if the event starts before the next event known when the snapshot was taken.
+         */
+        private boolean startsBeforeExpiry(EventSummaryDto summary) {
+            return summary != null && (validUntil == null || summary.getTime().isBefore(validUntil));
+        }
+    }
+
+    /**
+     * Past event snapshots constructor.
+     * @param eventService event service.
+     * @param eventRepository event repository.
+     * @param objectMapper mapper used for the JSON responses.
+     * @param maximumBytes maximum total size of per event snapshots in bytes.
+     * @param gzip true to also keep a gzipped copy of every snapshot.
+     */
+    public PastEventSnapshots(EventService eventService, EventRepository eventRepository, ObjectMapper objectMapper,
+                              @Value("${nullam.snapshots.maximum-bytes:67108864}") long maximumBytes,
+                              @Value("${nullam.snapshots.gzip:true}") boolean gzip) {
+        this.eventService = eventService;
+        this.eventRepository = eventRepository;
+        this.objectMapper = objectMapper;
+        this.gzip = gzip;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher((String key, Snapshot<?> snapshot) -> snapshot.getSize())
+                .build();
+    }
+
+    /**
+     * Get snapshot of the list of past events, taken again once another event has started.
+     * @return snapshot of past event summaries.
+     */
+    public Snapshot<List<EventSummaryDto>> getPastEvents() {
+        LocalDateTime now = LocalDateTime.now();
+        PastEventsSnapshot current = pastEvents;
+        if (current != null && current.isValidAt(now)) {
+            return current.snapshot;
+        }
+        LocalDateTime validUntil = eventRepository.findNextEventTimeAfter(now).orElse(null);
+        current = new PastEventsSnapshot(createSnapshot(eventService.getPastEventsSummaries()), validUntil);
+        pastEvents = current;
+        return current.snapshot;
+    }
+
+    /**
+     * Get snapshot of the summary of an event that has started.
+     * @param eventId id of event.
+     * @return snapshot, null if event does not exist or has not started yet.
+     */
+    public Snapshot<EventSummaryDto> getSummary(Long eventId) {
+        return getSnapshot("summary-" + eventId, eventId, () -> eventService.getEventSummaryById(eventId));
+    }
+
+    /**
+     * Get snapshot of the participants of an event that has started.
+     * @param eventId id of event.
+     * @return snapshot, null if event does not exist or has not started yet.
+     */
+    public Snapshot<List<ParticipationSummaryDto>> getParticipants(Long eventId) {
+        return getSnapshot("participants-" + eventId, eventId,
+                () -> eventService.getEventParticipantSummariesList(eventId));
+    }
+
+    /**
+     * Drop snapshots of the changed event. Started events do not change, this only covers a change
+     * committed right after the event started. The list of past events is also dropped when an event
+     * is created that starts before the list would expire.
+     * @param change change of event data.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEventDataChanged(EventDataChangedEvent change) {
+        snapshots.invalidate("summary-" + change.getEventId());
+        snapshots.invalidate("participants-" + change.getEventId());
+        PastEventsSnapshot current = pastEvents;
+        if (current == null) {
+            return;
+        }
+        if (current.eventIds.contains(change.getEventId()) || (!change.isParticipationChange()
+                && current.startsBeforeExpiry(eventService.getEventSummaryById(change.getEventId())))) {
+            pastEvents = null;
+        }
+    }
+
+    /**
+     * Get snapshot of an event, taking it if the event has started.
+     * @param key key of snapshot.
+     * @param eventId id of event.
+     * @param loader loads the data of the snapshot.
+     * @return snapshot, null if event does not exist or has not started yet.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Snapshot<T> getSnapshot(String key, Long eventId, Supplier<T> loader) {
+        Snapshot<T> snapshot = (Snapshot<T>) snapshots.getIfPresent(key);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        EventSummaryDto summary = eventService.getEventSummaryById(eventId);
+        if (summary == null || !summary.getTime().isBefore(LocalDateTime.now())) {
+            return null;
+        }
+        return (Snapshot<T>) snapshots.get(key, ignored -> createSnapshot(loader.get()));
+    }
+
+    /**
+     * Serialize data into a snapshot.
+     * @param value data.
+     * @return snapshot.
+     */
+    private <T> Snapshot<T> createSnapshot(T value) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(json);
+        String etag = String.format("%1$s-%2$s", Integer.toString(json.length, 36),
+                HexFormat.of().toHexDigits((int) checksum.getValue()));
+        return new Snapshot<>(value, json, gzip ? gzip(json) : null, etag);
+    }
+
+    /**
+     * Gzip bytes.
+     * @param bytes bytes to compress.
+     * @return compressed bytes.
+     */
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+}
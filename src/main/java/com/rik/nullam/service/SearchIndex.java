@@ -0,0 +1,398 @@
+package com.rik.nullam.service;
+
+import com.rik.nullam.dto.ParticipationSummaryDto;
+import com.rik.nullam.dto.SearchResultDto;
+import com.rik.nullam.entity.event.Event;
+import com.rik.nullam.entity.participation.CompanyParticipation;
+import com.rik.nullam.entity.participation.PersonParticipation;
+import com.rik.nullam.repository.CompanyParticipationRepository;
+import com.rik.nullam.repository.EventRepository;
+import com.rik.nullam.repository.PersonParticipationRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over event names, locations and additional info, participant names,
+ * personal codes and registry codes. Every token points to the records containing it, so a query
+ * only reads the records of its rarest token instead of scanning the participation tables.
+ * The index is built on startup and kept up to date from committed event data changes.
+ */
+@Component
+public class SearchIndex {
+
+    private static final Logger LOGGER = Logger.getLogger(SearchIndex.class.getName());
+    private static final Locale ESTONIAN = Locale.forLanguageTag("et");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAXIMUM_QUERY_TOKENS = 8;
+    private static final int MAXIMUM_RESULTS = 100;
+
+    private static final int EVENT_KIND = 0;
+    private static final int PERSON_KIND = 1;
+    private static final int COMPANY_KIND = 2;
+
+    private static final Comparator<SearchResultDto> RESULT_ORDER = Comparator
+            .comparing(SearchResultDto::getType)
+            .thenComparing(SearchResultDto::getName, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(SearchResultDto::getEventId)
+            .thenComparing(SearchResultDto::getParticipationId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final EventRepository eventRepository;
+    private final PersonParticipationRepository personParticipationRepository;
+    private final CompanyParticipationRepository companyParticipationRepository;
+
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, SearchResultDto> documents = new ConcurrentHashMap<>();
+    private final Map<Long, String[]> documentTokens = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> documentsByEvent = new ConcurrentHashMap<>();
+
+    /**
+     * Search index constructor.
+     * @param eventRepository event repository.
+     * @param personParticipationRepository person participation repository.
+     * @param companyParticipationRepository company participation repository.
+     */
+    public SearchIndex(EventRepository eventRepository,
+                       PersonParticipationRepository personParticipationRepository,
+                       CompanyParticipationRepository companyParticipationRepository) {
+        this.eventRepository = eventRepository;
+        this.personParticipationRepository = personParticipationRepository;
+        this.companyParticipationRepository = companyParticipationRepository;
+    }
+
+    /**
+     * Index all events and participations once the application has started. Participations are streamed
+     * as search records with one query per participation type instead of being loaded per event.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public synchronized void build() {
+        long start = System.nanoTime();
+        for (Event event : eventRepository.findAll()) {
+            putEvent(event);
+        }
+        try (Stream<SearchResultDto> persons = personParticipationRepository.streamSearchResults()) {
+            persons.forEach(person -> putParticipation(PERSON_KIND, person));
+        }
+        try (Stream<SearchResultDto> companies = companyParticipationRepository.streamSearchResults()) {
+            companies.forEach(company -> putParticipation(COMPANY_KIND, company));
+        }
+        LOGGER.info(String.format("Indexed %1$d records in %2$d ms",
+                documents.size(), (System.nanoTime() - start) / 1_000_000));
+    }
+
+    /**
+     * Update the index once a change to event data has been committed. A change of one participation
+     * only reloads that participation, other changes reload the event with all its participations.
+     * Records are read through the connection of the committed transaction, so indexing does not
+     * wait for a second connection from the pool while that one is still held.
+     * @param change change of event data.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEventDataChanged(EventDataChangedEvent change) {
+        if (change.isParticipationChange()) {
+            reindexParticipation(change.getEventId(), change.getParticipationType(), change.getParticipationId());
+            return;
+        }
+        Optional<Event> optionalEvent = eventRepository.findEventById(change.getEventId());
+        if (optionalEvent.isPresent()) {
+            reindexEvent(optionalEvent.get());
+        } else {
+            removeEvent(change.getEventId());
+        }
+    }
+
+    /**
+     * Find events and participants containing every word of the query. Letters are compared
+     * without case and diacritics, so "parnu" finds "Pärnu" and "oismae" finds "Õismäe".
+     * @param query words to search for.
+     * @param limit maximum number of results.
+     * @return matching records, events first and then by name.
+     */
+    public List<SearchResultDto> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        List<Set<Long>> matches = new ArrayList<>();
+        for (String token : tokens.subList(0, Math.min(tokens.size(), MAXIMUM_QUERY_TOKENS))) {
+            Set<Long> keys = postings.get(token);
+            if (keys == null) {
+                return List.of();
+            }
+            matches.add(keys);
+        }
+        // Walk the rarest token and check the others, so the cost does not depend on common words.
+        // Only the first results in result order are kept, so truncation does not depend on hash order.
+        matches.sort(Comparator.comparingInt(Set::size));
+        int maximum = Math.max(1, Math.min(limit, MAXIMUM_RESULTS));
+        PriorityQueue<SearchResultDto> best = new PriorityQueue<>(RESULT_ORDER.reversed());
+        for (Long key : matches.get(0)) {
+            if (!containsInAll(matches, key)) continue;
+            SearchResultDto document = documents.get(key);
+            if (document != null) {
+                best.add(document);
+                if (best.size() > maximum) {
+                    best.poll();
+                }
+            }
+        }
+        List<SearchResultDto> results = new ArrayList<>(best);
+        results.sort(RESULT_ORDER);
+        return results;
+    }
+
+    /**
+     * Get number of indexed events and participations.
+     * @return number of records.
+     */
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Normalize text for comparison: lower case, diacritics removed, so õ, ä, ö and ü match o, a, o and u.
+     * @param text text to normalize.
+     * @return normalized text, empty if text is null.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text.toLowerCase(ESTONIAN), Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("");
+    }
+
+    /**
+     * Split texts into distinct normalized words.
+     * @param texts texts to split, nulls are skipped.
+     * @return words in order of appearance.
+     */
+    static List<String> tokenize(String... texts) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String text : texts) {
+            for (String token : TOKEN_SEPARATOR.split(normalize(text))) {
+                if (!token.isEmpty()) {
+                    tokens.add(token);
+                }
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    /**
+     * Check if a record is among the matches of every token.
+     * @param matches records matching each token.
+     * @param key key of record.
+     * @return true if every token matches the record.
+     */
+    private boolean containsInAll(List<Set<Long>> matches, Long key) {
+        for (int i = 1; i < matches.size(); i++) {
+            if (!matches.get(i).contains(key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Index an event with all its participations and drop records of participations that are gone.
+     * @param event event to index.
+     */
+    private synchronized void reindexEvent(Event event) {
+        Long eventId = event.getId();
+        Set<Long> stale = new HashSet<>(documentsByEvent.getOrDefault(eventId, Set.of()));
+        stale.remove(putEvent(event));
+
+        for (PersonParticipation person : personParticipationRepository.getPersonParticipationsByEvent_Id(eventId)) {
+            stale.remove(putPerson(eventId, event.getName(), person));
+        }
+        for (CompanyParticipation company
+                : companyParticipationRepository.getCompanyParticipationsByEvent_Id(eventId)) {
+            stale.remove(putCompany(eventId, event.getName(), company));
+        }
+        stale.forEach(key -> remove(eventId, key));
+    }
+
+    /**
+     * Index one participation, or drop it if it does not exist anymore.
+     * @param eventId id of event of the participation.
+     * @param type type of participation.
+     * @param participationId id of participation.
+     */
+    private synchronized void reindexParticipation(Long eventId, ParticipationSummaryDto.ParticipationType type,
+                                                   Long participationId) {
+        SearchResultDto eventDocument = documents.get(key(EVENT_KIND, eventId));
+        String eventName = eventDocument == null ? null : eventDocument.getName();
+        if (type == ParticipationSummaryDto.ParticipationType.PERSON) {
+            Optional<PersonParticipation> person = personParticipationRepository.findById(participationId);
+            if (person.isPresent()) {
+                putPerson(eventId, eventName, person.get());
+            } else {
+                remove(eventId, key(PERSON_KIND, participationId));
+            }
+        } else {
+            Optional<CompanyParticipation> company = companyParticipationRepository.findById(participationId);
+            if (company.isPresent()) {
+                putCompany(eventId, eventName, company.get());
+            } else {
+                remove(eventId, key(COMPANY_KIND, participationId));
+            }
+        }
+    }
+
+    /**
+     * Index an event without its participations.
+     * @param event event.
+     * @return key of the record.
+     */
+    private long putEvent(Event event) {
+        long key = key(EVENT_KIND, event.getId());
+        put(event.getId(), key, new SearchResultDto(SearchResultDto.ResultType.EVENT, event.getId(), event.getName(),
+                null, event.getName(), event.getLocation()),
+                tokenize(event.getName(), event.getLocation(), event.getAdditionalInfo()));
+        return key;
+    }
+
+    /**
+     * Index a participation from its search record. The name and detail hold the same words as the
+     * participation, so the tokens match those of {@link #putPerson} and {@link #putCompany}.
+     * @param kind type of record.
+     * @param document search record of the participation.
+     */
+    private void putParticipation(int kind, SearchResultDto document) {
+        put(document.getEventId(), key(kind, document.getParticipationId()), document,
+                tokenize(document.getName(), document.getDetail()));
+    }
+
+    /**
+     * Index a person participation.
+     * @param eventId id of event.
+     * @param eventName name of event.
+     * @param person participation.
+     * @return key of the record.
+     */
+    private long putPerson(Long eventId, String eventName, PersonParticipation person) {
+        long key = key(PERSON_KIND, person.getId());
+        put(eventId, key, new SearchResultDto(SearchResultDto.ResultType.PERSON, eventId, eventName, person.getId(),
+                String.format("%1$s %2$s", person.getFirstName(), person.getLastName()), person.getPersonalCode()),
+                tokenize(person.getFirstName(), person.getLastName(), person.getPersonalCode()));
+        return key;
+    }
+
+    /**
+     * Index a company participation.
+     * @param eventId id of event.
+     * @param eventName name of event.
+     * @param company participation.
+     * @return key of the record.
+     */
+    private long putCompany(Long eventId, String eventName, CompanyParticipation company) {
+        long key = key(COMPANY_KIND, company.getId());
+        put(eventId, key, new SearchResultDto(SearchResultDto.ResultType.COMPANY, eventId, eventName, company.getId(),
+                company.getCompanyName(), company.getRegistryCode()),
+                tokenize(company.getCompanyName(), company.getRegistryCode()));
+        return key;
+    }
+
+    /**
+     * Add or replace a record. New tokens are added before old ones are dropped,
+     * so a record does not disappear from results while it is being updated.
+     * @param eventId id of event the record belongs to.
+     * @param key key of record.
+     * @param document search result returned for the record.
+     * @param tokens words of the record.
+     */
+    private void put(Long eventId, long key, SearchResultDto document, List<String> tokens) {
+        documents.put(key, document);
+        documentsByEvent.computeIfAbsent(eventId, id -> ConcurrentHashMap.newKeySet()).add(key);
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+        String[] previous = documentTokens.put(key, tokens.toArray(new String[0]));
+        if (previous != null) {
+            Set<String> current = new HashSet<>(tokens);
+            removePostings(key, Arrays.stream(previous).filter(token -> !current.contains(token)).toList());
+        }
+    }
+
+    /**
+     * Drop a record.
+     * @param eventId id of event the record belongs to.
+     * @param key key of record.
+     */
+    private void remove(Long eventId, long key) {
+        String[] tokens = documentTokens.remove(key);
+        if (tokens != null) {
+            removePostings(key, Arrays.asList(tokens));
+        }
+        documents.remove(key);
+        Set<Long> keys = documentsByEvent.get(eventId);
+        if (keys != null) {
+            keys.remove(key);
+        }
+    }
+
+    /**
+     * Drop an event with all its participations.
+     * @param eventId id of event.
+     */
+    private synchronized void removeEvent(Long eventId) {
+        Set<Long> keys = documentsByEvent.remove(eventId);
+        if (keys == null) {
+            return;
+        }
+        for (Long key : keys) {
+            String[] tokens = documentTokens.remove(key);
+            if (tokens != null) {
+                removePostings(key, Arrays.asList(tokens));
+            }
+            documents.remove(key);
+        }
+    }
+
+    /**
+     * Remove a record from the postings of given tokens, dropping tokens no record contains anymore.
+     * @param key key of record.
+     * @param tokens tokens to remove the record from.
+     */
+    private void removePostings(long key, List<String> tokens) {
+        for (String token : tokens) {
+            postings.computeIfPresent(token, (t, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    /**
+     * Create key of a record, ids of different record types may be equal.
+     * @param kind type of record.
+     * @param id id of event or participation.
+     * @return key unique over all record types.
+     */
+    private static long key(int kind, Long id) {
+        return (id << 2) | kind;
+    }
+}
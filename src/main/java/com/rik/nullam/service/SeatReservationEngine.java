@@ -0,0 +1,218 @@
+package com.rik.nullam.service;
+
+import com.rik.nullam.entity.event.Event;
+import com.rik.nullam.repository.EventRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Admits participants to events without exceeding event capacity.
+ * Every event has an in-memory counter of free seats that is decremented with compare-and-set,
+ * so requests to a full event are rejected without touching the database. Admitted requests then
+ * reserve the seats with a conditional update, which is what guarantees the capacity is never exceeded.
+ * A counter that turns a request down is checked against the database, at most once per second per event,
+ * so seats freed by other instances or by count repairs are found without a restart.
+ * Writers to different events never wait for each other, writers to one event only wait for its row.
+ */
+@Component
+public class SeatReservationEngine {
+
+    private static final Logger LOGGER = Logger.getLogger(SeatReservationEngine.class.getName());
+    private static final int UNLIMITED = Integer.MAX_VALUE;
+    private static final long RECHECK_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final EventRepository eventRepository;
+    private final ConcurrentHashMap<Long, AtomicInteger> availableSeats = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> lastRechecks = new ConcurrentHashMap<>();
+
+    /**
+     * Seat reservation engine constructor.
+     * @param eventRepository event repository.
+     */
+    public SeatReservationEngine(EventRepository eventRepository) {
+        this.eventRepository = eventRepository;
+    }
+
+    /**
+     * Reserve seats for participants. If the surrounding transaction is rolled back,
+     * the seats are given back to the counter.
+     * @param eventId id of event.
+     * @param seats number of participants.
+     * @return true if seats were reserved, false if event is full or not found.
+     */
+    public boolean reserve(Long eventId, int seats) {
+        AtomicInteger available = getAvailableSeats(eventId);
+        if (available == null) {
+            return false;
+        }
+        if (!take(available, seats) && !(recheck(eventId, available) && take(available, seats))) {
+            return false;
+        }
+        if (eventRepository.reserveSeats(eventId, seats) == 0) {
+            // Counter was ahead of the database, load it again on next reservation
+            availableSeats.remove(eventId, available);
+            LOGGER.fine(String.format("Seat counter of event %1$d was out of date", eventId));
+            return false;
+        }
+        afterCompletion(committed -> {
+            if (!committed) {
+                add(available, seats);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Reserve seats that were released earlier in the same transaction, e.g. for waitlisted participants.
+     * The counter does not have the released seats yet, so only the database checks the capacity
+     * and the seats are taken from the counter once the transaction is committed.
+     * @param eventId id of event.
+     * @param seats number of participants.
+     * @return true if seats were reserved.
+     */
+    public boolean reserveReleased(Long eventId, int seats) {
+        if (eventRepository.reserveSeats(eventId, seats) == 0) {
+            return false;
+        }
+        afterCompletion(committed -> {
+            AtomicInteger available = availableSeats.get(eventId);
+            if (committed && available != null) {
+                add(available, -seats);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Release seats of removed participants. Seats become available once the transaction is committed.
+     * @param eventId id of event.
+     * @param seats number of participants removed.
+     */
+    public void release(Long eventId, int seats) {
+        eventRepository.adjustParticipantCount(eventId, -seats);
+        afterCompletion(committed -> {
+            AtomicInteger available = availableSeats.get(eventId);
+            if (committed && available != null) {
+                add(available, seats);
+            }
+        });
+    }
+
+    /**
+     * Forget the counter of a deleted event once the deletion is committed.
+     * @param eventId id of event.
+     */
+    public void forget(Long eventId) {
+        afterCompletion(committed -> {
+            if (committed) {
+                availableSeats.remove(eventId);
+                lastRechecks.remove(eventId);
+            }
+        });
+    }
+
+    /**
+     * Get number of free seats known to the engine, loading it from the database if needed.
+     * @param eventId id of event.
+     * @return counter of free seats, null if event does not exist.
+     */
+    private AtomicInteger getAvailableSeats(Long eventId) {
+        AtomicInteger available = availableSeats.get(eventId);
+        if (available != null) {
+            return available;
+        }
+        Optional<Event> optionalEvent = eventRepository.findEventById(eventId);
+        if (optionalEvent.isEmpty()) {
+            return null;
+        }
+        Event event = optionalEvent.get();
+        int free = event.getCapacity() == null
+                ? UNLIMITED
+                : Math.max(0, event.getCapacity() - event.getParticipantCount());
+        AtomicInteger created = new AtomicInteger(free);
+        AtomicInteger existing = availableSeats.putIfAbsent(eventId, created);
+        return existing == null ? created : existing;
+    }
+
+    /**
+     * Raise a counter that turned down a reservation to the free seats in the database, if there are more.
+     * The counter can fall behind when seats are released by another instance, when the participant count is
+     * repaired, or when a release commits while the counter is being created. Checked at most once per interval
+     * per event, so requests to a full event mostly stay off the database.
+     * @param eventId id of event.
+     * @param available counter of free seats.
+     * @return true if the counter was raised.
+     */
+    private boolean recheck(Long eventId, AtomicInteger available) {
+        long now = System.nanoTime();
+        Long last = lastRechecks.get(eventId);
+        if (last != null && now - last < RECHECK_INTERVAL_NANOS) {
+            return false;
+        }
+        lastRechecks.put(eventId, now);
+        Optional<Integer> free = eventRepository.findFreeSeats(eventId);
+        int current = available.get();
+        if (free.isEmpty() || free.get() <= current) {
+            return false;
+        }
+        // A counter that ends up too high is safe, the conditional update rejects and reloads it
+        available.compareAndSet(current, free.get());
+        LOGGER.fine(String.format("Seat counter of event %1$d was behind the database", eventId));
+        return true;
+    }
+
+    /**
+     * Take seats from the counter if there are enough of them.
+     * @param available counter of free seats.
+     * @param seats number of seats to take.
+     * @return true if seats were taken.
+     */
+    private boolean take(AtomicInteger available, int seats) {
+        while (true) {
+            int current = available.get();
+            if (current == UNLIMITED) {
+                return true;
+            }
+            if (current < seats) {
+                return false;
+            }
+            if (available.compareAndSet(current, current - seats)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Add seats to the counter, negative to take them without checking.
+     * @param available counter of free seats.
+     * @param seats number of seats to add.
+     */
+    private void add(AtomicInteger available, int seats) {
+        available.updateAndGet(current -> current == UNLIMITED ? UNLIMITED : current + seats);
+    }
+
+    /**
+     * Run action when the current transaction completes, or right away if there is no transaction.
+     * @param action receives true if the transaction was committed.
+     */
+    private void afterCompletion(Consumer<Boolean> action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+}
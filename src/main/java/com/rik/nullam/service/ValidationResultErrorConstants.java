@@ -11,5 +11,11 @@ public class ValidationResultErrorConstants {
     public static final String INVALID_PAYMENT = "Maksetüüp ei ole korrektne.";
     public static final String INCORRECT_TIME = "Ürituse aeg ei saa olla minevikus.";
     public static final String INVALID_NUM_OF_PARTICIPANTS = "Osalejate arv ei ole korrektne.";
+    public static final String INVALID_CAPACITY = "Maksimaalne osalejate arv ei ole korrektne.";
+    public static final String DUPLICATE_REGISTRATION = "Osaleja on sellele üritusele juba registreeritud.";
+    public static final String EVENT_FULL = "Üritusel ei ole piisavalt vabu kohti.";
+    public static final String EVENT_IN_PAST = "Üritus on juba toimunud.";
+    public static final String IDEMPOTENCY_KEY_REUSED = "Päringu võtit on juba kasutatud teistsuguse päringu jaoks.";
+    public static final String IDEMPOTENT_REQUEST_IN_PROGRESS = "Sama võtmega päring on veel pooleli.";
 
 }
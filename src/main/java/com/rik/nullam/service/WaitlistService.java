@@ -0,0 +1,182 @@
+package com.rik.nullam.service;
+
+import com.rik.nullam.dto.CompanyParticipationDto;
+import com.rik.nullam.dto.PersonParticipationDto;
+import com.rik.nullam.dto.WaitlistPositionDto;
+import com.rik.nullam.entity.change.ParticipationChange;
+import com.rik.nullam.entity.event.Event;
+import com.rik.nullam.entity.participation.CompanyParticipation;
+import com.rik.nullam.entity.participation.PaymentMethod;
+import com.rik.nullam.entity.participation.PersonParticipation;
+import com.rik.nullam.entity.waitlist.WaitlistEntry;
+import com.rik.nullam.repository.CompanyParticipationRepository;
+import com.rik.nullam.repository.EventRepository;
+import com.rik.nullam.repository.PersonParticipationRepository;
+import com.rik.nullam.repository.WaitlistEntryRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+/**
+ * First in, first out waitlist of registrations to full events.
+ */
+@Service
+public class WaitlistService {
+
+    private static final Logger LOGGER = Logger.getLogger(WaitlistService.class.getName());
+
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final EventRepository eventRepository;
+    private final PersonParticipationRepository personParticipationRepository;
+    private final CompanyParticipationRepository companyParticipationRepository;
+    private final SeatReservationEngine seatReservationEngine;
+    private final ChangeFeed changeFeed;
+
+    /**
+     * Waitlist service constructor.
+     * @param waitlistEntryRepository waitlist entry repository.
+     * @param eventRepository event repository.
+     * @param personParticipationRepository person participation repository.
+     * @param companyParticipationRepository company participation repository.
+     * @param seatReservationEngine engine that keeps participant counts within event capacity.
+     * @param changeFeed feed of changes for downstream systems.
+     */
+    public WaitlistService(WaitlistEntryRepository waitlistEntryRepository,
+                           EventRepository eventRepository,
+                           PersonParticipationRepository personParticipationRepository,
+                           CompanyParticipationRepository companyParticipationRepository,
+                           SeatReservationEngine seatReservationEngine,
+                           ChangeFeed changeFeed) {
+        this.waitlistEntryRepository = waitlistEntryRepository;
+        this.eventRepository = eventRepository;
+        this.personParticipationRepository = personParticipationRepository;
+        this.companyParticipationRepository = companyParticipationRepository;
+        this.seatReservationEngine = seatReservationEngine;
+        this.changeFeed = changeFeed;
+    }
+
+    /**
+     * Check if new registrations to the event have to queue behind already waiting ones.
+     * @param event event.
+     * @return true if event is limited and someone is waiting.
+     */
+    public boolean hasQueue(Event event) {
+        return event.getCapacity() != null && waitlistEntryRepository.existsByEvent_Id(event.getId());
+    }
+
+    /**
+     * Put person to the end of the waitlist.
+     * @param event event.
+     * @param dto person info.
+     * @return id of waitlist entry.
+     */
+    public Long addPerson(Event event, PersonParticipationDto dto) {
+        WaitlistEntry entry = waitlistEntryRepository.save(new WaitlistEntry(event,
+                PaymentMethod.valueOf(dto.getPaymentMethod()), dto.getAdditionalInfo(),
+                dto.getFirstName(), dto.getLastName(), dto.getPersonalCode()));
+        LOGGER.info(String.format("Event %1$s is full, %2$s %3$s added to waitlist",
+                event.getName(), dto.getFirstName(), dto.getLastName()));
+        return entry.getId();
+    }
+
+    /**
+     * Put company to the end of the waitlist.
+     * @param event event.
+     * @param dto company info.
+     * @return id of waitlist entry.
+     */
+    public Long addCompany(Event event, CompanyParticipationDto dto) {
+        WaitlistEntry entry = waitlistEntryRepository.save(new WaitlistEntry(event,
+                PaymentMethod.valueOf(dto.getPaymentMethod()), dto.getAdditionalInfo(),
+                dto.getCompanyName(), dto.getRegistryCode(), dto.getNumberOfParticipants()));
+        LOGGER.info(String.format("Event %1$s is full, %2$s added to waitlist",
+                event.getName(), dto.getCompanyName()));
+        return entry.getId();
+    }
+
+    /**
+     * Turn waiting registrations into participations while they fit into the free seats.
+     * Entries are promoted strictly in queue order, an entry that does not fit stops the promotion.
+     * Only as many entries as there are free seats are read, so the cost depends on the number
+     * of promoted entries and not on the length of the queue.
+     * Must run in the transaction that released the seats. That transaction already holds the
+     * event row lock, so promotions of the same event cannot run concurrently.
+     * @param event event with released seats.
+     * @return number of promoted entries.
+     */
+    public int promote(Event event) {
+        Optional<Integer> freeSeats = eventRepository.findFreeSeats(event.getId());
+        if (freeSeats.isEmpty() || freeSeats.get() <= 0) {
+            return 0;
+        }
+        int free = freeSeats.get();
+        List<WaitlistEntry> promoted = new ArrayList<>();
+        int seats = 0;
+        for (WaitlistEntry entry : waitlistEntryRepository.findQueueHead(event.getId(), PageRequest.of(0, free))) {
+            if (seats + entry.getSeats() > free) {
+                break;
+            }
+            promoted.add(entry);
+            seats += entry.getSeats();
+        }
+        if (promoted.isEmpty() || !seatReservationEngine.reserveReleased(event.getId(), seats)) {
+            return 0;
+        }
+
+        List<PersonParticipation> persons = new ArrayList<>();
+        List<CompanyParticipation> companies = new ArrayList<>();
+        List<Long> promotedIds = new ArrayList<>();
+        for (WaitlistEntry entry : promoted) {
+            if (entry.isCompany()) {
+                companies.add(new CompanyParticipation(event, entry.getPaymentMethod(), entry.getAdditionalInfo(),
+                        entry.getCompanyName(), entry.getRegistryCode(), entry.getSeats()));
+            } else {
+                persons.add(new PersonParticipation(event, entry.getPaymentMethod(), entry.getAdditionalInfo(),
+                        entry.getFirstName(), entry.getLastName(), entry.getPersonalCode()));
+            }
+            promotedIds.add(entry.getId());
+        }
+        personParticipationRepository.saveAll(persons);
+        companyParticipationRepository.saveAll(companies);
+        waitlistEntryRepository.deleteByIds(promotedIds);
+        persons.forEach(person -> changeFeed.recordParticipationChange(
+                ParticipationChange.ChangeType.PARTICIPATION_ADDED, ParticipantExportService.toExportRow(person)));
+        companies.forEach(company -> changeFeed.recordParticipationChange(
+                ParticipationChange.ChangeType.PARTICIPATION_ADDED, ParticipantExportService.toExportRow(company)));
+        LOGGER.info(String.format("Promoted %1$d registrations from waitlist of event %2$s",
+                promoted.size(), event.getName()));
+        return promoted.size();
+    }
+
+    /**
+     * Get position of an entry in the waitlist of its event.
+     * @param entryId id of waitlist entry.
+     * @return position, empty if entry is not waiting anymore.
+     */
+    public Optional<WaitlistPositionDto> getPosition(Long entryId) {
+        return waitlistEntryRepository.findById(entryId).map(entry -> new WaitlistPositionDto(entryId,
+                entry.getEvent().getId(),
+                waitlistEntryRepository.countByEvent_IdAndIdLessThan(entry.getEvent().getId(), entryId) + 1));
+    }
+
+    /**
+     * Remove waitlist of a deleted event.
+     * @param event event.
+     */
+    public void deleteAllByEvent(Event event) {
+        waitlistEntryRepository.deleteAllByEvent(event);
+    }
+
+    /**
+     * Remove waitlists of archived events.
+     * @param eventIds ids of events.
+     */
+    public void deleteAllByEventIds(Collection<Long> eventIds) {
+        waitlistEntryRepository.deleteAllByEventIds(eventIds);
+    }
+}
@@ -0,0 +1,49 @@
+CREATE SEQUENCE event_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE person_participation_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE company_participation_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE event (
+    id                BIGINT        NOT NULL,
+    name              VARCHAR(255)  NOT NULL,
+    time              TIMESTAMP(6)  NOT NULL,
+    location          VARCHAR(255)  NOT NULL,
+    additional_info   VARCHAR(1000),
+    participant_count INTEGER       DEFAULT 0 NOT NULL,
+    version           BIGINT        DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_event PRIMARY KEY (id)
+);
+
+-- Past/future listings filter and order by time, keyset pages continue from (time, id).
+CREATE INDEX idx_event_time ON event (time, id);
+
+CREATE TABLE person_participation (
+    id              BIGINT        NOT NULL,
+    event_id        BIGINT        NOT NULL,
+    payment_method  VARCHAR(255)  NOT NULL,
+    additional_info VARCHAR(5000),
+    first_name      VARCHAR(255)  NOT NULL,
+    last_name       VARCHAR(255)  NOT NULL,
+    personal_code   VARCHAR(255)  NOT NULL,
+    CONSTRAINT pk_person_participation PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_person_participation_event_id ON person_participation (event_id);
+CREATE INDEX idx_person_participation_personal_code ON person_participation (personal_code);
+ALTER TABLE person_participation
+    ADD CONSTRAINT fk_person_participation_event FOREIGN KEY (event_id) REFERENCES event (id);
+
+CREATE TABLE company_participation (
+    id                     BIGINT        NOT NULL,
+    event_id               BIGINT        NOT NULL,
+    payment_method         VARCHAR(255)  NOT NULL,
+    additional_info        VARCHAR(5000),
+    company_name           VARCHAR(255)  NOT NULL,
+    registry_code          VARCHAR(255)  NOT NULL,
+    number_of_participants INTEGER       NOT NULL,
+    CONSTRAINT pk_company_participation PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_company_participation_event_id ON company_participation (event_id);
+CREATE INDEX idx_company_participation_registry_code ON company_participation (registry_code);
+ALTER TABLE company_participation
+    ADD CONSTRAINT fk_company_participation_event FOREIGN KEY (event_id) REFERENCES event (id);
@@ -0,0 +1,21 @@
+CREATE SEQUENCE waitlist_entry_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE waitlist_entry (
+    id              BIGINT        NOT NULL,
+    event_id        BIGINT        NOT NULL,
+    payment_method  VARCHAR(255)  NOT NULL,
+    additional_info VARCHAR(5000),
+    first_name      VARCHAR(255),
+    last_name       VARCHAR(255),
+    personal_code   VARCHAR(255),
+    company_name    VARCHAR(255),
+    registry_code   VARCHAR(255),
+    seats           INTEGER       NOT NULL,
+    CONSTRAINT pk_waitlist_entry PRIMARY KEY (id)
+);
+
+-- Queue order within an event is id order: the head of the queue and a registrant's position
+-- are both range reads on this index.
+CREATE INDEX idx_waitlist_entry_event_id ON waitlist_entry (event_id, id);
+ALTER TABLE waitlist_entry
+    ADD CONSTRAINT fk_waitlist_entry_event FOREIGN KEY (event_id) REFERENCES event (id);
@@ -0,0 +1,33 @@
+-- One registration per person or company per event. Duplicates registered before the constraints existed
+-- are removed first, keeping the earliest registration, which also keeps the earliest waitlist position.
+DELETE FROM person_participation p
+WHERE EXISTS (SELECT 1 FROM person_participation o
+              WHERE o.event_id = p.event_id AND o.personal_code = p.personal_code AND o.id < p.id);
+DELETE FROM company_participation c
+WHERE EXISTS (SELECT 1 FROM company_participation o
+              WHERE o.event_id = c.event_id AND o.registry_code = c.registry_code AND o.id < c.id);
+DELETE FROM waitlist_entry w
+WHERE EXISTS (SELECT 1 FROM waitlist_entry o
+              WHERE o.event_id = w.event_id AND o.personal_code = w.personal_code AND o.id < w.id);
+DELETE FROM waitlist_entry w
+WHERE EXISTS (SELECT 1 FROM waitlist_entry o
+              WHERE o.event_id = w.event_id AND o.registry_code = w.registry_code AND o.id < w.id);
+
+-- Participant counts of events that lost duplicates are recounted, and their version is raised
+-- so cached summaries and list versions change.
+UPDATE event e
+SET participant_count = (SELECT COUNT(*) FROM person_participation p WHERE p.event_id = e.id)
+        + (SELECT COALESCE(SUM(c.number_of_participants), 0) FROM company_participation c WHERE c.event_id = e.id),
+    version = version + 1
+WHERE participant_count <> (SELECT COUNT(*) FROM person_participation p WHERE p.event_id = e.id)
+        + (SELECT COALESCE(SUM(c.number_of_participants), 0) FROM company_participation c WHERE c.event_id = e.id);
+
+-- The unique indexes also serve the duplicate pre-check of a single code within an event.
+ALTER TABLE person_participation
+    ADD CONSTRAINT uq_person_participation_event_personal_code UNIQUE (event_id, personal_code);
+ALTER TABLE company_participation
+    ADD CONSTRAINT uq_company_participation_event_registry_code UNIQUE (event_id, registry_code);
+ALTER TABLE waitlist_entry
+    ADD CONSTRAINT uq_waitlist_entry_event_personal_code UNIQUE (event_id, personal_code);
+ALTER TABLE waitlist_entry
+    ADD CONSTRAINT uq_waitlist_entry_event_registry_code UNIQUE (event_id, registry_code);
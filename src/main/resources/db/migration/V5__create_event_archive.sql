@@ -0,0 +1,18 @@
+-- Events past the archive age are moved here from event, person_participation and company_participation,
+-- which then only hold recent data. Archived events keep their ids. Their participations are only read
+-- as a whole, so they are stored as one gzipped JSON document per event.
+CREATE TABLE archived_event (
+    id                BIGINT        NOT NULL,
+    name              VARCHAR(255)  NOT NULL,
+    time              TIMESTAMP(6)  NOT NULL,
+    location          VARCHAR(255)  NOT NULL,
+    additional_info   VARCHAR(1000),
+    capacity          INTEGER,
+    participant_count INTEGER       NOT NULL,
+    participations    BLOB          NOT NULL,
+    archived_at       TIMESTAMP(6)  NOT NULL,
+    CONSTRAINT pk_archived_event PRIMARY KEY (id)
+);
+
+-- Past listings continue from the live events into the archive in (time, id) order.
+CREATE INDEX idx_archived_event_time ON archived_event (time, id);
@@ -0,0 +1,22 @@
+-- Outbox of event and participation changes for downstream systems, written in the same transaction as the
+-- change itself. Sequence numbers are taken from change_sequence just before commit: the row lock on the
+-- counter is held until commit, so changes become visible in sequence number order and a consumer that
+-- has read up to N never misses a later commit with a smaller number.
+CREATE TABLE change_sequence (
+    id         INTEGER NOT NULL,
+    last_value BIGINT  NOT NULL,
+    CONSTRAINT pk_change_sequence PRIMARY KEY (id)
+);
+
+INSERT INTO change_sequence (id, last_value) VALUES (1, 0);
+
+CREATE TABLE participation_change (
+    sequence_number    BIGINT        NOT NULL,
+    change_type        VARCHAR(32)   NOT NULL,
+    event_id           BIGINT        NOT NULL,
+    participation_type VARCHAR(32),
+    participation_id   BIGINT,
+    participation      CLOB,
+    changed_at         TIMESTAMP(6)  NOT NULL,
+    CONSTRAINT pk_participation_change PRIMARY KEY (sequence_number)
+);
@@ -1,9 +1,10 @@
-INSERT INTO event (id, name, time, location)
+INSERT INTO event (id, name, time, location, participant_count)
 VALUES (
         9999,
         'Pärnu linnajooks',
         '2025-05-27 19:33:00',
-        'Pärnu');
+        'Pärnu',
+        4);
 
 INSERT INTO person_participation (id, additional_info, payment_method, first_name, last_name, personal_code, event_id)
 VALUES (
@@ -25,12 +26,13 @@ VALUES (
         '12345678',
         9999);
 
-INSERT INTO event (id, name, time, location)
+INSERT INTO event (id, name, time, location, participant_count)
 VALUES (
            8888,
            'Raamatuklubi kokkutulek',
            '2025-09-27 19:33:00',
-           'Kopli');
+           'Kopli',
+           8);
 
 INSERT INTO person_participation (id, additional_info, payment_method, first_name, last_name, personal_code, event_id)
 VALUES (
@@ -50,4 +52,9 @@ VALUES (
            'Raamatusõbrad MTÜ',
            7,
            '12345678',
-           8888);
\ No newline at end of file
+           8888);
+
+-- Sample rows use fixed ids, generated ids start after them so new registrations do not collide.
+ALTER SEQUENCE event_seq RESTART WITH 10000;
+ALTER SEQUENCE person_participation_seq RESTART WITH 10000;
+ALTER SEQUENCE company_participation_seq RESTART WITH 10000;
@@ -34,6 +34,10 @@ class APIClient {
     }
 
     async _handleResponse(response) {
+        // Conflicts carry a validation result with the reason
+        if (response.status === 409) {
+            return response.json();
+        }
         if (!response.ok) {
             throw new Error(`HTTP error! Status: ${response.status}`);
         }
@@ -0,0 +1,167 @@
+package com.rik.nullam;
+
+import com.rik.nullam.dto.BulkParticipationDto;
+import com.rik.nullam.dto.BulkParticipationResultDto;
+import com.rik.nullam.dto.CompanyParticipationDto;
+import com.rik.nullam.dto.PersonParticipationDto;
+import com.rik.nullam.dto.ValidationResult;
+import com.rik.nullam.entity.event.Event;
+import com.rik.nullam.repository.CompanyParticipationRepository;
+import com.rik.nullam.repository.EventRepository;
+import com.rik.nullam.repository.PersonParticipationRepository;
+import com.rik.nullam.service.BulkParticipationService;
+import com.rik.nullam.service.ChangeFeed;
+import com.rik.nullam.service.ParticipationValidator;
+import com.rik.nullam.service.SeatReservationEngine;
+import com.rik.nullam.service.WaitlistService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class BulkParticipationServiceTest {
+
+    private BulkParticipationService service;
+
+    private ParticipationValidator participationValidator;
+    private EventRepository eventRepository;
+    private PersonParticipationRepository personRepository;
+    private CompanyParticipationRepository companyRepository;
+    private SeatReservationEngine seatReservationEngine;
+    private WaitlistService waitlistService;
+
+    private PersonParticipationDto personDto;
+    private CompanyParticipationDto companyDto;
+
+    @BeforeEach
+    void setUp() {
+        participationValidator = mock(ParticipationValidator.class);
+        eventRepository = mock(EventRepository.class);
+        personRepository = mock(PersonParticipationRepository.class);
+        companyRepository = mock(CompanyParticipationRepository.class);
+        seatReservationEngine = mock(SeatReservationEngine.class);
+        when(seatReservationEngine.reserve(any(), anyInt())).thenReturn(true);
+        waitlistService = mock(WaitlistService.class);
+
+        service = new BulkParticipationService(participationValidator, eventRepository, companyRepository,
+                personRepository, mock(ApplicationEventPublisher.class), seatReservationEngine,
+                waitlistService, mock(ChangeFeed.class), mock(EntityManager.class), 2);
+
+        personDto = new PersonParticipationDto(null, 5L, "CASH", null, "Mari", "Mets", "48801010123");
+        companyDto = new CompanyParticipationDto(null, 5L, "CASH", null, "Kalurid OÜ", "12345678", 4);
+
+        Event event = new Event("Linnajooks", LocalDateTime.now().plusDays(1), "Pärnu", null, null);
+        ReflectionTestUtils.setField(event, "id", 5L);
+        when(eventRepository.findAllById(any())).thenReturn(List.of(event));
+    }
+
+    @Test
+    void testAddParticipationsAllValidSavedAndCountedOncePerEvent() {
+        when(participationValidator.validatePersons(anyList(), anySet()))
+                .thenReturn(List.of(new ValidationResult(), new ValidationResult()));
+        when(participationValidator.validateCompanies(anyList(), anySet()))
+                .thenReturn(List.of(new ValidationResult()));
+
+        BulkParticipationResultDto result = service.addParticipations(
+                new BulkParticipationDto(List.of(personDto, personDto), List.of(companyDto)));
+
+        Assertions.assertEquals(3, result.getSavedCount());
+        verify(eventRepository, times(1)).findAllById(any());
+        verify(personRepository, times(1)).saveAll(anyList());
+        verify(seatReservationEngine, times(1)).reserve(5L, 6);
+    }
+
+    @Test
+    void testAddParticipationsInvalidRowsNotSaved() {
+        ValidationResult invalid = new ValidationResult();
+        invalid.addError("Invalid");
+        when(participationValidator.validatePersons(anyList(), anySet())).thenReturn(List.of(invalid));
+        when(participationValidator.validateCompanies(anyList(), anySet())).thenReturn(List.of());
+
+        BulkParticipationResultDto result = service.addParticipations(
+                new BulkParticipationDto(List.of(personDto), null));
+
+        Assertions.assertEquals(0, result.getSavedCount());
+        Assertions.assertFalse(result.getPersonResults().get(0).isValid());
+        verify(personRepository, never()).saveAll(anyList());
+        verify(seatReservationEngine, never()).reserve(any(), anyInt());
+    }
+
+    @Test
+    void testAddParticipationsEventFullAllWaitlistedForEvent() {
+        when(participationValidator.validatePersons(anyList(), anySet()))
+                .thenReturn(List.of(new ValidationResult()));
+        when(participationValidator.validateCompanies(anyList(), anySet()))
+                .thenReturn(List.of(new ValidationResult()));
+        when(seatReservationEngine.reserve(5L, 5)).thenReturn(false);
+        when(eventRepository.findFreeSeats(5L)).thenReturn(Optional.of(0));
+        when(waitlistService.addPerson(any(), any())).thenReturn(11L);
+        when(waitlistService.addCompany(any(), any())).thenReturn(12L);
+
+        BulkParticipationResultDto result = service.addParticipations(
+                new BulkParticipationDto(List.of(personDto), List.of(companyDto)));
+
+        Assertions.assertEquals(0, result.getSavedCount());
+        Assertions.assertEquals(2, result.getWaitlistedCount());
+        Assertions.assertEquals(11L, result.getPersonResults().get(0).getWaitlistEntryId());
+        Assertions.assertEquals(12L, result.getCompanyResults().get(0).getWaitlistEntryId());
+        verify(personRepository, never()).saveAll(anyList());
+        verify(companyRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testAddParticipationsEventWithQueueWaitlistedWithoutTakingSeats() {
+        when(participationValidator.validatePersons(anyList(), anySet()))
+                .thenReturn(List.of(new ValidationResult()));
+        when(participationValidator.validateCompanies(anyList(), anySet())).thenReturn(List.of());
+        when(waitlistService.hasQueue(any())).thenReturn(true);
+
+        BulkParticipationResultDto result = service.addParticipations(
+                new BulkParticipationDto(List.of(personDto), null));
+
+        Assertions.assertEquals(1, result.getWaitlistedCount());
+        verify(seatReservationEngine, never()).reserve(any(), anyInt());
+        verify(waitlistService, times(1)).addPerson(any(), any());
+        verify(waitlistService, times(1)).promote(any());
+    }
+
+    @Test
+    void testAddParticipationsAdmitsLeadingRowsThatFit() {
+        when(participationValidator.validatePersons(anyList(), anySet()))
+                .thenReturn(List.of(new ValidationResult(), new ValidationResult()));
+        when(participationValidator.validateCompanies(anyList(), anySet()))
+                .thenReturn(List.of(new ValidationResult()));
+        when(seatReservationEngine.reserve(5L, 6)).thenReturn(false);
+        when(eventRepository.findFreeSeats(5L)).thenReturn(Optional.of(5));
+        when(waitlistService.addCompany(any(), any())).thenReturn(12L);
+
+        BulkParticipationResultDto result = service.addParticipations(
+                new BulkParticipationDto(List.of(personDto, personDto), List.of(companyDto)));
+
+        Assertions.assertEquals(2, result.getSavedCount());
+        Assertions.assertEquals(1, result.getWaitlistedCount());
+        Assertions.assertNull(result.getPersonResults().get(0).getWaitlistEntryId());
+        Assertions.assertEquals(12L, result.getCompanyResults().get(0).getWaitlistEntryId());
+        verify(seatReservationEngine, times(1)).reserve(5L, 2);
+        verify(waitlistService, never()).addPerson(any(), any());
+        verify(waitlistService, never()).promote(any());
+    }
+}
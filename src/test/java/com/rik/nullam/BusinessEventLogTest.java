@@ -0,0 +1,86 @@
+package com.rik.nullam;
+
+import com.rik.nullam.service.BusinessEventLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+@SpringBootTest
+class BusinessEventLogTest {
+
+    private final Logger logger = Logger.getLogger(BusinessEventLog.class.getName());
+    private final List<String> written = new CopyOnWriteArrayList<>();
+    private final CountDownLatch writerReleased = new CountDownLatch(1);
+    private volatile boolean blockWriter;
+
+    private final Handler handler = new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+            if (record.getLevel() != Level.INFO) return;
+            if (blockWriter) {
+                try {
+                    writerReleased.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            written.add(record.getMessage());
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        logger.addHandler(handler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.removeHandler(handler);
+    }
+
+    @Test
+    void testEventsAreWrittenAsJsonLines() throws InterruptedException {
+        BusinessEventLog log = new BusinessEventLog(16, BusinessEventLog.OverflowPolicy.BLOCK);
+        log.log("participation_added", "eventId", 5L, "firstName", "Mari \"Maasikas\"", "paid", true);
+        log.close();
+
+        Assertions.assertEquals(1, written.size());
+        String line = written.get(0);
+        Assertions.assertTrue(line.startsWith("{\"timestamp\":"), line);
+        Assertions.assertTrue(line.endsWith(",\"event\":\"participation_added\",\"eventId\":5,"
+                + "\"firstName\":\"Mari \\\"Maasikas\\\"\",\"paid\":true}"), line);
+    }
+
+    @Test
+    void testEventsAreDroppedWhenBufferIsFull() throws InterruptedException {
+        blockWriter = true;
+        BusinessEventLog log = new BusinessEventLog(1, BusinessEventLog.OverflowPolicy.DROP);
+        for (int i = 0; i < 3; i++) {
+            log.log("event_created", "eventId", (long) i);
+        }
+        Assertions.assertTrue(log.getDropped() >= 1);
+
+        blockWriter = false;
+        writerReleased.countDown();
+        log.close();
+        Assertions.assertEquals(3, written.size() + log.getDropped());
+    }
+}
@@ -0,0 +1,154 @@
+package com.rik.nullam;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rik.nullam.dto.ParticipationChangeBatchDto;
+import com.rik.nullam.dto.ParticipationExportDto;
+import com.rik.nullam.dto.ParticipationSummaryDto;
+import com.rik.nullam.entity.change.ParticipationChange;
+import com.rik.nullam.repository.ParticipationChangeRepository;
+import com.rik.nullam.service.ChangeFeed;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class ChangeFeedTest {
+
+    private ChangeFeed feed;
+
+    private ParticipationChangeRepository repository;
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ParticipationChangeRepository.class);
+        entityManager = mock(EntityManager.class);
+        feed = new ChangeFeed(repository, new ObjectMapper().findAndRegisterModules(), entityManager, 5000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void testBatchContinuesFromLastSequenceNumber() {
+        String json = "{\"type\":\"PERSON\",\"participationId\":7,\"eventId\":5,\"lastName\":\"Mets\"}";
+        when(repository.findChangesAfter(0L, PageRequest.of(0, 3))).thenReturn(List.of(
+                change(1L, ParticipationChange.ChangeType.EVENT_CREATED, null),
+                change(2L, ParticipationChange.ChangeType.PARTICIPATION_ADDED, json),
+                change(3L, ParticipationChange.ChangeType.PARTICIPATION_REMOVED, null)));
+
+        ParticipationChangeBatchDto batch = feed.getChanges(0L, 2);
+
+        Assertions.assertEquals(2, batch.getChanges().size());
+        Assertions.assertEquals(2L, batch.getNextSince());
+        Assertions.assertTrue(batch.isHasMore());
+        Assertions.assertEquals("Mets", batch.getChanges().get(1).getParticipation().getLastName());
+        Assertions.assertNull(batch.getChanges().get(0).getParticipation());
+    }
+
+    @Test
+    void testChangesGetConsecutiveSequenceNumbers() {
+        when(repository.findLastSequenceNumber()).thenReturn(9L);
+        ParticipationExportDto participation = new ParticipationExportDto(
+                ParticipationSummaryDto.ParticipationType.PERSON, 7L, 5L, "Mari", "Mets", null, "4880101376", 1,
+                "CASH", null);
+
+        beginTransaction();
+        feed.recordParticipationChange(ParticipationChange.ChangeType.PARTICIPATION_CHANGED, participation);
+        verify(repository, times(0)).advanceSequence(1);
+        commitTransaction();
+
+        InOrder order = inOrder(entityManager, repository);
+        order.verify(entityManager).flush();
+        order.verify(repository).advanceSequence(1);
+        ArgumentCaptor<ParticipationChange> captor = ArgumentCaptor.forClass(ParticipationChange.class);
+        verify(entityManager).persist(captor.capture());
+        Assertions.assertEquals(9L, captor.getValue().getSequenceNumber());
+        Assertions.assertEquals(7L, captor.getValue().getParticipationId());
+        Assertions.assertTrue(captor.getValue().getParticipation().contains("Mets"));
+    }
+
+    @Test
+    void testWaitingConsumerIsAnsweredAfterCommit() throws Exception {
+        when(repository.findChangesAfter(eq(4L), any())).thenReturn(List.of()).thenReturn(List.of(
+                change(5L, ParticipationChange.ChangeType.PARTICIPATION_REMOVED, null)));
+        when(repository.findLastSequenceNumber()).thenReturn(5L);
+
+        CompletableFuture<ParticipationChangeBatchDto> result = feed.awaitChanges(4L, 10, 5000);
+        Assertions.assertFalse(result.isDone());
+
+        beginTransaction();
+        feed.recordRemoval(5L, ParticipationSummaryDto.ParticipationType.PERSON, 7L);
+        Assertions.assertFalse(result.isDone());
+        commitTransaction();
+
+        ParticipationChangeBatchDto batch = result.get(1, TimeUnit.SECONDS);
+        Assertions.assertEquals(1, batch.getChanges().size());
+        Assertions.assertEquals(5L, batch.getNextSince());
+    }
+
+    @Test
+    void testWaitEndsWithEmptyBatch() throws Exception {
+        when(repository.findChangesAfter(eq(4L), any())).thenReturn(List.of());
+
+        ParticipationChangeBatchDto batch = feed.awaitChanges(4L, 10, 50).get(1, TimeUnit.SECONDS);
+
+        Assertions.assertTrue(batch.getChanges().isEmpty());
+        Assertions.assertEquals(4L, batch.getNextSince());
+        Assertions.assertFalse(batch.isHasMore());
+    }
+
+    @Test
+    void testRecordingWithoutTransactionFails() {
+        Assertions.assertThrows(IllegalStateException.class, () -> feed.recordEventChange(
+                ParticipationChange.ChangeType.EVENT_CREATED, 5L));
+        verify(repository, times(0)).advanceSequence(1);
+    }
+
+    private static void beginTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    private static void commitTransaction() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(
+                TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    private static ParticipationChange change(Long sequenceNumber, ParticipationChange.ChangeType changeType,
+                                              String participation) {
+        return new ParticipationChange(sequenceNumber, changeType, 5L,
+                participation == null ? null : ParticipationSummaryDto.ParticipationType.PERSON,
+                participation == null ? null : 7L, participation, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,122 @@
+package com.rik.nullam;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rik.nullam.dto.ParticipationExportDto;
+import com.rik.nullam.entity.event.ArchivedEvent;
+import com.rik.nullam.entity.event.Event;
+import com.rik.nullam.entity.participation.CompanyParticipation;
+import com.rik.nullam.entity.participation.PaymentMethod;
+import com.rik.nullam.entity.participation.PersonParticipation;
+import com.rik.nullam.repository.ArchivedEventRepository;
+import com.rik.nullam.repository.CompanyParticipationRepository;
+import com.rik.nullam.repository.EventRepository;
+import com.rik.nullam.repository.PersonParticipationRepository;
+import com.rik.nullam.service.EventArchive;
+import com.rik.nullam.service.EventDataChangedEvent;
+import com.rik.nullam.service.SeatReservationEngine;
+import com.rik.nullam.service.WaitlistService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class EventArchiveTest {
+
+    private EventArchive archive;
+
+    private EventRepository eventRepository;
+    private ArchivedEventRepository archivedEventRepository;
+    private PersonParticipationRepository personRepository;
+    private CompanyParticipationRepository companyRepository;
+    private WaitlistService waitlistService;
+    private ApplicationEventPublisher eventPublisher;
+    private EntityManager entityManager;
+
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository = mock(EventRepository.class);
+        archivedEventRepository = mock(ArchivedEventRepository.class);
+        personRepository = mock(PersonParticipationRepository.class);
+        companyRepository = mock(CompanyParticipationRepository.class);
+        waitlistService = mock(WaitlistService.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        entityManager = mock(EntityManager.class);
+        archive = new EventArchive(eventRepository, archivedEventRepository, personRepository, companyRepository,
+                waitlistService, new SeatReservationEngine(eventRepository), eventPublisher,
+                new ObjectMapper().findAndRegisterModules(), entityManager, 365, 100);
+
+        event = new Event("Linnajooks", LocalDateTime.now().minusYears(2), "Pärnu", null, null);
+        ReflectionTestUtils.setField(event, "id", 5L);
+    }
+
+    @Test
+    void testOldEventIsMovedWithParticipations() {
+        PersonParticipation person = new PersonParticipation(event, PaymentMethod.CASH, "Tuleb jalgrattaga",
+                "Mari", "Mets", "4880101376");
+        person.setId(7L);
+        CompanyParticipation company = new CompanyParticipation(event, PaymentMethod.BANK_TRANSFER, null,
+                "Maalritööd OÜ", "12345678", 3);
+        company.setId(8L);
+        when(eventRepository.findOldestEventsBefore(any(), any())).thenReturn(List.of(event));
+        when(personRepository.findAllByEventIds(List.of(5L))).thenReturn(List.of(person));
+        when(companyRepository.findAllByEventIds(List.of(5L))).thenReturn(List.of(company));
+
+        Assertions.assertEquals(1, archive.archive());
+
+        ArgumentCaptor<ArchivedEvent> captor = ArgumentCaptor.forClass(ArchivedEvent.class);
+        verify(entityManager).persist(captor.capture());
+        Assertions.assertEquals(5L, captor.getValue().getId());
+        Assertions.assertEquals("Linnajooks", captor.getValue().getName());
+        verify(personRepository, times(1)).deleteAllByEventIds(List.of(5L));
+        verify(companyRepository, times(1)).deleteAllByEventIds(List.of(5L));
+        verify(waitlistService, times(1)).deleteAllByEventIds(List.of(5L));
+        verify(eventRepository, times(1)).deleteAllByIds(List.of(5L));
+        verify(eventPublisher, times(1)).publishEvent(any(EventDataChangedEvent.class));
+
+        when(archivedEventRepository.findParticipationsById(5L))
+                .thenReturn(Optional.of(captor.getValue().getParticipations()));
+        List<ParticipationExportDto> participations = archive.findParticipations(5L).orElseThrow();
+        Assertions.assertEquals(2, participations.size());
+        Assertions.assertEquals("Mets", participations.get(0).getLastName());
+        Assertions.assertEquals("Tuleb jalgrattaga", participations.get(0).getAdditionalInfo());
+        Assertions.assertEquals(3, participations.get(1).getNumberOfParticipants());
+    }
+
+    @Test
+    void testNothingToArchive() {
+        when(eventRepository.findOldestEventsBefore(any(), any())).thenReturn(List.of());
+
+        Assertions.assertEquals(0, archive.archive());
+        verify(eventRepository, never()).deleteAllByIds(any());
+        verify(entityManager, never()).persist(any());
+    }
+
+    @Test
+    void testArchivedSummariesStartAtOffsetWithinPage() {
+        archive.findSummaries(3L, 10);
+
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(archivedEventRepository).findEventSummariesMostRecentFirst(captor.capture());
+        Assertions.assertEquals(3L, captor.getValue().getOffset());
+        Assertions.assertEquals(10, captor.getValue().getPageSize());
+    }
+}
@@ -1,26 +1,64 @@
 package com.rik.nullam;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rik.nullam.controller.EventController;
+import com.rik.nullam.controller.LiveCountStream;
+import com.rik.nullam.dto.BulkParticipationDto;
 import com.rik.nullam.dto.CompanyParticipationDto;
 import com.rik.nullam.dto.EventDto;
 import com.rik.nullam.dto.EventSummaryDto;
 import com.rik.nullam.dto.ParticipationSummaryDto;
 import com.rik.nullam.dto.PersonParticipationDto;
+import com.rik.nullam.dto.ValidationResult;
+import com.rik.nullam.repository.EventRepository;
+import com.rik.nullam.service.BulkParticipationService;
+import com.rik.nullam.service.ChangeFeed;
 import com.rik.nullam.service.EventService;
+import com.rik.nullam.service.ExportFormat;
+import com.rik.nullam.service.IdempotencyKeyException;
+import com.rik.nullam.service.IdempotencyStore;
+import com.rik.nullam.service.ParticipantExportService;
+import com.rik.nullam.service.ParticipantImportService;
+import com.rik.nullam.service.ParticipantTypeahead;
+import com.rik.nullam.service.PastEventSnapshots;
+import com.rik.nullam.service.SearchIndex;
+import com.rik.nullam.service.ValidationResultErrorConstants;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @SpringBootTest
 class EventControllerTest {
 
     private EventController controller;
     private EventService service;
+    private EventService snapshotSource;
+    private BulkParticipationService bulkService;
+    private ParticipantExportService exportService;
+    private ParticipantImportService importService;
 
     private EventDto eventDto;
     private EventSummaryDto summaryDto;
@@ -28,15 +66,60 @@ class EventControllerTest {
     @BeforeEach
     void setUp() {
         service = mock(EventService.class);
-        controller = new EventController(service);
+        snapshotSource = mock(EventService.class);
+        bulkService = mock(BulkParticipationService.class);
+        exportService = mock(ParticipantExportService.class);
+        importService = mock(ParticipantImportService.class);
+        controller = new EventController(service, bulkService, exportService, importService,
+                new IdempotencyStore(new ObjectMapper().findAndRegisterModules(), 100, 60, 1),
+                mock(SearchIndex.class), mock(ParticipantTypeahead.class),
+                new PastEventSnapshots(snapshotSource, mock(EventRepository.class),
+                        new ObjectMapper().findAndRegisterModules(), 1_000_000, true),
+                new LiveCountStream(snapshotSource, new ObjectMapper().findAndRegisterModules(), 60_000, 1, 5000, 1),
+                mock(ChangeFeed.class));
 
         eventDto = new EventDto();
         summaryDto = new EventSummaryDto();
     }
 
+    @Test
+    void testLiveSubscriptionsAreLimited() {
+        Assertions.assertEquals(HttpStatus.OK, controller.subscribeToLiveCounts(5L).getStatusCode());
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, controller.subscribeToLiveCounts().getStatusCode());
+    }
+
+    @Test
+    void testUniqueRegistrationViolationIsDuplicateRegistration() {
+        ValidationResult result = controller.handleDataIntegrityViolation(violation(
+                "PUBLIC.UQ_PERSON_PARTICIPATION_EVENT_PERSONAL_CODE_INDEX_8"));
+        Assertions.assertEquals(List.of(ValidationResultErrorConstants.DUPLICATE_REGISTRATION), result.getMessages());
+
+        result = controller.handleDataIntegrityViolation(violation("uq_other_constraint"));
+        Assertions.assertEquals(List.of(ValidationResultErrorConstants.FAILED_TO_SAVE), result.getMessages());
+
+        result = controller.handleDataIntegrityViolation(new DataIntegrityViolationException(
+                "uq_person_participation_event_personal_code"));
+        Assertions.assertEquals(List.of(ValidationResultErrorConstants.FAILED_TO_SAVE), result.getMessages());
+    }
+
+    @Test
+    void testReusedIdempotencyKeyWithDifferentBodyIsUnprocessable() {
+        PersonParticipationDto first = new PersonParticipationDto();
+        first.setFirstName("Mari");
+        PersonParticipationDto second = new PersonParticipationDto();
+        second.setFirstName("Jüri");
+        controller.addPersonParticipation(first, "key");
+
+        IdempotencyKeyException e = Assertions.assertThrows(IdempotencyKeyException.class,
+                () -> controller.addPersonParticipation(second, "key"));
+        Assertions.assertEquals(HttpStatus.UNPROCESSABLE_ENTITY,
+                controller.handleIdempotencyKeyException(e).getStatusCode());
+        verify(service, times(1)).addPersonParticipation(any(PersonParticipationDto.class));
+    }
+
     @Test
     void testCreateEventTriggersCorrectMethodInService() {
-        controller.createEvent(eventDto);
+        controller.createEvent(eventDto, null);
         verify(service, times(1)).createEvent(any(EventDto.class));
     }
 
@@ -50,41 +133,176 @@ class EventControllerTest {
     @Test
     void testGetEventSummaryTriggersCorrectMethodInService() {
         summaryDto.setId(1L);
-        controller.getEventSummary(summaryDto.getId());
+        controller.getEventSummary(summaryDto.getId(), null, newRequest());
         verify(service, times(1)).getEventSummaryById(1L);
     }
 
 
     @Test
     void testGetPastEventsTriggersCorrectMethodInService() {
-        controller.getPastEvents();
-        verify(service, times(1)).getPastEventsSummaries();
+        controller.getPastEvents(null);
+        verify(snapshotSource, times(1)).getPastEventsSummaries();
     }
 
     @Test
     void testGetFutureEventsTriggersCorrectMethodInService() {
-        controller.getFutureEvents();
+        controller.getFutureEvents(newRequest());
         verify(service, times(1)).getFutureEventsSummaries();
     }
 
+    @Test
+    void testGetPastEventsPageTriggersCorrectMethodInService() {
+        controller.getPastEventsPage(2, 10);
+        verify(service, times(1)).getPastEventsSummaries(2, 10);
+    }
+
+    @Test
+    void testGetFutureEventsPageTriggersCorrectMethodInService() {
+        controller.getFutureEventsPage(0, 20);
+        verify(service, times(1)).getFutureEventsSummaries(0, 20);
+    }
+
+    @Test
+    void testGetPastEventsByCursorTriggersCorrectMethodInService() {
+        controller.getPastEventsByCursor(null, null, 20);
+        verify(service, times(1)).getPastEventsSummariesBefore(null, null, 20);
+    }
+
+    @Test
+    void testGetFutureEventsByCursorTriggersCorrectMethodInService() {
+        controller.getFutureEventsByCursor(null, null, 20);
+        verify(service, times(1)).getFutureEventsSummariesAfter(null, null, 20);
+    }
+
     @Test
     void testGetParticipantsForAnEventTriggersCorrectMethodInService() {
-        controller.getEventParticipantsByEventId(5L);
+        controller.getEventParticipantsByEventId(5L, null, newRequest());
         verify(service, times(1)).getEventParticipantSummariesList(5L);
     }
 
+    @Test
+    void testParticipantsAreNotLoadedWhenEtagMatches() {
+        when(service.getEventVersion(5L)).thenReturn(3L);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/events/participants/5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.getEventParticipantsByEventId(5L, null, new ServletWebRequest(request, response));
+        String etag = response.getHeader("ETag");
+        Assertions.assertNotNull(etag);
+
+        request = new MockHttpServletRequest("GET", "/events/participants/5");
+        request.addHeader("If-None-Match", etag);
+        response = new MockHttpServletResponse();
+        Assertions.assertNull(
+                controller.getEventParticipantsByEventId(5L, null, new ServletWebRequest(request, response)));
+        Assertions.assertEquals(304, response.getStatus());
+        verify(service, times(1)).getEventParticipantSummariesList(5L);
+    }
+
+    @Test
+    void testChangedVersionChangesEtag() {
+        when(service.getEventVersion(5L)).thenReturn(3L);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/events/5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.getEventSummary(5L, null, new ServletWebRequest(request, response));
+        String etag = response.getHeader("ETag");
+
+        when(service.getEventVersion(5L)).thenReturn(4L);
+        request = new MockHttpServletRequest("GET", "/events/5");
+        request.addHeader("If-None-Match", etag);
+        response = new MockHttpServletResponse();
+        controller.getEventSummary(5L, null, new ServletWebRequest(request, response));
+        Assertions.assertEquals(200, response.getStatus());
+        Assertions.assertNotEquals(etag, response.getHeader("ETag"));
+        verify(service, times(2)).getEventSummaryById(5L);
+    }
+
+    @Test
+    void testParticipantsOfPastEventAreServedGzippedFromSnapshot() {
+        when(snapshotSource.getEventSummaryById(5L)).thenReturn(
+                new EventSummaryDto(5L, "Linnajooks", LocalDateTime.now().minusDays(1), "Pärnu", 1));
+        when(snapshotSource.getEventParticipantSummariesList(5L)).thenReturn(List.of(new ParticipationSummaryDto(
+                "Mari Maasikas", "49001010000", 7L, ParticipationSummaryDto.ParticipationType.PERSON)));
+
+        ResponseEntity<?> plain = controller.getEventParticipantsByEventId(5L, null, newRequest());
+        ResponseEntity<?> gzipped = controller.getEventParticipantsByEventId(5L, "gzip, deflate", newRequest());
+
+        Assertions.assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        Assertions.assertNull(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        Assertions.assertNotEquals(plain.getHeaders().getETag(), gzipped.getHeaders().getETag());
+        Assertions.assertTrue(new String((byte[]) plain.getBody(), StandardCharsets.UTF_8).contains("Mari Maasikas"));
+        verify(snapshotSource, times(1)).getEventParticipantSummariesList(5L);
+        verify(service, never()).getEventVersion(5L);
+    }
+
+    @Test
+    void testMissingEventHasNoEtag() {
+        when(service.getEventVersion(6L)).thenReturn(null);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.getEventParticipantsByEventId(6L, null,
+                new ServletWebRequest(new MockHttpServletRequest("GET", "/events/participants/6"), response));
+        Assertions.assertNull(response.getHeader("ETag"));
+        verify(service, times(1)).getEventParticipantSummariesList(6L);
+    }
+
+    @Test
+    void testExportParticipantsTriggersCorrectMethodInService() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.exportEventParticipants(5L, ExportFormat.NDJSON, response);
+
+        verify(exportService, times(1)).exportParticipants(eq(5L), eq(ExportFormat.NDJSON), any());
+        Assertions.assertEquals("application/x-ndjson;charset=UTF-8", response.getContentType());
+    }
+
+    @Test
+    void testImportParticipationsTriggersCorrectMethodInService() throws IOException {
+        controller.importParticipations(5L, 100L, 500, new MockHttpServletRequest());
+        verify(importService, times(1)).importParticipants(eq(5L), any(), eq(100L), eq(500));
+    }
+
+    @Test
+    void testGetCacheStatsTriggersCorrectMethodInService() {
+        controller.getCacheStats();
+        verify(service, times(1)).getCacheStatistics();
+    }
+
     @Test
     void testAddPersonParticipationTriggersCorrectMethodInService() {
-        controller.addPersonParticipation(new PersonParticipationDto());
+        controller.addPersonParticipation(new PersonParticipationDto(), null);
+        verify(service, times(1)).addPersonParticipation(any());
+    }
+
+    @Test
+    void testAddPersonParticipationRetriedWithSameKeyReturnsStoredResult() {
+        ValidationResult stored = new ValidationResult();
+        when(service.addPersonParticipation(any())).thenReturn(stored);
+
+        controller.addPersonParticipation(new PersonParticipationDto(), "retry-1");
+        ValidationResult retried = controller.addPersonParticipation(new PersonParticipationDto(), "retry-1");
+
+        Assertions.assertSame(stored, retried);
         verify(service, times(1)).addPersonParticipation(any());
     }
 
+    @Test
+    void testAddPersonParticipationDifferentKeysBothSaved() {
+        controller.addPersonParticipation(new PersonParticipationDto(), "retry-1");
+        controller.addPersonParticipation(new PersonParticipationDto(), "retry-2");
+        verify(service, times(2)).addPersonParticipation(any());
+    }
+
     @Test
     void testAddCompanyParticipationTriggersCorrectMethodInService() {
-        controller.addCompanyParticipation(new CompanyParticipationDto());
+        controller.addCompanyParticipation(new CompanyParticipationDto(), null);
         verify(service, times(1)).addCompanyParticipation(any());
     }
 
+    @Test
+    void testAddParticipationsTriggersCorrectMethodInService() {
+        BulkParticipationDto dto = new BulkParticipationDto();
+        controller.addParticipations(dto, null);
+        verify(bulkService, times(1)).addParticipations(dto);
+    }
+
     @Test
     void testDeleteParticipationTriggersCorrectMethodInService() {
         controller.deleteParticipation(ParticipationSummaryDto.ParticipationType.PERSON, 5L);
@@ -106,4 +324,12 @@ class EventControllerTest {
         verify(service, times(1)).editCompanyParticipation(dto);
     }
 
+    private static DataIntegrityViolationException violation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", new SQLException(), constraintName));
+    }
+
+    private static ServletWebRequest newRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse());
+    }
 }
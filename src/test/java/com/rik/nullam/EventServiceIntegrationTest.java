@@ -0,0 +1,107 @@
+package com.rik.nullam;
+
+import com.rik.nullam.dto.CompanyParticipationDto;
+import com.rik.nullam.dto.EventDto;
+import com.rik.nullam.dto.ParticipationSummaryDto;
+import com.rik.nullam.dto.PersonParticipationDto;
+import com.rik.nullam.entity.event.Event;
+import com.rik.nullam.entity.participation.CompanyParticipation;
+import com.rik.nullam.entity.participation.PersonParticipation;
+import com.rik.nullam.repository.CompanyParticipationRepository;
+import com.rik.nullam.repository.EventRepository;
+import com.rik.nullam.repository.PersonParticipationRepository;
+import com.rik.nullam.service.EventService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@SpringBootTest
+class EventServiceIntegrationTest {
+
+    @Autowired
+    private EventService service;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private PersonParticipationRepository personRepository;
+
+    @Autowired
+    private CompanyParticipationRepository companyRepository;
+
+    private Long eventId;
+
+    @BeforeEach
+    void setUp() {
+        String name = "Summary count " + System.nanoTime();
+        EventDto eventDto = new EventDto();
+        eventDto.setName(name);
+        eventDto.setTime(LocalDateTime.now().plusDays(30));
+        eventDto.setLocation("Tallinn");
+        Assertions.assertTrue(service.createEvent(eventDto).isValid());
+        eventId = eventRepository.findEventsByTimeAfter(LocalDateTime.now()).stream()
+                .filter(event -> name.equals(event.getName()))
+                .map(Event::getId)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.deleteEventById(eventId);
+    }
+
+    @Test
+    void testSummaryCountsPersonsAndCompanyParticipantsInDatabase() {
+        Assertions.assertTrue(service.addPersonParticipation(person("Mari", "Maasikas", "49001010000")).isValid());
+        Assertions.assertTrue(service.addPersonParticipation(person("Jüri", "Mägi", "38001010000")).isValid());
+        Assertions.assertTrue(service.addCompanyParticipation(company("Kalurid OÜ", "12345678", 3)).isValid());
+        Assertions.assertTrue(service.addCompanyParticipation(company("Matkad OÜ", "87654321", 4)).isValid());
+
+        Assertions.assertEquals(9, service.getEventSummaryById(eventId).getNumberOfParticipants());
+        Assertions.assertEquals(countRows(), service.getEventSummaryById(eventId).getNumberOfParticipants());
+
+        Long removed = personRepository.getPersonParticipationsByEvent_Id(eventId).get(0).getId();
+        Assertions.assertTrue(service.deleteParticipation(ParticipationSummaryDto.ParticipationType.PERSON, removed));
+
+        Assertions.assertEquals(8, service.getEventSummaryById(eventId).getNumberOfParticipants());
+        Assertions.assertEquals(countRows(), service.getEventSummaryById(eventId).getNumberOfParticipants());
+    }
+
+    /**
+     * Count participants of the event from its participation rows.
+     * @return number of persons and participants of companies.
+     */
+    private int countRows() {
+        List<PersonParticipation> persons = personRepository.getPersonParticipationsByEvent_Id(eventId);
+        List<CompanyParticipation> companies = companyRepository.getCompanyParticipationsByEvent_Id(eventId);
+        return persons.size() + companies.stream().mapToInt(CompanyParticipation::getNumberOfParticipants).sum();
+    }
+
+    private PersonParticipationDto person(String firstName, String lastName, String personalCode) {
+        PersonParticipationDto dto = new PersonParticipationDto();
+        dto.setEventId(eventId);
+        dto.setPaymentMethod("CASH");
+        dto.setFirstName(firstName);
+        dto.setLastName(lastName);
+        dto.setPersonalCode(personalCode);
+        return dto;
+    }
+
+    private CompanyParticipationDto company(String companyName, String registryCode, int numberOfParticipants) {
+        CompanyParticipationDto dto = new CompanyParticipationDto();
+        dto.setEventId(eventId);
+        dto.setPaymentMethod("BANK_TRANSFER");
+        dto.setCompanyName(companyName);
+        dto.setRegistryCode(registryCode);
+        dto.setNumberOfParticipants(numberOfParticipants);
+        return dto;
+    }
+}
@@ -2,10 +2,14 @@ package com.rik.nullam;
 
 import com.rik.nullam.dto.CompanyParticipationDto;
 import com.rik.nullam.dto.EventDto;
+import com.rik.nullam.dto.EventSummaryCursorDto;
 import com.rik.nullam.dto.EventSummaryDto;
+import com.rik.nullam.dto.EventSummaryPageDto;
+import com.rik.nullam.dto.ParticipationExportDto;
 import com.rik.nullam.dto.ParticipationSummaryDto;
 import com.rik.nullam.dto.PersonParticipationDto;
 import com.rik.nullam.dto.ValidationResult;
+import com.rik.nullam.entity.change.ParticipationChange;
 import com.rik.nullam.entity.event.Event;
 
 import com.rik.nullam.entity.participation.CompanyParticipation;
@@ -14,21 +18,38 @@ import com.rik.nullam.entity.participation.PersonParticipation;
 import com.rik.nullam.repository.CompanyParticipationRepository;
 import com.rik.nullam.repository.EventRepository;
 import com.rik.nullam.repository.PersonParticipationRepository;
+import com.rik.nullam.service.BusinessEventLog;
+import com.rik.nullam.service.ChangeFeed;
+import com.rik.nullam.service.EventArchive;
+import com.rik.nullam.service.EventDataChangedEvent;
 import com.rik.nullam.service.EventService;
+import com.rik.nullam.service.EventSummaryCache;
 import com.rik.nullam.service.EventValidator;
 import com.rik.nullam.service.ParticipationValidator;
+import com.rik.nullam.service.SeatReservationEngine;
+import com.rik.nullam.service.WaitlistService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import static com.rik.nullam.service.ValidationResultErrorConstants.EVENT_IN_PAST;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -46,6 +67,12 @@ class EventServiceTest {
     private PersonParticipationRepository personRepository;
     private CompanyParticipationRepository companyRepository;
 
+    private EventSummaryCache eventSummaryCache;
+    private ApplicationEventPublisher eventPublisher;
+    private WaitlistService waitlistService;
+    private EventArchive eventArchive;
+    private ChangeFeed changeFeed;
+
     private EventDto eventDto;
 
     private Event event;
@@ -59,13 +86,24 @@ class EventServiceTest {
         companyRepository = mock(CompanyParticipationRepository.class);
         personRepository = mock(PersonParticipationRepository.class);
 
+        eventSummaryCache = new EventSummaryCache(100, 60);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+
+        waitlistService = mock(WaitlistService.class);
+        eventArchive = mock(EventArchive.class);
+        changeFeed = mock(ChangeFeed.class);
+
         service = new EventService(eventValidator, participationValidator,
-                eventRepository, companyRepository, personRepository);
+                eventRepository, companyRepository, personRepository, eventSummaryCache, eventPublisher,
+                new SeatReservationEngine(eventRepository), waitlistService, mock(BusinessEventLog.class),
+                eventArchive, changeFeed);
+        when(eventRepository.reserveSeats(anyLong(), anyInt())).thenReturn(1);
 
         eventDto = new EventDto();
 
         event = new Event("Prügikoristuspäev", LocalDateTime.now().plusDays(1),
-                "Tallinn", null);
+                "Tallinn", null, null);
+        ReflectionTestUtils.setField(event, "id", 5L);
     }
 
     @Test
@@ -128,7 +166,7 @@ class EventServiceTest {
     @Test
     void testDeleteEventInThePastFalse() {
         Event pastEvent = new Event(
-                "Linnajooks", LocalDateTime.now().minusDays(1L), "Pärnu", "5 km");
+                "Linnajooks", LocalDateTime.now().minusDays(1L), "Pärnu", "5 km", null);
         when(eventRepository.findEventById(5L)).thenReturn(Optional.of(pastEvent));
         Assertions.assertFalse(service.deleteEventById(5L));
     }
@@ -136,9 +174,8 @@ class EventServiceTest {
 
     @Test
     void testGetEventSummaryIncludesCorrectInfo() {
-        when(eventRepository.findEventById(5L)).thenReturn(Optional.of(event));
-        when(companyRepository.getCompanyParticipationsByEvent_Id(5L)).thenReturn(List.of());
-        when(personRepository.getPersonParticipationsByEvent_Id(5L)).thenReturn(List.of());
+        when(eventRepository.findEventSummaryById(5L)).thenReturn(Optional.of(new EventSummaryDto(
+                5L, event.getName(), event.getTime(), event.getLocation(), 0)));
         EventSummaryDto dto = service.getEventSummaryById(5L);
 
         Assertions.assertEquals(5L, dto.getId());
@@ -148,71 +185,78 @@ class EventServiceTest {
         Assertions.assertEquals(0, dto.getNumberOfParticipants());
     }
 
+    @Test
+    void testGetEventSummaryNoEventWithIdNull() {
+        when(eventRepository.findEventSummaryById(5L)).thenReturn(Optional.empty());
+        Assertions.assertNull(service.getEventSummaryById(5L));
+    }
 
     @Test
-    void testGetFutureEventsSummariesTriggersCorrectMethodInRepository() {
-        service.getFutureEventsSummaries();
+    void testGetEventSummaryDoesNotLoadParticipations() {
+        when(eventRepository.findEventSummaryById(5L)).thenReturn(Optional.empty());
+        service.getEventSummaryById(5L);
+        verifyNoInteractions(companyRepository, personRepository);
+    }
 
-        verify(eventRepository, times(1)).findEventsByTimeAfter(any());
+    @Test
+    void testGetEventSummaryRepeatedReadLoadedOnce() {
+        when(eventRepository.findEventSummaryById(5L)).thenReturn(Optional.of(new EventSummaryDto(
+                5L, event.getName(), event.getTime(), event.getLocation(), 0)));
+        service.getEventSummaryById(5L);
+        service.getEventSummaryById(5L);
+
+        verify(eventRepository, times(1)).findEventSummaryById(5L);
+        Assertions.assertEquals(1, service.getCacheStatistics().get(0).getHitCount());
     }
 
     @Test
-    void testGetPastEventsSummariesTriggersCorrectMethodInRepository() {
-        service.getPastEventsSummaries();
+    void testGetEventSummaryAfterInvalidationLoadedAgain() {
+        when(eventRepository.findEventSummaryById(5L)).thenReturn(Optional.of(new EventSummaryDto(
+                5L, event.getName(), event.getTime(), event.getLocation(), 0)));
+        service.getEventSummaryById(5L);
+        eventSummaryCache.onEventDataChanged(new EventDataChangedEvent(5L));
+        service.getEventSummaryById(5L);
+
+        verify(eventRepository, times(2)).findEventSummaryById(5L);
+    }
 
-        verify(eventRepository, times(1)).findEventsByTimeBefore(any());
+    @Test
+    void testGetEventParticipantSummariesRepeatedReadLoadedOnce() {
+        when(companyRepository.getCompanyParticipationsByEvent_Id(5L)).thenReturn(List.of());
+        when(personRepository.getPersonParticipationsByEvent_Id(5L)).thenReturn(List.of());
+        service.getEventParticipantSummariesList(5L);
+        service.getEventParticipantSummariesList(5L);
+
+        verify(personRepository, times(1)).getPersonParticipationsByEvent_Id(5L);
     }
 
     @Test
-    void testCalculateNumberOfParticipantsOnlyCompaniesCorrectAmount() {
-        CompanyParticipation participation1 = new CompanyParticipation(event, PaymentMethod.BANK_TRANSFER,
-                "Some info", "Maalritööd OÜ", "123456", 8);
+    void testGetFutureEventsSummariesTriggersCorrectMethodInRepository() {
+        service.getFutureEventsSummaries();
 
-        CompanyParticipation participation2 = new CompanyParticipation(event, PaymentMethod.BANK_TRANSFER,
-                "Some info", "Kanakasvatus OÜ", "7891234", 12);
+        verify(eventRepository, times(1)).findEventSummariesByTimeAfter(any());
+    }
 
+    @Test
+    void testGetPastEventsSummariesTriggersCorrectMethodInRepository() {
+        service.getPastEventsSummaries();
 
-        when(eventRepository.findEventsByTimeAfter(any())).thenReturn(List.of(event));
-        when(companyRepository.getCompanyParticipationsByEvent_Id(any()))
-                .thenReturn(List.of(participation1, participation2));
-        when(personRepository.getPersonParticipationsByEvent_Id(any()))
-                .thenReturn(List.of());
-        List<EventSummaryDto> summaries = service.getFutureEventsSummaries();
-        Assertions.assertEquals(20, summaries.get(0).getNumberOfParticipants());
+        verify(eventRepository, times(1)).findEventSummariesByTimeBefore(any());
     }
 
     @Test
-    void testCalculateNumberOfParticipantsPersonsAndCompaniesCorrectAmount() {
-        CompanyParticipation participation1 = new CompanyParticipation(event, PaymentMethod.BANK_TRANSFER,
-                "Some info", "Maalritööd OÜ", "123456", 8);
-        CompanyParticipation participation2 = new CompanyParticipation(event, PaymentMethod.BANK_TRANSFER,
-                "Some info", "Kanakasvatus OÜ", "7891234", 12);
-        PersonParticipation participation3 = new PersonParticipation(event, PaymentMethod.BANK_TRANSFER,
-                "Some info", "Mari", "Mets", "4880101376");
-        PersonParticipation participation4 = new PersonParticipation(event, PaymentMethod.BANK_TRANSFER,
-                "Some info", "Mati", "Mets", "3880101376");
+    void testGetFutureEventsSummariesDoesNotLoadParticipations() {
+        when(eventRepository.findEventSummariesByTimeAfter(any())).thenReturn(List.of(
+                new EventSummaryDto(5L, event.getName(), event.getTime(), event.getLocation(), 22)));
+        service.getFutureEventsSummaries();
 
-        when(eventRepository.findEventsByTimeAfter(any())).thenReturn(List.of(event));
-        when(companyRepository.getCompanyParticipationsByEvent_Id(any()))
-                .thenReturn(List.of(participation1, participation2));
-        when(personRepository.getPersonParticipationsByEvent_Id(any()))
-                .thenReturn(List.of(participation3, participation4));
-        List<EventSummaryDto> summaries = service.getFutureEventsSummaries();
-        Assertions.assertEquals(22, summaries.get(0).getNumberOfParticipants());
+        verifyNoInteractions(companyRepository, personRepository);
     }
 
     @Test
     void testGetEventSummariesListIncludesCorrectInfo() {
-        CompanyParticipation participation1 = new CompanyParticipation(event, PaymentMethod.BANK_TRANSFER,
-                "Some info", "Maalritööd OÜ", "123456", 8);
-        PersonParticipation participation2 = new PersonParticipation(event, PaymentMethod.BANK_TRANSFER,
-                "Some info", "Mari", "Mets", "4880101376");
-
-        when(eventRepository.findEventsByTimeAfter(any())).thenReturn(List.of(event));
-        when(companyRepository.getCompanyParticipationsByEvent_Id(any()))
-                .thenReturn(List.of(participation1));
-        when(personRepository.getPersonParticipationsByEvent_Id(any()))
-                .thenReturn(List.of(participation2));
+        when(eventRepository.findEventSummariesByTimeAfter(any())).thenReturn(List.of(
+                new EventSummaryDto(5L, event.getName(), event.getTime(), event.getLocation(), 9)));
         List<EventSummaryDto> summaries = service.getFutureEventsSummaries();
         EventSummaryDto summary = summaries.get(0);
 
@@ -223,6 +267,93 @@ class EventServiceTest {
     }
 
 
+    @Test
+    void testGetFutureEventsPageSizeIsLimited() {
+        when(eventRepository.findEventSummariesByTimeAfter(any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 100), 0));
+        service.getFutureEventsSummaries(-1, 5000);
+
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        verify(eventRepository).findEventSummariesByTimeAfter(any(), pageableCaptor.capture());
+        Assertions.assertEquals(0, pageableCaptor.getValue().getPageNumber());
+        Assertions.assertEquals(100, pageableCaptor.getValue().getPageSize());
+    }
+
+    @Test
+    void testGetPastEventsPageIncludesCorrectInfo() {
+        EventSummaryDto summary = new EventSummaryDto(5L, "Linnajooks", LocalDateTime.now().minusDays(1),
+                "Pärnu", 4);
+        when(eventRepository.findEventSummariesByTimeBefore(any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(summary), PageRequest.of(1, 1), 3));
+        EventSummaryPageDto page = service.getPastEventsSummaries(1, 1);
+
+        Assertions.assertEquals(List.of(summary), page.getEvents());
+        Assertions.assertEquals(1, page.getPage());
+        Assertions.assertEquals(3, page.getTotalElements());
+        Assertions.assertEquals(3, page.getTotalPages());
+    }
+
+    @Test
+    void testGetPastEventsPageContinuesIntoArchive() {
+        EventSummaryDto recent = new EventSummaryDto(5L, "Linnajooks", LocalDateTime.now().minusDays(1),
+                "Pärnu", 4);
+        EventSummaryDto archived = new EventSummaryDto(2L, "Jaanipäev", LocalDateTime.now().minusYears(2),
+                "Tallinn", 10);
+        when(eventRepository.findEventSummariesByTimeBefore(any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(recent), PageRequest.of(0, 2), 1));
+        when(eventArchive.findSummaries(0L, 1)).thenReturn(List.of(archived));
+        when(eventArchive.count()).thenReturn(3L);
+        EventSummaryPageDto page = service.getPastEventsSummaries(0, 2);
+
+        Assertions.assertEquals(List.of(recent, archived), page.getEvents());
+        Assertions.assertEquals(4, page.getTotalElements());
+        Assertions.assertEquals(2, page.getTotalPages());
+    }
+
+    @Test
+    void testArchivedEventSummaryAndParticipantsAreFound() {
+        EventSummaryDto archived = new EventSummaryDto(2L, "Jaanipäev", LocalDateTime.now().minusYears(2),
+                "Tallinn", 4);
+        when(eventArchive.findSummary(2L)).thenReturn(Optional.of(archived));
+        when(eventArchive.findParticipations(2L)).thenReturn(Optional.of(List.of(
+                new ParticipationExportDto(ParticipationSummaryDto.ParticipationType.PERSON, 7L, 2L, "Mari",
+                        "Mets", null, "4880101376", 1, "CASH", null),
+                new ParticipationExportDto(ParticipationSummaryDto.ParticipationType.COMPANY, 8L, 2L, null,
+                        null, "Maalritööd OÜ", "12345678", 3, "CASH", null))));
+
+        Assertions.assertSame(archived, service.getEventSummaryById(2L));
+        List<ParticipationSummaryDto> participants = service.getEventParticipantSummariesList(2L);
+        Assertions.assertEquals("Maalritööd OÜ", participants.get(0).getName());
+        Assertions.assertEquals("Mari Mets", participants.get(1).getName());
+        Assertions.assertEquals(7L, participants.get(1).getParticipationId());
+    }
+
+    @Test
+    void testGetFutureEventsAfterCursorMoreEventsReturnsNextCursor() {
+        EventSummaryDto first = new EventSummaryDto(5L, "Esimene", event.getTime(), "Tallinn", 0);
+        EventSummaryDto second = new EventSummaryDto(6L, "Teine", event.getTime().plusDays(1), "Tallinn", 0);
+        when(eventRepository.findEventSummariesByTimeAfterCursor(any(), any(), any(), any()))
+                .thenReturn(List.of(first, second));
+        EventSummaryCursorDto cursor = service.getFutureEventsSummariesAfter(null, null, 1);
+
+        Assertions.assertEquals(List.of(first), cursor.getEvents());
+        Assertions.assertEquals(first.getTime(), cursor.getNextCursorTime());
+        Assertions.assertEquals(5L, cursor.getNextCursorId());
+    }
+
+    @Test
+    void testGetPastEventsBeforeCursorLastSliceHasNoCursor() {
+        LocalDateTime cursorTime = LocalDateTime.now().minusDays(3);
+        EventSummaryDto summary = new EventSummaryDto(5L, "Linnajooks", cursorTime.minusDays(1), "Pärnu", 0);
+        when(eventRepository.findEventSummariesByTimeBeforeCursor(any(), eq(cursorTime), eq(9L), any()))
+                .thenReturn(List.of(summary));
+        EventSummaryCursorDto cursor = service.getPastEventsSummariesBefore(cursorTime, 9L, 20);
+
+        Assertions.assertEquals(List.of(summary), cursor.getEvents());
+        Assertions.assertNull(cursor.getNextCursorTime());
+        Assertions.assertNull(cursor.getNextCursorId());
+    }
+
     @Test
     void testGetEventParticipantSummariesListCorrectDataForPersons() {
         PersonParticipation participation = new PersonParticipation(event, PaymentMethod.BANK_TRANSFER,
@@ -310,6 +441,43 @@ class EventServiceTest {
         Assertions.assertTrue(result.isValid());
     }
 
+    @Test
+    void testAddPersonParticipationCorrectIncrementsParticipantCount() {
+        PersonParticipationDto dto = new PersonParticipationDto();
+        dto.setEventId(5L);
+        dto.setFirstName("Mari");
+        dto.setLastName("Mets");
+        dto.setPersonalCode("4880101376");
+        dto.setPaymentMethod("BANK_TRANSFER");
+
+        when(participationValidator.validatePerson(dto)).thenReturn(new ValidationResult());
+        when(eventRepository.findEventById(5L)).thenReturn(Optional.of(event));
+
+        service.addPersonParticipation(dto);
+        verify(eventRepository, times(1)).reserveSeats(5L, 1);
+        verify(eventPublisher, times(1)).publishEvent(any(EventDataChangedEvent.class));
+    }
+
+    @Test
+    void testAddPersonParticipationIsRecordedInChangeFeed() {
+        PersonParticipationDto dto = new PersonParticipationDto();
+        dto.setEventId(5L);
+        dto.setFirstName("Mari");
+        dto.setLastName("Mets");
+        dto.setPersonalCode("4880101376");
+        dto.setPaymentMethod("BANK_TRANSFER");
+
+        when(participationValidator.validatePerson(dto)).thenReturn(new ValidationResult());
+        when(eventRepository.findEventById(5L)).thenReturn(Optional.of(event));
+
+        service.addPersonParticipation(dto);
+        ArgumentCaptor<ParticipationExportDto> captor = ArgumentCaptor.forClass(ParticipationExportDto.class);
+        verify(changeFeed, times(1)).recordParticipationChange(
+                eq(ParticipationChange.ChangeType.PARTICIPATION_ADDED), captor.capture());
+        Assertions.assertEquals("Mets", captor.getValue().getLastName());
+        Assertions.assertEquals(5L, captor.getValue().getEventId());
+    }
+
     @Test
     void testAddPersonParticipationInvalidDataNotSaved() {
         PersonParticipationDto dto = new PersonParticipationDto();
@@ -340,6 +508,45 @@ class EventServiceTest {
 
         verify(companyRepository, times(1)).save(any(CompanyParticipation.class));
         Assertions.assertTrue(result.isValid());
+        verify(eventRepository, times(1)).reserveSeats(5L, 25);
+    }
+
+    @Test
+    void testAddCompanyParticipationEventFullAddedToWaitlist() {
+        CompanyParticipationDto dto = new CompanyParticipationDto();
+        dto.setEventId(5L);
+        dto.setCompanyName("Torujüri OÜ");
+        dto.setRegistryCode("123456");
+        dto.setPaymentMethod("BANK_TRANSFER");
+        dto.setNumberOfParticipants(25);
+
+        when(participationValidator.validateCompany(dto)).thenReturn(new ValidationResult());
+        when(eventRepository.findEventById(5L)).thenReturn(Optional.of(event));
+        when(eventRepository.reserveSeats(5L, 25)).thenReturn(0);
+        when(waitlistService.addCompany(event, dto)).thenReturn(40L);
+
+        ValidationResult result = service.addCompanyParticipation(dto);
+
+        verifyNoInteractions(companyRepository);
+        Assertions.assertTrue(result.isValid());
+        Assertions.assertEquals(40L, result.getWaitlistEntryId());
+    }
+
+    @Test
+    void testAddPersonParticipationQueueExistsAddedToWaitlistWithoutReserving() {
+        PersonParticipationDto dto = new PersonParticipationDto(null, 5L, "CASH", null, "Mari", "Mets",
+                "48801013761");
+
+        when(participationValidator.validatePerson(dto)).thenReturn(new ValidationResult());
+        when(eventRepository.findEventById(5L)).thenReturn(Optional.of(event));
+        when(waitlistService.hasQueue(event)).thenReturn(true);
+        when(waitlistService.addPerson(event, dto)).thenReturn(41L);
+
+        ValidationResult result = service.addPersonParticipation(dto);
+
+        verifyNoInteractions(personRepository);
+        verify(eventRepository, never()).reserveSeats(anyLong(), anyInt());
+        Assertions.assertEquals(41L, result.getWaitlistEntryId());
     }
 
     @Test
@@ -380,6 +587,42 @@ class EventServiceTest {
         Assertions.assertTrue(result.isValid());
     }
 
+    @Test
+    void testEditPersonParticipationEventIsInThePastNotSaved() {
+        Event pastEvent = new Event("Linnajooks", LocalDateTime.now().minusDays(1), "Pärnu", null, null);
+        PersonParticipation participation = new PersonParticipation(pastEvent, PaymentMethod.BANK_TRANSFER,
+                "Some info", "Mari", "Mets", "4880101376");
+        participation.setId((8L));
+
+        PersonParticipationDto dto = new PersonParticipationDto();
+        dto.setParticipationId(8L);
+        dto.setEventId(5L);
+
+        when(personRepository.findById(8L)).thenReturn(Optional.of(participation));
+        when(participationValidator.validatePerson(dto)).thenReturn(new ValidationResult());
+
+        ValidationResult result = service.editPersonParticipation(dto);
+
+        verify(personRepository, never()).save(any(PersonParticipation.class));
+        Assertions.assertEquals(List.of(EVENT_IN_PAST), result.getMessages());
+    }
+
+    @Test
+    void testAddPersonParticipationEventIsInThePastNotSaved() {
+        PersonParticipationDto dto = new PersonParticipationDto();
+        dto.setEventId(5L);
+
+        when(participationValidator.validatePerson(dto)).thenReturn(new ValidationResult());
+        when(eventRepository.findEventById(5L)).thenReturn(Optional.of(
+                new Event("Linnajooks", LocalDateTime.now().minusDays(1), "Pärnu", null, null)));
+
+        ValidationResult result = service.addPersonParticipation(dto);
+
+        verify(personRepository, never()).save(any(PersonParticipation.class));
+        verify(eventRepository, never()).reserveSeats(anyLong(), anyInt());
+        Assertions.assertFalse(result.isValid());
+    }
+
     @Test
     void testEditPersonParticipationInvalidInfoNotSaved() {
         PersonParticipation participation = new PersonParticipation(event, PaymentMethod.BANK_TRANSFER,
@@ -427,6 +670,28 @@ class EventServiceTest {
         Assertions.assertTrue(result.isValid());
     }
 
+    @Test
+    void testEditCompanyParticipationChangedNumberOfParticipantsAdjustsParticipantCount() {
+        CompanyParticipation participation = new CompanyParticipation(event, PaymentMethod.BANK_TRANSFER,
+                "Some info", "Maalritööd OÜ", "123456", 8);
+        participation.setId(8L);
+
+        CompanyParticipationDto dto = new CompanyParticipationDto();
+        dto.setParticipationId(8L);
+        dto.setEventId(5L);
+        dto.setCompanyName(participation.getCompanyName());
+        dto.setRegistryCode(participation.getRegistryCode());
+        dto.setPaymentMethod("CASH");
+        dto.setNumberOfParticipants(5);
+
+        when(companyRepository.findById(8L)).thenReturn(Optional.of(participation));
+        when(participationValidator.validateCompany(dto)).thenReturn(new ValidationResult());
+
+        service.editCompanyParticipation(dto);
+        verify(eventRepository, times(1)).adjustParticipantCount(event.getId(), -3);
+        verify(waitlistService, times(1)).promote(event);
+    }
+
     @Test
     void testEditCompanyParticipationInvalidInfoNotSaved() {
         CompanyParticipation participation = new CompanyParticipation(event, PaymentMethod.BANK_TRANSFER,
@@ -458,6 +723,9 @@ class EventServiceTest {
 
         service.deleteParticipation(ParticipationSummaryDto.ParticipationType.PERSON, 5L);
         verify(personRepository, times(1)).deleteById(5L);
+        verify(waitlistService, times(1)).promote(event);
+        verify(changeFeed, times(1)).recordRemoval(event.getId(),
+                ParticipationSummaryDto.ParticipationType.PERSON, 5L);
     }
 
     @Test
@@ -469,12 +737,13 @@ class EventServiceTest {
 
         service.deleteParticipation(ParticipationSummaryDto.ParticipationType.COMPANY, 5L);
         verify(companyRepository, times(1)).deleteById(5L);
+        verify(eventRepository, times(1)).adjustParticipantCount(event.getId(), -8);
     }
 
     @Test
     void testDeleteCompanyParticipationEventIsInThePastFalse() {
         event = new Event("Prügikoristuspäev", LocalDateTime.now().minusDays(1),
-                "Tallinn", null);
+                "Tallinn", null, null);
 
         CompanyParticipation participation = new CompanyParticipation(event, PaymentMethod.BANK_TRANSFER,
                 "Some info", "Maalritööd OÜ", "123456", 8);
@@ -0,0 +1,57 @@
+package com.rik.nullam;
+
+import com.rik.nullam.dto.EventSummaryDto;
+import com.rik.nullam.service.EventSummaryCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SpringBootTest
+class EventSummaryCacheTest {
+
+    private EventSummaryCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new EventSummaryCache(100, 60);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testSummaryIsLoadedOnce() {
+        cache.getSummary(5L, this::load);
+        EventSummaryDto summary = cache.getSummary(5L, this::load);
+
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(1, summary.getNumberOfParticipants());
+    }
+
+    @Test
+    void testInvalidationDuringLoadDoesNotWaitAndDropsLoadedSummary() {
+        EventSummaryDto loaded = cache.getSummary(5L, id -> {
+            // A change committed while the summary is being loaded
+            cache.invalidate(id);
+            return load(id);
+        });
+        EventSummaryDto reloaded = cache.getSummary(5L, this::load);
+
+        Assertions.assertEquals(1, loaded.getNumberOfParticipants());
+        Assertions.assertEquals(2, reloaded.getNumberOfParticipants());
+    }
+
+    @Test
+    void testMissingSummaryIsNotCached() {
+        Assertions.assertNull(cache.getSummary(5L, id -> null));
+        Assertions.assertNotNull(cache.getSummary(5L, this::load));
+    }
+
+    private EventSummaryDto load(Long eventId) {
+        return new EventSummaryDto(eventId, "Linnajooks", LocalDateTime.now().plusDays(1), "Pärnu",
+                loads.incrementAndGet());
+    }
+}
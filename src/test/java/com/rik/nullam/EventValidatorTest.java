@@ -12,6 +12,7 @@ import java.time.LocalDateTime;
 
 import static com.rik.nullam.service.ValidationResultErrorConstants.INCORRECT_TIME;
 import static com.rik.nullam.service.ValidationResultErrorConstants.INFO_TOO_LONG;
+import static com.rik.nullam.service.ValidationResultErrorConstants.INVALID_CAPACITY;
 import static com.rik.nullam.service.ValidationResultErrorConstants.MISSING_OR_BLANK;
 
 
@@ -121,4 +122,17 @@ class EventValidatorTest {
         Assertions.assertFalse(result.isValid());
         Assertions.assertTrue(result.getMessages().contains(INFO_TOO_LONG));
     }
+
+    @Test
+    void validateEventCapacityZeroInvalid() {
+        eventDto.setName("Prügikoristuspäev");
+        eventDto.setLocation("Tallinn");
+        eventDto.setTime(LocalDateTime.now().plusDays(1));
+        eventDto.setCapacity(0);
+
+        result = validator.validate(eventDto);
+
+        Assertions.assertFalse(result.isValid());
+        Assertions.assertTrue(result.getMessages().contains(INVALID_CAPACITY));
+    }
 }
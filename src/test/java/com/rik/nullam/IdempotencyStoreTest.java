@@ -0,0 +1,120 @@
+package com.rik.nullam;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rik.nullam.service.IdempotencyKeyException;
+import com.rik.nullam.service.IdempotencyStore;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SpringBootTest
+class IdempotencyStoreTest {
+
+    private IdempotencyStore store;
+    private AtomicInteger calls;
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore(new ObjectMapper().findAndRegisterModules(), 100, 60, 1);
+        calls = new AtomicInteger();
+    }
+
+    @Test
+    void testExecuteSameKeyRunsActionOnce() {
+        Assertions.assertEquals(1, store.execute("add", "key", "body", calls::incrementAndGet));
+        Assertions.assertEquals(1, store.execute("add", "key", "body", calls::incrementAndGet));
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testExecuteWithoutKeyAlwaysRunsAction() {
+        store.execute("add", null, "body", calls::incrementAndGet);
+        store.execute("add", " ", "body", calls::incrementAndGet);
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testExecuteSameKeyDifferentOperationRunsBoth() {
+        store.execute("addPerson", "key", "body", calls::incrementAndGet);
+        store.execute("addCompany", "key", "body", calls::incrementAndGet);
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testExecuteFailedActionCanBeRetried() {
+        Assertions.assertThrows(IllegalStateException.class, () -> store.execute("add", "key", "body", () -> {
+            throw new IllegalStateException("Database unavailable");
+        }));
+        Assertions.assertEquals(1, store.execute("add", "key", "body", calls::incrementAndGet));
+    }
+
+    @Test
+    void testExecuteConcurrentRetriesWaitForFirstResponse() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<Integer> first = executor.submit(() -> store.execute("add", "key", "body", () -> {
+                started.countDown();
+                awaitQuietly(release);
+                return calls.incrementAndGet();
+            }));
+            started.await();
+            Future<Integer> retry = executor.submit(() -> store.execute("add", "key", "body", calls::incrementAndGet));
+            release.countDown();
+
+            Assertions.assertEquals(1, first.get());
+            Assertions.assertEquals(1, retry.get());
+        }
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testExecuteSameKeyDifferentRequestIsRefused() {
+        store.execute("add", "key", "body", calls::incrementAndGet);
+        IdempotencyKeyException e = Assertions.assertThrows(IdempotencyKeyException.class,
+                () -> store.execute("add", "key", "other body", calls::incrementAndGet));
+        Assertions.assertEquals(IdempotencyKeyException.Reason.REQUEST_MISMATCH, e.getReason());
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testExecuteRetryStopsWaitingForSlowFirstRequest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(1)) {
+            Future<Integer> first = executor.submit(() -> store.execute("add", "key", "body", () -> {
+                started.countDown();
+                awaitQuietly(release);
+                return calls.incrementAndGet();
+            }));
+            started.await();
+
+            IdempotencyKeyException e = Assertions.assertThrows(IdempotencyKeyException.class,
+                    () -> store.execute("add", "key", "body", calls::incrementAndGet));
+            Assertions.assertEquals(IdempotencyKeyException.Reason.IN_PROGRESS, e.getReason());
+
+            release.countDown();
+            Assertions.assertEquals(1, first.get());
+        }
+        Assertions.assertEquals(1, store.execute("add", "key", "body", calls::incrementAndGet));
+    }
+
+    /**
+     * Wait for latch, restoring the interrupt flag if interrupted.
+     * @param latch latch to wait for.
+     */
+    private void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
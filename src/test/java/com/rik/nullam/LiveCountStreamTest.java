@@ -0,0 +1,88 @@
+package com.rik.nullam;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rik.nullam.controller.LiveCountStream;
+import com.rik.nullam.dto.EventCountUpdateDto;
+import com.rik.nullam.dto.EventSummaryDto;
+import com.rik.nullam.service.EventDataChangedEvent;
+import com.rik.nullam.service.EventService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class LiveCountStreamTest {
+
+    private LiveCountStream stream;
+
+    private EventService eventService;
+
+    @BeforeEach
+    void setUp() {
+        eventService = mock(EventService.class);
+        stream = new LiveCountStream(eventService, new ObjectMapper().findAndRegisterModules(), 60_000, 2, 5000, 1);
+
+        when(eventService.getFutureEventsSummaries()).thenReturn(List.of(
+                new EventSummaryDto(5L, "Jaanipäev", LocalDateTime.now().plusDays(1), "Tallinn", 3)));
+        stream.loadCounts();
+    }
+
+    @Test
+    void testChangesAreCoalescedPerEvent() {
+        when(eventService.getEventSummaryById(5L)).thenReturn(
+                new EventSummaryDto(5L, "Jaanipäev", LocalDateTime.now().plusDays(1), "Tallinn", 5));
+        stream.onEventDataChanged(new EventDataChangedEvent(5L));
+        stream.onEventDataChanged(new EventDataChangedEvent(5L));
+
+        List<EventCountUpdateDto> updates = stream.flush();
+
+        Assertions.assertEquals(1, updates.size());
+        Assertions.assertEquals(5, updates.get(0).getSummary().getNumberOfParticipants());
+        Assertions.assertEquals(2, updates.get(0).getParticipantDelta());
+        Assertions.assertTrue(stream.flush().isEmpty());
+        verify(eventService, times(1)).getEventSummaryById(5L);
+    }
+
+    @Test
+    void testDeletedEventRemovesAllParticipants() {
+        stream.onEventDataChanged(new EventDataChangedEvent(5L));
+
+        EventCountUpdateDto update = stream.flush().get(0);
+
+        Assertions.assertNull(update.getSummary());
+        Assertions.assertEquals(-3, update.getParticipantDelta());
+    }
+
+    @Test
+    void testNewEventCountsFromZero() {
+        when(eventService.getEventSummaryById(6L)).thenReturn(
+                new EventSummaryDto(6L, "Laulupidu", LocalDateTime.now().plusDays(2), "Tartu", 1));
+        stream.onEventDataChanged(new EventDataChangedEvent(6L));
+
+        Assertions.assertEquals(1, stream.flush().get(0).getParticipantDelta());
+    }
+
+    @Test
+    void testSubscribersAreLimited() {
+        SseEmitter first = stream.subscribe(5L);
+        Assertions.assertNotNull(first);
+        Assertions.assertNotNull(stream.subscribe(null));
+        Assertions.assertNull(stream.subscribe(5L));
+        Assertions.assertEquals(2, stream.getSubscriberCount());
+
+        when(eventService.getEventSummaryById(5L)).thenReturn(
+                new EventSummaryDto(5L, "Jaanipäev", LocalDateTime.now().plusDays(1), "Tallinn", 4));
+        stream.onEventDataChanged(new EventDataChangedEvent(5L));
+        Assertions.assertEquals(1, stream.flush().size());
+    }
+}
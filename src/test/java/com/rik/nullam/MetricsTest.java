@@ -0,0 +1,107 @@
+package com.rik.nullam;
+
+import com.rik.nullam.config.RepositoryCallCounter;
+import com.rik.nullam.config.ValidationMetrics;
+import com.rik.nullam.controller.EventController;
+import com.rik.nullam.dto.PersonParticipationDto;
+import com.rik.nullam.dto.ValidationResult;
+import com.rik.nullam.service.EventService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import static com.rik.nullam.service.ValidationResultErrorConstants.DUPLICATE_REGISTRATION;
+import static com.rik.nullam.service.ValidationResultErrorConstants.EVENT_NOT_FOUND;
+
+@SpringBootTest
+class MetricsTest {
+
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MeterRegistry applicationMeterRegistry;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventController eventController;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testValidationFailuresAreCountedByCode() {
+        ValidationMetrics metrics = new ValidationMetrics(meterRegistry);
+        ValidationResult duplicate = new ValidationResult();
+        duplicate.addError(DUPLICATE_REGISTRATION);
+        ValidationResult notFound = new ValidationResult();
+        notFound.addError(EVENT_NOT_FOUND);
+        notFound.addError("Tundmatu viga.");
+
+        metrics.countFailures(duplicate);
+        metrics.countFailures(List.of(duplicate, notFound, new ValidationResult()));
+
+        Assertions.assertEquals(2, meterRegistry.get("nullam.validation.failures")
+                .tag("code", "DUPLICATE_REGISTRATION").counter().count());
+        Assertions.assertEquals(1, meterRegistry.get("nullam.validation.failures")
+                .tag("code", "EVENT_NOT_FOUND").counter().count());
+        Assertions.assertEquals(1, meterRegistry.get("nullam.validation.failures")
+                .tag("code", "OTHER").counter().count());
+    }
+
+    @Test
+    void testValidationFailuresAreCountedWhereTheyLeaveServicesAndHandlers() {
+        double notFound = failures("EVENT_NOT_FOUND");
+        double duplicate = failures("DUPLICATE_REGISTRATION");
+
+        eventService.addPersonParticipation(
+                new PersonParticipationDto(null, 999_999L, "CASH", null, "Mari", "Mets", "48801010123"));
+        eventController.handleDataIntegrityViolation(new DataIntegrityViolationException(
+                "could not execute statement", new ConstraintViolationException("could not execute statement", new SQLException(),
+                        "uq_person_participation_event_personal_code")));
+
+        Assertions.assertEquals(notFound + 1, failures("EVENT_NOT_FOUND"));
+        Assertions.assertEquals(duplicate + 1, failures("DUPLICATE_REGISTRATION"));
+    }
+
+    @Test
+    void testRepositoryCallsAreRecordedPerEndpoint() throws Exception {
+        RepositoryCallCounter counter = new RepositoryCallCounter(meterRegistry);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/events/participants/5");
+
+        counter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/events/participants/{eventId}");
+            RepositoryCallCounter.LISTENER.afterInvocation(null);
+            RepositoryCallCounter.LISTENER.afterInvocation(null);
+        });
+        // Calls outside of a request are not counted
+        RepositoryCallCounter.LISTENER.afterInvocation(null);
+
+        DistributionSummary summary = meterRegistry.get("nullam.repository.calls")
+                .tag("uri", "/events/participants/{eventId}").summary();
+        Assertions.assertEquals(1, summary.count());
+        Assertions.assertEquals(2, summary.totalAmount());
+    }
+
+    private double failures(String code) {
+        Counter counter = applicationMeterRegistry.find("nullam.validation.failures").tag("code", code).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
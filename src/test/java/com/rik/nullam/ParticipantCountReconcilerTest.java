@@ -0,0 +1,69 @@
+package com.rik.nullam;
+
+import com.rik.nullam.dto.ParticipantCountDriftDto;
+import com.rik.nullam.repository.EventRepository;
+import com.rik.nullam.service.EventDataChangedEvent;
+import com.rik.nullam.service.ParticipantCountReconciler;
+import com.rik.nullam.service.SeatReservationEngine;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class ParticipantCountReconcilerTest {
+
+    private ParticipantCountReconciler reconciler;
+    private EventRepository eventRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private SeatReservationEngine seatReservationEngine;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository = mock(EventRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        seatReservationEngine = mock(SeatReservationEngine.class);
+        reconciler = new ParticipantCountReconciler(eventRepository, eventPublisher, seatReservationEngine);
+    }
+
+    @Test
+    void testReconcileDriftedEventCountIsRepaired() {
+        when(eventRepository.findParticipantCountDrift())
+                .thenReturn(List.of(new ParticipantCountDriftDto(5L, 3L, 12L)));
+        when(eventRepository.repairParticipantCount(5L, 12, 3L)).thenReturn(1);
+
+        Assertions.assertEquals(1, reconciler.reconcile());
+        verify(eventRepository, times(1)).repairParticipantCount(5L, 12, 3L);
+        verify(seatReservationEngine, times(1)).forget(5L);
+        verify(eventPublisher, times(1)).publishEvent(any(EventDataChangedEvent.class));
+    }
+
+    @Test
+    void testReconcileEventChangedMeanwhileNotCountedAsRepaired() {
+        when(eventRepository.findParticipantCountDrift())
+                .thenReturn(List.of(new ParticipantCountDriftDto(5L, 3L, 12L)));
+        when(eventRepository.repairParticipantCount(5L, 12, 3L)).thenReturn(0);
+
+        Assertions.assertEquals(0, reconciler.reconcile());
+        verify(eventPublisher, never()).publishEvent(any(EventDataChangedEvent.class));
+    }
+
+    @Test
+    void testReconcileNoDriftNothingRepaired() {
+        when(eventRepository.findParticipantCountDrift()).thenReturn(List.of());
+
+        Assertions.assertEquals(0, reconciler.reconcile());
+        verify(eventRepository, never()).repairParticipantCount(any(), anyInt(), any());
+    }
+}
@@ -0,0 +1,45 @@
+package com.rik.nullam;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ParticipantExportEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testExportFormatIsCaseInsensitive() throws Exception {
+        for (String format : new String[] {"ndjson", "NDJSON", "NdJson"}) {
+            mockMvc.perform(get("/events/participants/9999/export").param("format", format))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                    .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                            "attachment; filename=\"participants-9999.ndjson\""));
+        }
+    }
+
+    @Test
+    void testExportDefaultsToCsv() throws Exception {
+        mockMvc.perform(get("/events/participants/9999/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"));
+    }
+
+    @Test
+    void testUnknownExportFormatIsBadRequest() throws Exception {
+        mockMvc.perform(get("/events/participants/9999/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,79 @@
+package com.rik.nullam;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rik.nullam.entity.event.Event;
+import com.rik.nullam.entity.participation.CompanyParticipation;
+import com.rik.nullam.entity.participation.PaymentMethod;
+import com.rik.nullam.entity.participation.PersonParticipation;
+import com.rik.nullam.repository.CompanyParticipationRepository;
+import com.rik.nullam.repository.PersonParticipationRepository;
+import com.rik.nullam.service.ExportFormat;
+import com.rik.nullam.service.ParticipantExportService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class ParticipantExportServiceTest {
+
+    private ParticipantExportService service;
+
+    private PersonParticipationRepository personRepository;
+    private CompanyParticipationRepository companyRepository;
+
+    private PersonParticipation person;
+    private CompanyParticipation company;
+
+    @BeforeEach
+    void setUp() {
+        personRepository = mock(PersonParticipationRepository.class);
+        companyRepository = mock(CompanyParticipationRepository.class);
+        service = new ParticipantExportService(personRepository, companyRepository, new ObjectMapper(),
+                mock(EntityManager.class));
+
+        Event event = new Event("Linnajooks", LocalDateTime.now().plusDays(1), "Pärnu", null, null);
+        person = new PersonParticipation(event, PaymentMethod.CASH, "Tuleb, kui ilm lubab",
+                "Mari", "Mets", "48801010123");
+        person.setId(1L);
+        company = new CompanyParticipation(event, PaymentMethod.BANK_TRANSFER, null,
+                "Katusemehed \"OÜ\"", "12345678", 3);
+        company.setId(2L);
+
+        when(personRepository.streamPersonParticipationsByEventId(5L)).thenReturn(Stream.of(person));
+        when(companyRepository.streamCompanyParticipationsByEventId(5L)).thenReturn(Stream.of(company));
+    }
+
+    @Test
+    void testExportCsvWritesHeaderAndEscapedRows() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.exportParticipants(5L, ExportFormat.CSV, out);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+
+        Assertions.assertEquals(3, lines.length);
+        Assertions.assertEquals(String.join(",", ParticipantExportService.CSV_COLUMNS), lines[0]);
+        Assertions.assertEquals("PERSON,1,,Mari,Mets,,48801010123,1,CASH,\"Tuleb, kui ilm lubab\"", lines[1]);
+        Assertions.assertEquals("COMPANY,2,,,,\"Katusemehed \"\"OÜ\"\"\",12345678,3,BANK_TRANSFER,", lines[2]);
+    }
+
+    @Test
+    void testExportNdjsonWritesOneObjectPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.exportParticipants(5L, ExportFormat.NDJSON, out);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+
+        Assertions.assertEquals(2, lines.length);
+        Assertions.assertTrue(lines[0].contains("\"code\":\"48801010123\""));
+        Assertions.assertTrue(lines[1].contains("\"type\":\"COMPANY\""));
+    }
+}
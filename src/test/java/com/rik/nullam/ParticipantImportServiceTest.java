@@ -0,0 +1,123 @@
+package com.rik.nullam;
+
+import com.rik.nullam.dto.BulkParticipationDto;
+import com.rik.nullam.dto.BulkParticipationResultDto;
+import com.rik.nullam.dto.ImportReportDto;
+import com.rik.nullam.dto.ValidationResult;
+import com.rik.nullam.service.BulkParticipationService;
+import com.rik.nullam.service.ParticipantImportService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class ParticipantImportServiceTest {
+
+    private static final String CSV = """
+            type,firstName,lastName,companyName,code,numberOfParticipants,paymentMethod,additionalInfo
+            PERSON,Mari,Mets,,48801010123,,CASH,"Tuleb, kui ilm lubab"
+            COMPANY,,,"Katusemehed OÜ",12345678,3,BANK_TRANSFER,"Kaks rida
+            lisainfot"
+            PERSON,Mati,Mets,,38801010123,,CASH,
+            UNKNOWN,,,,,,,
+            """;
+
+    private ParticipantImportService service;
+    private BulkParticipationService bulkService;
+
+    @BeforeEach
+    void setUp() {
+        bulkService = mock(BulkParticipationService.class);
+        service = new ParticipantImportService(bulkService);
+
+        when(bulkService.addParticipations(any())).thenAnswer(invocation -> {
+            BulkParticipationDto dto = invocation.getArgument(0);
+            List<ValidationResult> persons = dto.getPersons().stream().map(p -> new ValidationResult()).toList();
+            List<ValidationResult> companies = dto.getCompanies().stream().map(c -> new ValidationResult()).toList();
+            return new BulkParticipationResultDto(persons.size() + companies.size(), 0, persons, companies);
+        });
+    }
+
+    @Test
+    void testImportParticipantsCommitsInChunks() {
+        ImportReportDto report = service.importParticipants(5L, stream(CSV), 0, 2);
+
+        verify(bulkService, times(2)).addParticipations(any());
+        Assertions.assertTrue(report.isCompleted());
+        Assertions.assertEquals(4, report.getRowsRead());
+        Assertions.assertEquals(3, report.getRowsImported());
+        Assertions.assertEquals(1, report.getRowsRejected());
+        Assertions.assertEquals(4, report.getErrors().get(0).getRow());
+        Assertions.assertEquals(4, report.getLastCommittedRow());
+    }
+
+    @Test
+    void testImportParticipantsParsesQuotedFields() {
+        service.importParticipants(5L, stream(CSV), 0, 10);
+
+        ArgumentCaptor<BulkParticipationDto> captor = ArgumentCaptor.forClass(BulkParticipationDto.class);
+        verify(bulkService).addParticipations(captor.capture());
+        BulkParticipationDto dto = captor.getValue();
+
+        Assertions.assertEquals("Tuleb, kui ilm lubab", dto.getPersons().get(0).getAdditionalInfo());
+        Assertions.assertEquals(5L, dto.getPersons().get(0).getEventId());
+        Assertions.assertEquals("Kaks rida\nlisainfot", dto.getCompanies().get(0).getAdditionalInfo());
+        Assertions.assertEquals(3, dto.getCompanies().get(0).getNumberOfParticipants());
+    }
+
+    @Test
+    void testImportParticipantsSkipRowsResumesAfterCommittedRows() {
+        service.importParticipants(5L, stream(CSV), 2, 10);
+
+        ArgumentCaptor<BulkParticipationDto> captor = ArgumentCaptor.forClass(BulkParticipationDto.class);
+        verify(bulkService).addParticipations(captor.capture());
+        Assertions.assertEquals(1, captor.getValue().getPersons().size());
+        Assertions.assertEquals("Mati", captor.getValue().getPersons().get(0).getFirstName());
+        Assertions.assertTrue(captor.getValue().getCompanies().isEmpty());
+    }
+
+    @Test
+    void testImportParticipantsUnterminatedQuoteStopsWithProgress() {
+        String csv = "type,firstName,lastName,code,paymentMethod\nPERSON,Mari,Mets,48801010123,CASH\nPERSON,\"Mati";
+        ImportReportDto report = service.importParticipants(5L, stream(csv), 0, 1);
+
+        Assertions.assertFalse(report.isCompleted());
+        Assertions.assertNotNull(report.getFailureMessage());
+        Assertions.assertEquals(1, report.getLastCommittedRow());
+    }
+
+    @Test
+    void testImportParticipantsFailedChunkStopsAtLastCommittedRow() {
+        doReturn(new BulkParticipationResultDto(2, 0, List.of(new ValidationResult()),
+                List.of(new ValidationResult())))
+                .doThrow(new IllegalStateException("Database unavailable"))
+                .when(bulkService).addParticipations(any());
+
+        ImportReportDto report = service.importParticipants(5L, stream(CSV), 0, 2);
+
+        Assertions.assertFalse(report.isCompleted());
+        Assertions.assertEquals("Database unavailable", report.getFailureMessage());
+        Assertions.assertEquals(2, report.getLastCommittedRow());
+        Assertions.assertEquals(3, report.getFailedFromRow());
+        Assertions.assertEquals(4, report.getFailedToRow());
+        Assertions.assertEquals(2, report.getRowsImported());
+    }
+
+    private static InputStream stream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,127 @@
+package com.rik.nullam;
+
+import com.rik.nullam.dto.ParticipantSuggestionDto;
+import com.rik.nullam.dto.ParticipationSummaryDto;
+import com.rik.nullam.entity.event.Event;
+import com.rik.nullam.entity.participation.PaymentMethod;
+import com.rik.nullam.entity.participation.PersonParticipation;
+import com.rik.nullam.repository.CompanyParticipationRepository;
+import com.rik.nullam.repository.PersonParticipationRepository;
+import com.rik.nullam.service.EventDataChangedEvent;
+import com.rik.nullam.service.ParticipantTypeahead;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class ParticipantTypeaheadTest {
+
+    private ParticipantTypeahead typeahead;
+
+    private PersonParticipationRepository personRepository;
+    private CompanyParticipationRepository companyRepository;
+
+    @BeforeEach
+    void setUp() {
+        personRepository = mock(PersonParticipationRepository.class);
+        companyRepository = mock(CompanyParticipationRepository.class);
+        typeahead = new ParticipantTypeahead(personRepository, companyRepository, 3);
+
+        when(personRepository.streamPersonSuggestions()).thenReturn(Stream.of(
+                new ParticipantSuggestionDto("Jüri", "Mägi", "38001010000"),
+                new ParticipantSuggestionDto("Mari", "Maasikas", "49001010000")));
+        when(companyRepository.streamCompanySuggestions()).thenReturn(Stream.of(
+                new ParticipantSuggestionDto("Mägede Matkad OÜ", "12345678")));
+        typeahead.build();
+    }
+
+    @Test
+    void testSuggestByNamePrefixIgnoringDiacritics() {
+        List<ParticipantSuggestionDto> suggestions = typeahead.suggest("ma", null, 10);
+        Assertions.assertEquals(3, suggestions.size());
+        Assertions.assertEquals("Mari Maasikas", suggestions.get(0).getName());
+        Assertions.assertEquals("Mägede Matkad OÜ", suggestions.get(1).getName());
+        Assertions.assertEquals("Jüri Mägi", suggestions.get(2).getName());
+    }
+
+    @Test
+    void testSuggestByCodeAndType() {
+        List<ParticipantSuggestionDto> suggestions =
+                typeahead.suggest("3800", ParticipationSummaryDto.ParticipationType.PERSON, 10);
+        Assertions.assertEquals(1, suggestions.size());
+        Assertions.assertEquals("Jüri", suggestions.get(0).getFirstName());
+
+        suggestions = typeahead.suggest("Mä", ParticipationSummaryDto.ParticipationType.COMPANY, 10);
+        Assertions.assertEquals(1, suggestions.size());
+        Assertions.assertEquals("12345678", suggestions.get(0).getIdCode());
+    }
+
+    @Test
+    void testTypeIsNotCrowdedOutByOtherType() {
+        List<ParticipantSuggestionDto> suggestions =
+                typeahead.suggest("ma", ParticipationSummaryDto.ParticipationType.COMPANY, 1);
+        Assertions.assertEquals(1, suggestions.size());
+        Assertions.assertEquals("Mägede Matkad OÜ", suggestions.get(0).getName());
+    }
+
+    @Test
+    void testSuggestionsAreLimited() {
+        Assertions.assertEquals(1, typeahead.suggest("m", null, 1).size());
+        Assertions.assertTrue(typeahead.suggest(" ", null, 10).isEmpty());
+    }
+
+    @Test
+    void testChangedNameReplacesSuggestionOfSameCode() {
+        Event event = new Event("Jaanipäev", LocalDateTime.now().plusDays(1), "Tallinn", null, null);
+        PersonParticipation person = new PersonParticipation(event, PaymentMethod.CASH, null,
+                "Jüri", "Tamm", "38001010000");
+        when(personRepository.findById(7L)).thenReturn(Optional.of(person));
+        typeahead.onEventDataChanged(
+                new EventDataChangedEvent(5L, ParticipationSummaryDto.ParticipationType.PERSON, 7L));
+
+        Assertions.assertTrue(typeahead.suggest("Mägi", null, 10).isEmpty());
+        Assertions.assertEquals("Jüri Tamm", typeahead.suggest("tamm", null, 10).get(0).getName());
+        Assertions.assertEquals(3, typeahead.size());
+    }
+
+    @Test
+    void testNewParticipantsAreSkippedWhenFull() {
+        Event event = new Event("Jaanipäev", LocalDateTime.now().plusDays(1), "Tallinn", null, null);
+        PersonParticipation person = new PersonParticipation(event, PaymentMethod.CASH, null,
+                "Kalle", "Kask", "38501010000");
+        when(personRepository.findById(8L)).thenReturn(Optional.of(person));
+        typeahead.onEventDataChanged(
+                new EventDataChangedEvent(5L, ParticipationSummaryDto.ParticipationType.PERSON, 8L));
+
+        Assertions.assertTrue(typeahead.suggest("Kalle", null, 10).isEmpty());
+        Assertions.assertEquals(3, typeahead.size());
+    }
+
+    @Test
+    void testBuildStopsReadingWhenFull() {
+        AtomicInteger read = new AtomicInteger();
+        when(personRepository.streamPersonSuggestions()).thenReturn(Stream.iterate(0, i -> i + 1)
+                .map(i -> new ParticipantSuggestionDto("Mari", "Mets", "4900101" + i))
+                .peek(person -> read.incrementAndGet())
+                .limit(1000));
+        ParticipantTypeahead full = new ParticipantTypeahead(personRepository, companyRepository, 2);
+        full.build();
+
+        Assertions.assertEquals(2, full.size());
+        Assertions.assertTrue(read.get() <= 3);
+        // Only the typeahead built in setUp read the companies
+        verify(companyRepository, times(1)).streamCompanySuggestions();
+    }
+}
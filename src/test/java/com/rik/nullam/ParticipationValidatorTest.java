@@ -3,16 +3,28 @@ package com.rik.nullam;
 import com.rik.nullam.dto.CompanyParticipationDto;
 import com.rik.nullam.dto.PersonParticipationDto;
 import com.rik.nullam.dto.ValidationResult;
+import com.rik.nullam.repository.CompanyParticipationRepository;
 import com.rik.nullam.repository.EventRepository;
+import com.rik.nullam.repository.PersonParticipationRepository;
+import com.rik.nullam.repository.WaitlistEntryRepository;
 import com.rik.nullam.service.ParticipationValidator;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.util.List;
+import java.util.Set;
+
+import static com.rik.nullam.service.ValidationResultErrorConstants.DUPLICATE_REGISTRATION;
+import static com.rik.nullam.service.ValidationResultErrorConstants.EVENT_NOT_FOUND;
 import static com.rik.nullam.service.ValidationResultErrorConstants.INVALID_CODE_FORMAT;
 import static com.rik.nullam.service.ValidationResultErrorConstants.MISSING_OR_BLANK;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -20,6 +32,9 @@ class ParticipationValidatorTest {
 
     private ParticipationValidator validator;
     private EventRepository eventRepository;
+    private PersonParticipationRepository personRepository;
+    private CompanyParticipationRepository companyRepository;
+    private WaitlistEntryRepository waitlistRepository;
 
     private ValidationResult result;
     private PersonParticipationDto personDto;
@@ -29,7 +44,11 @@ class ParticipationValidatorTest {
     @BeforeEach
     void setUp() {
         eventRepository = mock(EventRepository.class);
-        validator = new ParticipationValidator(eventRepository);
+        personRepository = mock(PersonParticipationRepository.class);
+        companyRepository = mock(CompanyParticipationRepository.class);
+        waitlistRepository = mock(WaitlistEntryRepository.class);
+        validator = new ParticipationValidator(eventRepository, personRepository, companyRepository,
+                waitlistRepository);
         result = new ValidationResult();
         personDto = new PersonParticipationDto();
         companyDto = new CompanyParticipationDto();
@@ -133,4 +152,79 @@ class ParticipationValidatorTest {
         Assertions.assertFalse(result.isValid());
         Assertions.assertTrue(result.getMessages().contains(INVALID_CODE_FORMAT));
     }
+
+    @Test
+    void testValidatePersonsUsesKnownEventsWithoutRepository() {
+        PersonParticipationDto otherEvent = new PersonParticipationDto(null, 6L, "CASH", null,
+                "Mari", "Mets", "48801010123");
+        List<ValidationResult> results = validator.validatePersons(List.of(personDto, otherEvent), Set.of(5L));
+
+        Assertions.assertTrue(results.get(0).isValid());
+        Assertions.assertTrue(results.get(1).getMessages().contains(EVENT_NOT_FOUND));
+        verify(eventRepository, never()).existsById(any());
+    }
+
+    @Test
+    void testValidateCompaniesReportsEachRowSeparately() {
+        CompanyParticipationDto invalid = new CompanyParticipationDto(null, 5L, "CASH", null,
+                "Kalurid OÜ", "12-45678", 3);
+        List<ValidationResult> results = validator.validateCompanies(List.of(companyDto, invalid), Set.of(5L));
+
+        Assertions.assertTrue(results.get(0).isValid());
+        Assertions.assertTrue(results.get(1).getMessages().contains(INVALID_CODE_FORMAT));
+    }
+
+    @Test
+    void testValidatePersonAlreadyRegisteredDuplicate() {
+        when(eventRepository.existsById(5L)).thenReturn(true);
+        when(personRepository.existsByEvent_IdAndPersonalCode(5L, "38806170123")).thenReturn(true);
+
+        result = validator.validatePerson(personDto);
+        Assertions.assertFalse(result.isValid());
+        Assertions.assertTrue(result.getMessages().contains(DUPLICATE_REGISTRATION));
+    }
+
+    @Test
+    void testValidatePersonEditOwnParticipationNotDuplicate() {
+        personDto.setParticipationId(9L);
+        when(eventRepository.existsById(5L)).thenReturn(true);
+        when(personRepository.existsByEvent_IdAndPersonalCode(5L, "38806170123")).thenReturn(true);
+        when(personRepository.existsByEvent_IdAndPersonalCodeAndIdNot(5L, "38806170123", 9L)).thenReturn(false);
+
+        result = validator.validatePerson(personDto);
+        Assertions.assertTrue(result.isValid());
+    }
+
+    @Test
+    void testValidateCompanyWaitingDuplicate() {
+        when(eventRepository.existsById(5L)).thenReturn(true);
+        when(waitlistRepository.existsByEvent_IdAndRegistryCode(5L, "18882936")).thenReturn(true);
+
+        result = validator.validateCompany(companyDto);
+        Assertions.assertTrue(result.getMessages().contains(DUPLICATE_REGISTRATION));
+    }
+
+    @Test
+    void testValidatePersonInvalidFormatDuplicateNotChecked() {
+        personDto.setPersonalCode("3880617012A");
+        when(eventRepository.existsById(5L)).thenReturn(true);
+
+        validator.validatePerson(personDto);
+        verify(personRepository, never()).existsByEvent_IdAndPersonalCode(any(), any());
+    }
+
+    @Test
+    void testValidatePersonsRepeatedInListAndRegisteredAreDuplicates() {
+        PersonParticipationDto registered = new PersonParticipationDto(null, 5L, "CASH", null,
+                "Mari", "Mets", "48801010123");
+        when(personRepository.findRegisteredPersonalCodes(eq(5L), any())).thenReturn(List.of("48801010123"));
+
+        List<ValidationResult> results = validator.validatePersons(
+                List.of(personDto, personDto, registered), Set.of(5L));
+
+        Assertions.assertTrue(results.get(0).isValid());
+        Assertions.assertTrue(results.get(1).getMessages().contains(DUPLICATE_REGISTRATION));
+        Assertions.assertTrue(results.get(2).getMessages().contains(DUPLICATE_REGISTRATION));
+        verify(personRepository, never()).existsByEvent_IdAndPersonalCode(any(), any());
+    }
 }
@@ -0,0 +1,125 @@
+package com.rik.nullam;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rik.nullam.dto.EventSummaryDto;
+import com.rik.nullam.dto.ParticipationSummaryDto;
+import com.rik.nullam.repository.EventRepository;
+import com.rik.nullam.service.EventDataChangedEvent;
+import com.rik.nullam.service.EventService;
+import com.rik.nullam.service.PastEventSnapshots;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class PastEventSnapshotsTest {
+
+    private PastEventSnapshots snapshots;
+
+    private EventService eventService;
+    private EventRepository eventRepository;
+
+    @BeforeEach
+    void setUp() {
+        eventService = mock(EventService.class);
+        eventRepository = mock(EventRepository.class);
+        snapshots = new PastEventSnapshots(eventService, eventRepository,
+                new ObjectMapper().findAndRegisterModules(), 1_000_000, true);
+
+        when(eventService.getEventSummaryById(5L)).thenReturn(
+                new EventSummaryDto(5L, "Linnajooks", LocalDateTime.now().minusDays(1), "Pärnu", 1));
+        when(eventService.getEventSummaryById(6L)).thenReturn(
+                new EventSummaryDto(6L, "Jaanipäev", LocalDateTime.now().plusDays(1), "Tallinn", 0));
+        when(eventService.getEventParticipantSummariesList(5L)).thenReturn(List.of(new ParticipationSummaryDto(
+                "Mari Maasikas", "49001010000", 7L, ParticipationSummaryDto.ParticipationType.PERSON)));
+    }
+
+    @Test
+    void testPastEventIsSerializedOnce() throws IOException {
+        PastEventSnapshots.Snapshot<List<ParticipationSummaryDto>> first = snapshots.getParticipants(5L);
+        PastEventSnapshots.Snapshot<List<ParticipationSummaryDto>> second = snapshots.getParticipants(5L);
+
+        Assertions.assertSame(first.getJson(), second.getJson());
+        Assertions.assertArrayEquals(first.getJson(), gunzip(first.getGzippedJson()));
+        Assertions.assertTrue(new String(first.getJson(), StandardCharsets.UTF_8).contains("Mari Maasikas"));
+        verify(eventService, times(1)).getEventParticipantSummariesList(5L);
+    }
+
+    @Test
+    void testFutureAndMissingEventsHaveNoSnapshot() {
+        Assertions.assertNull(snapshots.getParticipants(6L));
+        Assertions.assertNull(snapshots.getSummary(6L));
+        Assertions.assertNull(snapshots.getSummary(7L));
+    }
+
+    @Test
+    void testChangeDropsSnapshot() {
+        String etag = snapshots.getParticipants(5L).getEtag();
+        when(eventService.getEventParticipantSummariesList(5L)).thenReturn(List.of());
+        snapshots.onEventDataChanged(new EventDataChangedEvent(5L));
+
+        Assertions.assertNotEquals(etag, snapshots.getParticipants(5L).getEtag());
+        Assertions.assertTrue(snapshots.getParticipants(5L).getValue().isEmpty());
+    }
+
+    @Test
+    void testPastEventsAreKeptUntilNextEventStarts() {
+        EventSummaryDto summary = eventService.getEventSummaryById(5L);
+        when(eventService.getPastEventsSummaries()).thenReturn(List.of(summary));
+        when(eventRepository.findNextEventTimeAfter(any()))
+                .thenReturn(Optional.of(LocalDateTime.now().plusHours(1)));
+        snapshots.getPastEvents();
+        snapshots.getPastEvents();
+        verify(eventService, times(1)).getPastEventsSummaries();
+
+        when(eventRepository.findNextEventTimeAfter(any()))
+                .thenReturn(Optional.of(LocalDateTime.now().minusSeconds(1)));
+        snapshots.onEventDataChanged(new EventDataChangedEvent(5L));
+        snapshots.getPastEvents();
+        snapshots.getPastEvents();
+        verify(eventService, times(3)).getPastEventsSummaries();
+    }
+
+    @Test
+    void testEventCreatedBeforeExpiryDropsPastEvents() {
+        EventSummaryDto summary = eventService.getEventSummaryById(5L);
+        when(eventService.getPastEventsSummaries()).thenReturn(List.of(summary));
+        when(eventRepository.findNextEventTimeAfter(any()))
+                .thenReturn(Optional.of(LocalDateTime.now().plusHours(1)));
+        snapshots.getPastEvents();
+
+        when(eventService.getEventSummaryById(7L)).thenReturn(
+                new EventSummaryDto(7L, "Kohvik", LocalDateTime.now().plusMinutes(10), "Tartu", 0));
+        snapshots.onEventDataChanged(new EventDataChangedEvent(7L));
+        snapshots.getPastEvents();
+        verify(eventService, times(2)).getPastEventsSummaries();
+
+        when(eventService.getEventSummaryById(8L)).thenReturn(
+                new EventSummaryDto(8L, "Laulupidu", LocalDateTime.now().plusDays(2), "Tartu", 0));
+        snapshots.onEventDataChanged(new EventDataChangedEvent(8L));
+        snapshots.getPastEvents();
+        verify(eventService, times(2)).getPastEventsSummaries();
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.rik.nullam;
+
+import com.rik.nullam.config.QueryCounter;
+import com.rik.nullam.config.QueryStats;
+import com.rik.nullam.service.EventService;
+import com.rik.nullam.service.EventSummaryCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static com.rik.nullam.QueryCountAssertions.assertQueryCount;
+
+@SpringBootTest
+class QueryBudgetTest {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventSummaryCache eventSummaryCache;
+
+    @Test
+    void testEventSummaryIsLoadedOnceWithOneQuery() {
+        eventSummaryCache.invalidate(9999L);
+        assertQueryCount(1, () -> eventService.getEventSummaryById(9999L));
+        assertQueryCount(0, () -> eventService.getEventSummaryById(9999L));
+    }
+
+    @Test
+    void testParticipantListFetchesEventWithParticipations() {
+        eventSummaryCache.invalidate(9999L);
+        assertQueryCount(2, () -> eventService.getEventParticipantSummariesList(9999L));
+    }
+
+    @Test
+    void testFutureEventsSummariesUseOneQuery() {
+        assertQueryCount(1, () -> eventService.getFutureEventsSummaries());
+    }
+
+    @Test
+    void testRepeatedStatementIsReported() {
+        QueryCounter inspector = new QueryCounter();
+        QueryStats stats = QueryCounter.count(() -> {
+            inspector.inspect("select e from event e where e.id=?");
+            inspector.inspect("select p from person_participation p where p.event_id=?");
+            inspector.inspect("select p from person_participation p where p.event_id=?");
+        });
+        Assertions.assertEquals(3, stats.getQueries());
+        Assertions.assertEquals(2, stats.getMostRepeatedStatement().getValue());
+        Assertions.assertEquals(0, QueryCounter.count(() -> { }).getQueries());
+    }
+}
@@ -0,0 +1,25 @@
+package com.rik.nullam;
+
+import com.rik.nullam.config.QueryCounter;
+import com.rik.nullam.config.QueryStats;
+import org.junit.jupiter.api.Assertions;
+
+/**
+ * Assertions on the number of SQL statements a call runs against the test database.
+ */
+final class QueryCountAssertions {
+
+    private QueryCountAssertions() {
+    }
+
+    /**
+     * Assert that a call runs exactly the expected number of statements.
+     * @param expected expected number of statements.
+     * @param call call to run.
+     */
+    static void assertQueryCount(int expected, Runnable call) {
+        QueryStats stats = QueryCounter.count(call);
+        Assertions.assertEquals(expected, stats.getQueries(),
+                () -> "Unexpected number of statements, most repeated: " + stats.getMostRepeatedStatement());
+    }
+}
@@ -0,0 +1,62 @@
+package com.rik.nullam;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest
+class SchemaIndexTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Get H2 query plan for given statement.
+     * @param sql statement to explain.
+     * @return query plan in upper case.
+     */
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class).toUpperCase();
+    }
+
+    @Test
+    void testFutureEventsQueryUsesTimeIndex() {
+        String plan = explain("SELECT id, name FROM event WHERE time > TIMESTAMP '2025-01-01 00:00:00' "
+                + "ORDER BY time, id");
+        Assertions.assertTrue(plan.contains("IDX_EVENT_TIME"), plan);
+    }
+
+    @Test
+    void testPastEventsKeysetQueryUsesTimeIndex() {
+        String plan = explain("SELECT id, name FROM event WHERE time < TIMESTAMP '2025-01-01 00:00:00' "
+                + "AND (time < TIMESTAMP '2024-06-01 00:00:00' OR (time = TIMESTAMP '2024-06-01 00:00:00' "
+                + "AND id < 100)) ORDER BY time DESC, id DESC");
+        Assertions.assertTrue(plan.contains("IDX_EVENT_TIME"), plan);
+    }
+
+    @Test
+    void testPersonParticipantsByEventUsesEventIndex() {
+        String plan = explain("SELECT id FROM person_participation WHERE event_id = 9999");
+        Assertions.assertTrue(plan.contains("IDX_PERSON_PARTICIPATION_EVENT_ID"), plan);
+    }
+
+    @Test
+    void testCompanyParticipantsByEventUsesEventIndex() {
+        String plan = explain("SELECT id FROM company_participation WHERE event_id = 9999");
+        Assertions.assertTrue(plan.contains("IDX_COMPANY_PARTICIPATION_EVENT_ID"), plan);
+    }
+
+    @Test
+    void testPersonLookupByPersonalCodeUsesIndex() {
+        String plan = explain("SELECT id FROM person_participation WHERE personal_code = '36601019999'");
+        Assertions.assertTrue(plan.contains("IDX_PERSON_PARTICIPATION_PERSONAL_CODE"), plan);
+    }
+
+    @Test
+    void testCompanyLookupByRegistryCodeUsesIndex() {
+        String plan = explain("SELECT id FROM company_participation WHERE registry_code = '12345678'");
+        Assertions.assertTrue(plan.contains("IDX_COMPANY_PARTICIPATION_REGISTRY_CODE"), plan);
+    }
+}
@@ -0,0 +1,136 @@
+package com.rik.nullam;
+
+import com.rik.nullam.dto.ParticipationSummaryDto;
+import com.rik.nullam.dto.SearchResultDto;
+import com.rik.nullam.entity.event.Event;
+import com.rik.nullam.entity.participation.CompanyParticipation;
+import com.rik.nullam.entity.participation.PaymentMethod;
+import com.rik.nullam.entity.participation.PersonParticipation;
+import com.rik.nullam.repository.CompanyParticipationRepository;
+import com.rik.nullam.repository.EventRepository;
+import com.rik.nullam.repository.PersonParticipationRepository;
+import com.rik.nullam.service.EventDataChangedEvent;
+import com.rik.nullam.service.SearchIndex;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class SearchIndexTest {
+
+    private SearchIndex index;
+
+    private EventRepository eventRepository;
+    private PersonParticipationRepository personRepository;
+    private CompanyParticipationRepository companyRepository;
+
+    private Event event;
+    private PersonParticipation person;
+    private CompanyParticipation company;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository = mock(EventRepository.class);
+        personRepository = mock(PersonParticipationRepository.class);
+        companyRepository = mock(CompanyParticipationRepository.class);
+        index = new SearchIndex(eventRepository, personRepository, companyRepository);
+
+        event = new Event("Jaanipäev Õismäel", LocalDateTime.now().plusDays(10), "Tallinn", "Lõkke ääres", null);
+        ReflectionTestUtils.setField(event, "id", 5L);
+        person = new PersonParticipation(event, PaymentMethod.CASH, null, "Jüri", "Mägi", "38001010000");
+        ReflectionTestUtils.setField(person, "id", 7L);
+        company = new CompanyParticipation(event, PaymentMethod.BANK_TRANSFER, null, "Kalurid OÜ", "12345678", 3);
+        ReflectionTestUtils.setField(company, "id", 7L);
+
+        when(eventRepository.findAll()).thenReturn(List.of(event));
+        when(eventRepository.findEventById(5L)).thenReturn(Optional.of(event));
+        when(personRepository.getPersonParticipationsByEvent_Id(5L)).thenReturn(List.of(person));
+        when(companyRepository.getCompanyParticipationsByEvent_Id(5L)).thenReturn(List.of(company));
+        when(personRepository.streamSearchResults()).thenAnswer(invocation -> Stream.of(
+                new SearchResultDto(SearchResultDto.ResultType.PERSON, 5L, "Jaanipäev Õismäel", 7L, "Jüri Mägi",
+                        "38001010000")));
+        when(companyRepository.streamSearchResults()).thenAnswer(invocation -> Stream.of(
+                new SearchResultDto(SearchResultDto.ResultType.COMPANY, 5L, "Jaanipäev Õismäel", 7L, "Kalurid OÜ",
+                        "12345678")));
+        index.build();
+    }
+
+    @Test
+    void testSearchIgnoresDiacriticsAndCase() {
+        List<SearchResultDto> results = index.search("oismael", 10);
+        Assertions.assertEquals(1, results.size());
+        Assertions.assertEquals(SearchResultDto.ResultType.EVENT, results.get(0).getType());
+
+        results = index.search("JURI MAGI", 10);
+        Assertions.assertEquals(1, results.size());
+        Assertions.assertEquals(7L, results.get(0).getParticipationId());
+        Assertions.assertEquals("Jaanipäev Õismäel", results.get(0).getEventName());
+    }
+
+    @Test
+    void testSearchByPersonalAndRegistryCode() {
+        Assertions.assertEquals(SearchResultDto.ResultType.PERSON, index.search("38001010000", 10).get(0).getType());
+        Assertions.assertEquals(SearchResultDto.ResultType.COMPANY, index.search("12345678", 10).get(0).getType());
+    }
+
+    @Test
+    void testSearchRequiresEveryWord() {
+        Assertions.assertEquals(1, index.search("Jüri Mägi", 10).size());
+        Assertions.assertTrue(index.search("Jüri Tamm", 10).isEmpty());
+        Assertions.assertTrue(index.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    void testLimitKeepsFirstResultsInOrder() {
+        PersonParticipation other = new PersonParticipation(event, PaymentMethod.CASH, null, "Aadu", "Mägi",
+                "38001010001");
+        ReflectionTestUtils.setField(other, "id", 8L);
+        when(personRepository.findById(8L)).thenReturn(Optional.of(other));
+        index.onEventDataChanged(new EventDataChangedEvent(5L, ParticipationSummaryDto.ParticipationType.PERSON, 8L));
+
+        for (int limit = 1; limit <= 2; limit++) {
+            List<SearchResultDto> results = index.search("Mägi", limit);
+            Assertions.assertEquals(limit, results.size());
+            Assertions.assertEquals("Aadu Mägi", results.get(0).getName());
+        }
+    }
+
+    @Test
+    void testParticipationChangeUpdatesOnlyThatParticipation() {
+        person.setLastName("Tamm");
+        when(personRepository.findById(7L)).thenReturn(Optional.of(person));
+        index.onEventDataChanged(new EventDataChangedEvent(5L, ParticipationSummaryDto.ParticipationType.PERSON, 7L));
+
+        Assertions.assertTrue(index.search("Mägi", 10).isEmpty());
+        Assertions.assertEquals(1, index.search("Jüri Tamm", 10).size());
+        Assertions.assertEquals(1, index.search("Kalurid", 10).size());
+    }
+
+    @Test
+    void testDeletedParticipationIsDropped() {
+        when(companyRepository.findById(7L)).thenReturn(Optional.empty());
+        index.onEventDataChanged(new EventDataChangedEvent(5L, ParticipationSummaryDto.ParticipationType.COMPANY, 7L));
+
+        Assertions.assertTrue(index.search("Kalurid", 10).isEmpty());
+        Assertions.assertEquals(1, index.search("Jüri", 10).size());
+    }
+
+    @Test
+    void testDeletedEventIsDroppedWithParticipants() {
+        when(eventRepository.findEventById(5L)).thenReturn(Optional.empty());
+        index.onEventDataChanged(new EventDataChangedEvent(5L));
+
+        Assertions.assertEquals(0, index.size());
+        Assertions.assertTrue(index.search("Jüri", 10).isEmpty());
+    }
+}
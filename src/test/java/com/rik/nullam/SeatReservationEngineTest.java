@@ -0,0 +1,135 @@
+package com.rik.nullam;
+
+import com.rik.nullam.entity.event.Event;
+import com.rik.nullam.repository.EventRepository;
+import com.rik.nullam.service.SeatReservationEngine;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class SeatReservationEngineTest {
+
+    private static final int CAPACITY = 50;
+
+    private SeatReservationEngine engine;
+    private EventRepository eventRepository;
+    private AtomicInteger databaseCount;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository = mock(EventRepository.class);
+        engine = new SeatReservationEngine(eventRepository);
+        databaseCount = new AtomicInteger();
+
+        when(eventRepository.findEventById(5L)).thenReturn(Optional.of(
+                new Event("Linnajooks", LocalDateTime.now().plusDays(1), "Pärnu", null, CAPACITY)));
+        when(eventRepository.reserveSeats(eq(5L), anyInt())).thenAnswer(invocation -> {
+            int seats = invocation.getArgument(1);
+            while (true) {
+                int current = databaseCount.get();
+                if (current + seats > CAPACITY) {
+                    return 0;
+                }
+                if (databaseCount.compareAndSet(current, current + seats)) {
+                    return 1;
+                }
+            }
+        });
+        when(eventRepository.adjustParticipantCount(eq(5L), anyInt()))
+                .thenAnswer(invocation -> {
+                    databaseCount.addAndGet(invocation.getArgument(1));
+                    return 1;
+                });
+    }
+
+    @Test
+    void testReserveWithinCapacityTrue() {
+        Assertions.assertTrue(engine.reserve(5L, 10));
+        verify(eventRepository, times(1)).reserveSeats(5L, 10);
+    }
+
+    @Test
+    void testReserveMoreThanCapacityRejectedWithoutDatabase() {
+        Assertions.assertFalse(engine.reserve(5L, CAPACITY + 1));
+        verify(eventRepository, never()).reserveSeats(eq(5L), anyInt());
+    }
+
+    @Test
+    void testReserveFullEventRejectedWithoutDatabase() {
+        Assertions.assertTrue(engine.reserve(5L, CAPACITY));
+        Assertions.assertFalse(engine.reserve(5L, 1));
+        verify(eventRepository, times(1)).reserveSeats(eq(5L), anyInt());
+    }
+
+    @Test
+    void testReleasedSeatsCanBeReservedAgain() {
+        Assertions.assertTrue(engine.reserve(5L, CAPACITY));
+        engine.release(5L, 3);
+        Assertions.assertTrue(engine.reserve(5L, 3));
+        verify(eventRepository, times(1)).adjustParticipantCount(5L, -3);
+    }
+
+    @Test
+    void testReserveDatabaseRejectsCounterIsReloaded() {
+        when(eventRepository.reserveSeats(5L, 1)).thenReturn(0);
+        Assertions.assertFalse(engine.reserve(5L, 1));
+        Assertions.assertFalse(engine.reserve(5L, 1));
+        verify(eventRepository, times(2)).findEventById(5L);
+    }
+
+    @Test
+    void testCounterBehindDatabaseIsRaised() {
+        Assertions.assertTrue(engine.reserve(5L, CAPACITY));
+        // Seats freed outside this engine, e.g. by another instance or a count repair
+        databaseCount.set(CAPACITY - 4);
+        when(eventRepository.findFreeSeats(5L)).thenReturn(Optional.of(4));
+
+        Assertions.assertTrue(engine.reserve(5L, 3));
+        Assertions.assertTrue(engine.reserve(5L, 1));
+        Assertions.assertFalse(engine.reserve(5L, 1));
+        verify(eventRepository, times(1)).findFreeSeats(5L);
+    }
+
+    @Test
+    void testReserveUnknownEventFalse() {
+        when(eventRepository.findEventById(6L)).thenReturn(Optional.empty());
+        Assertions.assertFalse(engine.reserve(6L, 1));
+    }
+
+    @Test
+    void testConcurrentReservationsDoNotOversell() throws Exception {
+        List<Future<Integer>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < 400; i++) {
+                int seats = i % 3 + 1;
+                results.add(executor.submit(() -> engine.reserve(5L, seats) ? seats : 0));
+            }
+        }
+        int admittedSeats = 0;
+        for (Future<Integer> result : results) {
+            admittedSeats += result.get();
+        }
+        Assertions.assertEquals(databaseCount.get(), admittedSeats);
+        Assertions.assertTrue(admittedSeats <= CAPACITY);
+        Assertions.assertTrue(admittedSeats >= CAPACITY - 2);
+    }
+}
@@ -0,0 +1,123 @@
+package com.rik.nullam;
+
+import com.rik.nullam.dto.WaitlistPositionDto;
+import com.rik.nullam.entity.change.ParticipationChange;
+import com.rik.nullam.entity.event.Event;
+import com.rik.nullam.entity.participation.PaymentMethod;
+import com.rik.nullam.entity.waitlist.WaitlistEntry;
+import com.rik.nullam.repository.CompanyParticipationRepository;
+import com.rik.nullam.repository.EventRepository;
+import com.rik.nullam.repository.PersonParticipationRepository;
+import com.rik.nullam.repository.WaitlistEntryRepository;
+import com.rik.nullam.service.ChangeFeed;
+import com.rik.nullam.service.SeatReservationEngine;
+import com.rik.nullam.service.WaitlistService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class WaitlistServiceTest {
+
+    private WaitlistService service;
+
+    private WaitlistEntryRepository waitlistRepository;
+    private EventRepository eventRepository;
+    private SeatReservationEngine seatReservationEngine;
+    private ChangeFeed changeFeed;
+
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        waitlistRepository = mock(WaitlistEntryRepository.class);
+        eventRepository = mock(EventRepository.class);
+        seatReservationEngine = mock(SeatReservationEngine.class);
+        changeFeed = mock(ChangeFeed.class);
+        service = new WaitlistService(waitlistRepository, eventRepository,
+                mock(PersonParticipationRepository.class), mock(CompanyParticipationRepository.class),
+                seatReservationEngine, changeFeed);
+
+        event = new Event("Linnajooks", LocalDateTime.now().plusDays(1), "Pärnu", null, 10);
+        ReflectionTestUtils.setField(event, "id", 5L);
+        when(seatReservationEngine.reserveReleased(any(), anyInt())).thenReturn(true);
+    }
+
+    /**
+     * Create waitlist entry with id.
+     * @param id id of entry.
+     * @param seats number of seats, 1 creates a person entry.
+     * @return waitlist entry.
+     */
+    private WaitlistEntry entry(Long id, int seats) {
+        WaitlistEntry entry = seats == 1
+                ? new WaitlistEntry(event, PaymentMethod.CASH, null, "Mari", "Mets", "48801013761")
+                : new WaitlistEntry(event, PaymentMethod.CASH, null, "Kalurid OÜ", "12345678", seats);
+        ReflectionTestUtils.setField(entry, "id", id);
+        return entry;
+    }
+
+    @Test
+    void testPromoteReadsOnlyAsManyEntriesAsFreeSeats() {
+        when(eventRepository.findFreeSeats(5L)).thenReturn(Optional.of(3));
+        when(waitlistRepository.findQueueHead(5L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(entry(1L, 1), entry(2L, 1), entry(3L, 1)));
+
+        Assertions.assertEquals(3, service.promote(event));
+        verify(seatReservationEngine, times(1)).reserveReleased(5L, 3);
+        verify(waitlistRepository, times(1)).deleteByIds(List.of(1L, 2L, 3L));
+        verify(changeFeed, times(3)).recordParticipationChange(eq(ParticipationChange.ChangeType.PARTICIPATION_ADDED),
+                any());
+    }
+
+    @Test
+    void testPromoteStopsAtFirstEntryThatDoesNotFit() {
+        when(eventRepository.findFreeSeats(5L)).thenReturn(Optional.of(4));
+        when(waitlistRepository.findQueueHead(5L, PageRequest.of(0, 4)))
+                .thenReturn(List.of(entry(1L, 1), entry(2L, 5), entry(3L, 1)));
+
+        Assertions.assertEquals(1, service.promote(event));
+        verify(seatReservationEngine, times(1)).reserveReleased(5L, 1);
+        verify(waitlistRepository, times(1)).deleteByIds(List.of(1L));
+    }
+
+    @Test
+    void testPromoteNoFreeSeatsQueueNotRead() {
+        when(eventRepository.findFreeSeats(5L)).thenReturn(Optional.of(0));
+
+        Assertions.assertEquals(0, service.promote(event));
+        verify(waitlistRepository, never()).findQueueHead(any(), any());
+    }
+
+    @Test
+    void testGetPositionCountsEntriesAhead() {
+        when(waitlistRepository.findById(7L)).thenReturn(Optional.of(entry(7L, 1)));
+        when(waitlistRepository.countByEvent_IdAndIdLessThan(5L, 7L)).thenReturn(2L);
+
+        WaitlistPositionDto position = service.getPosition(7L).orElseThrow();
+        Assertions.assertEquals(3, position.getPosition());
+        Assertions.assertEquals(5L, position.getEventId());
+    }
+
+    @Test
+    void testGetPositionPromotedEntryEmpty() {
+        when(waitlistRepository.findById(7L)).thenReturn(Optional.empty());
+        Assertions.assertTrue(service.getPosition(7L).isEmpty());
+    }
+}